@@ -0,0 +1,18 @@
+package ca.bazlur.mandelbrot.app;
+
+import ca.bazlur.mandelbrot.RenderEvent;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("ca.bazlur.mandelbrot.Colorize")
+@Label("Colorize")
+@Description("Mapping iteration counts to colors with the current palette")
+public class ColorizeEvent extends RenderEvent {
+    @Label("Palette")
+    String palette;
+
+    @Label("Pixels")
+    long pixels;
+}
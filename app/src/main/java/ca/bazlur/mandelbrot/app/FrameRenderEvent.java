@@ -0,0 +1,28 @@
+package ca.bazlur.mandelbrot.app;
+
+import ca.bazlur.mandelbrot.RenderEvent;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("ca.bazlur.mandelbrot.FrameRender")
+@Label("Frame Render")
+@Description("A frame requested by the explorer, from the request until the image is on the canvas")
+public class FrameRenderEvent extends RenderEvent {
+    @Label("Width")
+    int width;
+
+    @Label("Height")
+    int height;
+
+    @Label("Center X")
+    double centerX;
+
+    @Label("Center Y")
+    double centerY;
+
+    @Label("Resumed")
+    @Description("Only points that had not escaped at the previous maxIterations were iterated")
+    boolean resumed;
+}
@@ -0,0 +1,2026 @@
+package ca.bazlur.mandelbrot.app;
+
+import ca.bazlur.mandelbrot.BenchmarkResult;
+import ca.bazlur.mandelbrot.BurningShipFractal;
+import ca.bazlur.mandelbrot.ColorPalette;
+import ca.bazlur.mandelbrot.ComplexNumber;
+import ca.bazlur.mandelbrot.DeepZoomExporter;
+import ca.bazlur.mandelbrot.ExponentialMap;
+import ca.bazlur.mandelbrot.ExportEvent;
+import ca.bazlur.mandelbrot.ExportQueue;
+import ca.bazlur.mandelbrot.ExportSpec;
+import ca.bazlur.mandelbrot.Fractal;
+import ca.bazlur.mandelbrot.FrameBudget;
+import ca.bazlur.mandelbrot.IterationState;
+import ca.bazlur.mandelbrot.JobFile;
+import ca.bazlur.mandelbrot.JuliaFractal;
+import ca.bazlur.mandelbrot.Keyframe;
+import ca.bazlur.mandelbrot.MandelbrotCalculatorStrategy;
+import ca.bazlur.mandelbrot.MandelbrotFractal;
+import ca.bazlur.mandelbrot.MultibrotFractal;
+import ca.bazlur.mandelbrot.PhoenixFractal;
+import ca.bazlur.mandelbrot.PngWriter;
+import ca.bazlur.mandelbrot.ProgressiveRenderer;
+import ca.bazlur.mandelbrot.RenderBenchmark;
+import ca.bazlur.mandelbrot.RenderCheckpoint;
+import ca.bazlur.mandelbrot.RenderMetrics;
+import ca.bazlur.mandelbrot.Tile;
+import ca.bazlur.mandelbrot.TileCost;
+import ca.bazlur.mandelbrot.TileProfile;
+import ca.bazlur.mandelbrot.TilePublisher;
+import ca.bazlur.mandelbrot.TileResult;
+import ca.bazlur.mandelbrot.TricornFractal;
+import ca.bazlur.mandelbrot.ZoomAnimation;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.*;
+import javafx.scene.control.cell.ProgressBarTableCell;
+import javafx.scene.input.KeyCombination;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.input.ZoomEvent;
+import javafx.scene.input.RotateEvent;
+import javafx.scene.input.SwipeEvent;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.stage.DirectoryChooser;
+import javafx.stage.Stage;
+import javafx.stage.FileChooser;
+import javafx.util.Duration;
+import javafx.embed.swing.SwingFXUtils;
+
+import javax.imageio.ImageIO;
+import java.io.File;
+import java.io.IOException;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.DecimalFormat;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+
+public class MandelbrotApplication extends Application {
+    private static final int DEFAULT_WIDTH = 1000;
+    private static final int DEFAULT_HEIGHT = 800;
+    private static final double INITIAL_ZOOM = 200;
+    private static final double ZOOM_FACTOR = 1.5;
+    private static final int DEFAULT_MAX_ITERATIONS = 100;
+    private static final double MIN_ZOOM = 50;
+    private static final double MAX_ZOOM = 1e15;
+    private static final int CONCURRENT_EXPORTS = 2;
+    
+    private final int WIDTH = DEFAULT_WIDTH;
+    private final int HEIGHT = DEFAULT_HEIGHT;
+    private double ZOOM = INITIAL_ZOOM;
+
+    private Canvas canvas;
+    private WritableImage image;
+    private PixelWriter pixelWriter;
+    private final TextField iterationField = new TextField(String.valueOf(DEFAULT_MAX_ITERATIONS));
+    private final Label coordinateLabel = new Label("Center: (0, 0) | Zoom: 200");
+    private final Label statusLabel = new Label("Ready");
+    private final ProgressBar progressBar = new ProgressBar(0);
+    private final Label progressLabel = new Label();
+    private final Label hudLabel = new Label();
+    private Canvas heatmapCanvas;
+    private boolean showTileHeatmap;
+    private TileProfile lastTileProfile;
+    private final Button calculateButton = new Button("Recalculate");
+    private final DecimalFormat coordFormat = new DecimalFormat("0.###############");
+    
+    private double centerX = -0.5;
+    private double centerY = 0;
+    private MandelbrotCalculatorStrategy calculator;
+    private ColorPalette.PaletteType currentPalette = ColorPalette.PaletteType.SMOOTH;
+    private Fractal currentFractal = new MandelbrotFractal();
+    private HBox juliaParameterBox;
+    private TextField juliaRealField;
+    private TextField juliaImagField;
+    private ComboBox<String> juliaPresetSelector;
+    
+    private final AtomicBoolean isCalculating = new AtomicBoolean(false);
+    private Task<int[][]> currentTask;
+    private int[][] currentIterations;
+    private IterationState iterationState; // Orbits of the last frame, resumed when only maxIterations grows
+    private final ProgressiveRenderer progressiveRenderer = new ProgressiveRenderer();
+    private boolean progressiveRendering;
+    private boolean progressiveFrame; // The running calculation is progressive and may be superseded
+    private long frameGeneration; // Incremented for every frame, stale passes and results are dropped
+    private final FrameBudget frameBudget = new FrameBudget();
+    private boolean interactiveFrame; // The running calculation is a reduced resolution gesture frame
+    private boolean interactivePending; // The view moved again while an interactive frame was running
+    private boolean fullQualityPending; // A full render was requested while an interactive frame was running
+    private boolean dragging;
+    private double focusX = WIDTH / 2.0; // Tiles nearest to this point are computed and shown first
+    private double focusY = HEIGHT / 2.0;
+    // Runs the calculations streamed to the canvas; a superseded frame stops before its next tile
+    private final ExecutorService tileExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "tile-publisher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExportQueue exportQueue =
+        new ExportQueue(RenderCheckpoint.DEFAULT_ROOT, CONCURRENT_EXPORTS, this::exportJobChanged);
+    private Stage batchStage; // The batch export window while it is open
+    private TableView<ExportQueue.Job> batchTable;
+    private Label batchSummaryLabel;
+    private final ObservableList<Keyframe> keyframes = FXCollections.observableArrayList(); // Path of the zoom animation
+    private Stage animationStage; // The zoom animation window while it is open
+    
+    private double dragStartX;
+    private double dragStartY;
+    private double dragStartCenterX;
+    private double dragStartCenterY;
+
+    @Override
+    public void start(Stage stage) {
+        calculator = MandelbrotCalculatorStrategy.create(MandelbrotCalculatorStrategy.StrategyType.EXECUTOR_SERVICE);
+        RenderMetrics.registerMBean();
+        
+        // UI Setup
+        canvas = new Canvas(WIDTH, HEIGHT);
+        image = new WritableImage(WIDTH, HEIGHT);
+        pixelWriter = image.getPixelWriter();
+        
+        BorderPane root = new BorderPane();
+        
+        // Create menu bar
+        MenuBar menuBar = createMenuBar();
+        root.setTop(menuBar);
+        
+        // Bottom panel with minimal controls
+        VBox bottomPanel = new VBox(5);
+        bottomPanel.getChildren().addAll(createControlPanel(), createStatusPanel());
+        root.setBottom(bottomPanel);
+        root.setCenter(createCanvasPane());
+        
+        Scene scene = new Scene(root, WIDTH, HEIGHT + 120);
+        
+        stage.setScene(scene);
+        stage.setTitle("Mandelbrot Explorer - Enhanced");
+        stage.setOnCloseRequest(e -> {
+            if (calculator != null) {
+                calculator.close();
+            }
+            if (currentTask != null) {
+                currentTask.cancel(true);
+            }
+            tileExecutor.shutdownNow();
+            exportQueue.close(); // Unfinished exports keep their checkpoints
+        });
+        stage.show();
+
+        // Event Handlers
+        setupMouseHandlers();
+        setupScrollHandler();
+        setupGestureHandlers();
+        setupKeyboardHandlers(scene);
+        
+        startMetricsUpdates();
+        
+        // Initial Calculation
+        calculateMandelbrot();
+        
+        // Offer to finish HD exports that the last session did not complete
+        Platform.runLater(this::offerUnfinishedExports);
+    }
+    
+    private StackPane createCanvasPane() {
+        // Performance HUD drawn over the fractal, toggled with P
+        hudLabel.setStyle("-fx-background-color: rgba(0, 0, 0, 0.65); -fx-text-fill: white; "
+            + "-fx-font-family: monospace; -fx-padding: 6;");
+        hudLabel.setMouseTransparent(true);
+        hudLabel.setVisible(false);
+        StackPane.setAlignment(hudLabel, Pos.TOP_LEFT);
+        StackPane.setMargin(hudLabel, new Insets(8));
+        
+        // Tile cost heatmap drawn over the fractal when enabled from the View menu
+        heatmapCanvas = new Canvas(WIDTH, HEIGHT);
+        heatmapCanvas.setMouseTransparent(true);
+        return new StackPane(canvas, heatmapCanvas, hudLabel);
+    }
+    
+    private void startMetricsUpdates() {
+        Timeline metricsTimeline = new Timeline(new KeyFrame(Duration.millis(200), e -> updateMetricsDisplay()));
+        metricsTimeline.setCycleCount(Animation.INDEFINITE);
+        metricsTimeline.play();
+    }
+    
+    private void updateMetricsDisplay() {
+        RenderMetrics metrics = RenderMetrics.get();
+        
+        if (progressBar.isVisible()) {
+            double progress = metrics.getFrameProgress();
+            if (progress > 0) {
+                progressBar.setProgress(progress);
+                long eta = metrics.getFrameEtaMillis();
+                progressLabel.setText(eta < 0
+                    ? String.format("%.0f%%", progress * 100)
+                    : String.format("%.0f%% · ETA %s", progress * 100, formatMillis(eta)));
+            }
+        }
+        
+        if (hudLabel.isVisible()) {
+            hudLabel.setText(String.format("""
+                Strategy   %s
+                Frame      %s (p50 %d ms, p95 %d ms, p99 %d ms)
+                Pixels/s   %.2f M
+                Iter/s     %.1f M
+                Tiles      %d done, %d queued
+                Frames     %d
+                Resume hit %.0f%%""",
+                calculator.describeConfiguration(),
+                formatMillis(Math.round(metrics.getLastFrameMillis())),
+                metrics.getFrameLatencyP50Millis(), metrics.getFrameLatencyP95Millis(), metrics.getFrameLatencyP99Millis(),
+                metrics.getPixelsPerSecond() / 1e6,
+                metrics.getIterationsPerSecond() / 1e6,
+                metrics.getTilesCompleted(), metrics.getQueueDepth(),
+                metrics.getFramesCompleted(),
+                metrics.getCacheHitRate() * 100));
+        }
+    }
+    
+    private static String formatMillis(long millis) {
+        return millis < 1000 ? millis + " ms" : String.format("%.1f s", millis / 1000.0);
+    }
+    
+    private void setTileHeatmap(boolean enabled) {
+        showTileHeatmap = enabled;
+        if (enabled) {
+            iterationState = null; // Profile a full calculation, not a resumed one
+            calculateMandelbrot();
+        } else {
+            heatmapCanvas.getGraphicsContext2D().clearRect(0, 0, WIDTH, HEIGHT);
+        }
+    }
+    
+    private void drawTileHeatmap(TileProfile profile) {
+        GraphicsContext gc = heatmapCanvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, WIDTH, HEIGHT);
+        List<TileCost> tiles = profile.getTiles();
+        if (tiles.isEmpty()) {
+            return;
+        }
+        
+        // Blue for the cheapest tile up to red for the most expensive, on a log scale
+        long maxNanos = profile.getMaxNanos();
+        long minNanos = Math.max(1, profile.getMinNanos());
+        double range = Math.log((double) maxNanos / minNanos);
+        gc.setFont(Font.font("Monospaced", 11));
+        for (TileCost tile : tiles) {
+            double fraction = range == 0 ? 1 : Math.log((double) Math.max(1, tile.nanos()) / minNanos) / range;
+            gc.setFill(Color.hsb(240 * (1 - fraction), 1, 1, 0.45));
+            gc.fillRect(tile.x(), tile.y(), tile.width(), tile.height());
+            gc.setStroke(Color.color(1, 1, 1, 0.6));
+            gc.strokeRect(tile.x() + 0.5, tile.y() + 0.5, tile.width() - 1, tile.height() - 1);
+            if (tile.height() >= 28 && tile.width() >= 80) {
+                gc.setFill(Color.WHITE);
+                gc.fillText(String.format("%.1f ms%n%.1f Mi", tile.nanos() / 1e6, tile.iterations() / 1e6),
+                    tile.x() + 4, tile.y() + 13);
+            }
+        }
+        
+        String summary = String.format("%d tiles | slowest %.1f ms | fastest %.1f ms | imbalance %.1fx",
+            tiles.size(), maxNanos / 1e6, minNanos / 1e6, (double) maxNanos / minNanos);
+        gc.setFill(Color.color(0, 0, 0, 0.65));
+        gc.fillRect(8, HEIGHT - 28, summary.length() * 7 + 12, 20);
+        gc.setFill(Color.WHITE);
+        gc.fillText(summary, 14, HEIGHT - 14);
+    }
+    
+    private void exportTileCosts() {
+        if (lastTileProfile == null) {
+            showError("No tile costs recorded. Enable View > Tile Cost Heatmap and calculate a frame first.");
+            return;
+        }
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Export Tile Costs");
+        fileChooser.setInitialFileName("tile_costs_" + System.currentTimeMillis() + ".csv");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV Files", "*.csv"));
+        File file = fileChooser.showSaveDialog(canvas.getScene().getWindow());
+        if (file != null) {
+            try {
+                lastTileProfile.writeCsv(file.toPath());
+                showInfo("Tile costs saved to: " + file.getAbsolutePath());
+            } catch (IOException e) {
+                showError("Failed to save tile costs: " + e.getMessage());
+            }
+        }
+    }
+    
+    private void toggleHud() {
+        hudLabel.setVisible(!hudLabel.isVisible());
+        updateMetricsDisplay();
+    }
+
+    /**
+     * Check if navigation has to wait: a progressive frame is replaced by the new view instead
+     */
+    private boolean isBusy() {
+        return isCalculating.get() && !progressiveFrame && !interactiveFrame;
+    }
+
+    private void setupMouseHandlers() {
+        canvas.setOnMousePressed(mouseEvent -> {
+            dragStartX = mouseEvent.getX();
+            dragStartY = mouseEvent.getY();
+            dragStartCenterX = centerX;
+            dragStartCenterY = centerY;
+        });
+        
+        canvas.setOnMouseDragged(mouseEvent -> {
+            if (!isBusy()) {
+                double dx = mouseEvent.getX() - dragStartX;
+                double dy = mouseEvent.getY() - dragStartY;
+                centerX = dragStartCenterX - dx / ZOOM;
+                centerY = dragStartCenterY - dy / ZOOM;
+                dragging = true;
+                updateCoordinateLabel();
+                renderInteractive();
+            }
+        });
+        
+        canvas.setOnMouseReleased(mouseEvent -> {
+            if (dragging) {
+                dragging = false;
+                calculateMandelbrot(); // Full quality once the drag ends
+            }
+        });
+        
+        canvas.setOnMouseClicked(mouseEvent -> {
+            if (mouseEvent.getClickCount() == 2) {
+                // Double click to zoom in
+                zoomAt(mouseEvent.getX(), mouseEvent.getY(), ZOOM_FACTOR);
+            }
+        });
+    }
+    
+    private void setupScrollHandler() {
+        canvas.setOnScroll((ScrollEvent event) -> {
+            if (!isBusy()) {
+                double zoomFactor = event.getDeltaY() > 0 ? ZOOM_FACTOR : 1.0 / ZOOM_FACTOR;
+                zoomAt(event.getX(), event.getY(), zoomFactor);
+            }
+        });
+    }
+    
+    private void setupGestureHandlers() {
+        // Pinch-to-zoom gesture (trackpad/touchscreen)
+        canvas.setOnZoom((ZoomEvent event) -> {
+            if (!isBusy()) {
+                double zoomFactor = event.getZoomFactor();
+                // Get the center point of the zoom gesture
+                double x = event.getX();
+                double y = event.getY();
+                if (applyZoom(x, y, zoomFactor)) {
+                    renderInteractive();
+                }
+                event.consume();
+            }
+        });
+        
+        // Handle zoom gesture start
+        canvas.setOnZoomStarted((ZoomEvent event) -> {
+            // Could store initial state here if needed
+            event.consume();
+        });
+        
+        // Handle zoom gesture finish
+        canvas.setOnZoomFinished((ZoomEvent event) -> {
+            calculateMandelbrot(); // Full quality once the pinch ends
+            event.consume();
+        });
+        
+        // Rotation gesture (two-finger rotate on trackpad/touchscreen)
+        canvas.setOnRotate((RotateEvent event) -> {
+            // Could implement rotation of the view if desired
+            // For now, we'll just consume the event
+            event.consume();
+        });
+        
+        // Swipe gestures for quick navigation
+        canvas.setOnSwipeUp((SwipeEvent event) -> {
+            if (!isBusy()) {
+                // Pan up
+                centerY -= (HEIGHT * 0.25) / ZOOM;
+                updateCoordinateLabel();
+                calculateMandelbrot();
+                event.consume();
+            }
+        });
+        
+        canvas.setOnSwipeDown((SwipeEvent event) -> {
+            if (!isBusy()) {
+                // Pan down
+                centerY += (HEIGHT * 0.25) / ZOOM;
+                updateCoordinateLabel();
+                calculateMandelbrot();
+                event.consume();
+            }
+        });
+        
+        canvas.setOnSwipeLeft((SwipeEvent event) -> {
+            if (!isBusy()) {
+                // Pan left
+                centerX -= (WIDTH * 0.25) / ZOOM;
+                updateCoordinateLabel();
+                calculateMandelbrot();
+                event.consume();
+            }
+        });
+        
+        canvas.setOnSwipeRight((SwipeEvent event) -> {
+            if (!isBusy()) {
+                // Pan right
+                centerX += (WIDTH * 0.25) / ZOOM;
+                updateCoordinateLabel();
+                calculateMandelbrot();
+                event.consume();
+            }
+        });
+    }
+    
+    private void setupKeyboardHandlers(Scene scene) {
+        scene.setOnKeyPressed((KeyEvent event) -> {
+            if (event.getCode() == KeyCode.P) {
+                toggleHud(); // Available while calculating, to watch long renders
+                event.consume();
+                return;
+            }
+            if (isBusy()) {
+                return; // Don't process keys while calculating
+            }
+            
+            KeyCode code = event.getCode();
+            boolean shift = event.isShiftDown();
+            boolean ctrl = event.isControlDown() || event.isMetaDown();
+            
+            switch (code) {
+                // Zoom controls
+                case PLUS, EQUALS, ADD -> {
+                    // + or = key: zoom in at center
+                    zoomAt(WIDTH / 2.0, HEIGHT / 2.0, ZOOM_FACTOR);
+                }
+                case MINUS, SUBTRACT -> {
+                    // - key: zoom out at center
+                    zoomAt(WIDTH / 2.0, HEIGHT / 2.0, 1.0 / ZOOM_FACTOR);
+                }
+                
+                // Arrow key navigation
+                case UP, W -> {
+                    double panAmount = shift ? 0.5 : 0.1; // Shift for faster pan
+                    centerY -= (HEIGHT * panAmount) / ZOOM;
+                    updateCoordinateLabel();
+                    calculateMandelbrot();
+                }
+                case DOWN -> {
+                    double panAmount = shift ? 0.5 : 0.1;
+                    centerY += (HEIGHT * panAmount) / ZOOM;
+                    updateCoordinateLabel();
+                    calculateMandelbrot();
+                }
+                case LEFT, A -> {
+                    double panAmount = shift ? 0.5 : 0.1;
+                    centerX -= (WIDTH * panAmount) / ZOOM;
+                    updateCoordinateLabel();
+                    calculateMandelbrot();
+                }
+                case RIGHT, D -> {
+                    double panAmount = shift ? 0.5 : 0.1;
+                    centerX += (WIDTH * panAmount) / ZOOM;
+                    updateCoordinateLabel();
+                    calculateMandelbrot();
+                }
+                
+                // Quick actions
+                case R -> {
+                    if (ctrl) {
+                        // Ctrl+R: Reset view
+                        resetView();
+                    } else {
+                        // R: Recalculate
+                        calculateMandelbrot();
+                    }
+                }
+                case SPACE -> {
+                    // Space: Recalculate
+                    calculateMandelbrot();
+                }
+                case ESCAPE -> {
+                    // ESC: Reset view
+                    resetView();
+                }
+                
+                // Save shortcuts
+                case S -> {
+                    if (ctrl && shift) {
+                        // Ctrl+Shift+S: Save HD
+                        saveImage(true);
+                    } else if (ctrl) {
+                        // Ctrl+S: Save current
+                        saveImage(false);
+                    } else if (!shift) {
+                        // S key alone: pan down (same as arrow down)
+                        double panAmount = 0.1;
+                        centerY += (HEIGHT * panAmount) / ZOOM;
+                        updateCoordinateLabel();
+                        calculateMandelbrot();
+                    }
+                }
+                
+                // Iteration controls
+                case I -> {
+                    if (shift) {
+                        // Shift+I: Decrease iterations
+                        int current = Integer.parseInt(iterationField.getText());
+                        if (current > 50) {
+                            iterationField.setText(String.valueOf(current - 50));
+                            calculateMandelbrot();
+                        }
+                    } else {
+                        // I: Increase iterations
+                        int current = Integer.parseInt(iterationField.getText());
+                        if (current < 10000) {
+                            iterationField.setText(String.valueOf(current + 50));
+                            calculateMandelbrot();
+                        }
+                    }
+                }
+                
+                // Zoom animation
+                case K -> {
+                    addKeyframe();
+                }
+                
+                // Help
+                case H, F1 -> {
+                    showKeyboardShortcuts();
+                }
+            }
+            
+            event.consume();
+        });
+    }
+    
+    private void createJuliaParameterControls() {
+        juliaParameterBox = new HBox(10);
+        juliaParameterBox.setVisible(false);
+        juliaParameterBox.setManaged(false);
+        
+        // Create preset selector
+        juliaPresetSelector = new ComboBox<>();
+        juliaPresetSelector.getItems().addAll(
+            "Dragon",
+            "Dendrite",
+            "Rabbit",
+            "Spiral",
+            "Feather",
+            "San Marco",
+            "Siegel Disk",
+            "Custom"
+        );
+        juliaPresetSelector.setValue("Dragon");
+        
+        // Create parameter input fields
+        juliaRealField = new TextField("-0.8");
+        juliaImagField = new TextField("0.156");
+        juliaRealField.setPrefWidth(80);
+        juliaImagField.setPrefWidth(80);
+        
+        // Add validation for numeric input
+        juliaRealField.textProperty().addListener((obs, oldText, newText) -> {
+            if (!newText.matches("-?\\d*\\.?\\d*")) {
+                juliaRealField.setText(oldText);
+            }
+        });
+        juliaImagField.textProperty().addListener((obs, oldText, newText) -> {
+            if (!newText.matches("-?\\d*\\.?\\d*")) {
+                juliaImagField.setText(oldText);
+            }
+        });
+        
+        // Handle preset selection
+        juliaPresetSelector.setOnAction(e -> {
+            String preset = juliaPresetSelector.getValue();
+            ComplexNumber param = switch (preset) {
+                case "Dragon" -> JuliaFractal.DRAGON;
+                case "Dendrite" -> JuliaFractal.DENDRITE;
+                case "Rabbit" -> JuliaFractal.RABBIT;
+                case "Spiral" -> JuliaFractal.SPIRAL;
+                case "Feather" -> JuliaFractal.FEATHER;
+                case "San Marco" -> JuliaFractal.SAN_MARCO;
+                case "Siegel Disk" -> JuliaFractal.SIEGEL_DISK;
+                default -> null;
+            };
+            
+            if (param != null) {
+                juliaRealField.setText(String.format("%.4f", param.real()));
+                juliaImagField.setText(String.format("%.4f", param.imaginary()));
+                updateJuliaParameter();
+            }
+        });
+        
+        // Update Julia parameter when fields change
+        juliaRealField.setOnAction(e -> updateJuliaParameter());
+        juliaImagField.setOnAction(e -> updateJuliaParameter());
+        
+        Button applyButton = new Button("Apply");
+        applyButton.setOnAction(e -> updateJuliaParameter());
+        
+        juliaParameterBox.getChildren().addAll(
+            new Separator(),
+            new Label("Julia Preset:"),
+            juliaPresetSelector,
+            new Label("c ="),
+            juliaRealField,
+            new Label("+"),
+            juliaImagField,
+            new Label("i"),
+            applyButton
+        );
+    }
+    
+    private void updateJuliaParameter() {
+        try {
+            double real = Double.parseDouble(juliaRealField.getText());
+            double imag = Double.parseDouble(juliaImagField.getText());
+            
+            if (currentFractal instanceof JuliaFractal julia) {
+                julia.setParameter(new ComplexNumber(real, imag));
+                iterationState = null; // Saved orbits belong to the old parameter
+                calculateMandelbrot();
+            }
+        } catch (NumberFormatException e) {
+            // Invalid input, ignore
+        }
+    }
+    
+    private void showAbout() {
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("About Mandelbrot Explorer");
+        alert.setHeaderText("Mandelbrot Explorer");
+        alert.setContentText("An interactive fractal explorer supporting multiple fractal types\n" +
+                "including Mandelbrot, Julia Sets, Burning Ship, Tricorn, and more.\n\n" +
+                "Version 1.0");
+        alert.showAndWait();
+    }
+    
+    private void showKeyboardShortcuts() {
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("Keyboard Shortcuts");
+        alert.setHeaderText("Mandelbrot Explorer Keyboard Shortcuts");
+        
+        String shortcuts = """
+            Navigation:
+            • Arrow Keys / WASD: Pan view
+            • Shift + Arrows: Pan faster
+            • +/- or =/- : Zoom in/out
+            • Mouse scroll: Zoom at cursor
+            • Pinch gesture: Zoom (trackpad)
+            • Swipe gestures: Quick pan
+            
+            Actions:
+            • Space / R: Recalculate
+            • Ctrl+R / ESC: Reset view
+            • I: Increase iterations (+50)
+            • Shift+I: Decrease iterations (-50)
+            
+            File Operations:
+            • Ctrl+S: Save current view
+            • Ctrl+Shift+S: Save HD image
+            • K: Add the view as an animation keyframe
+            
+            Other:
+            • Double-click: Zoom in at point
+            • Drag: Pan view
+            • P: Toggle performance HUD
+            • H / F1: Show this help
+            """;
+        
+        alert.setContentText(shortcuts);
+        alert.getDialogPane().setPrefWidth(450);
+        alert.showAndWait();
+    }
+
+    private MenuBar createMenuBar() {
+        MenuBar menuBar = new MenuBar();
+        
+        // File menu
+        Menu fileMenu = new Menu("File");
+        MenuItem saveItem = new MenuItem("Save Image...");
+        MenuItem saveHDItem = new MenuItem("Save HD Image...");
+        MenuItem batchItem = new MenuItem("Batch Export...");
+        MenuItem deepZoomItem = new MenuItem("Export Deep Zoom...");
+        MenuItem animationItem = new MenuItem("Zoom Animation...");
+        MenuItem exportTileCostsItem = new MenuItem("Export Tile Costs...");
+        MenuItem exitItem = new MenuItem("Exit");
+        
+        saveItem.setAccelerator(KeyCombination.keyCombination("Ctrl+S"));
+        saveHDItem.setAccelerator(KeyCombination.keyCombination("Ctrl+Shift+S"));
+        exitItem.setAccelerator(KeyCombination.keyCombination("Ctrl+Q"));
+        
+        saveItem.setOnAction(e -> saveImage(false));
+        saveHDItem.setOnAction(e -> saveImage(true));
+        batchItem.setOnAction(e -> showBatchExport());
+        deepZoomItem.setOnAction(e -> exportDeepZoom());
+        animationItem.setOnAction(e -> showZoomAnimation());
+        exportTileCostsItem.setOnAction(e -> exportTileCosts());
+        exitItem.setOnAction(e -> Platform.exit());
+        
+        fileMenu.getItems().addAll(saveItem, saveHDItem, batchItem, deepZoomItem, animationItem, exportTileCostsItem, new SeparatorMenuItem(), exitItem);
+        
+        // View menu
+        Menu viewMenu = new Menu("View");
+        MenuItem zoomInItem = new MenuItem("Zoom In");
+        MenuItem zoomOutItem = new MenuItem("Zoom Out");
+        MenuItem resetViewItem = new MenuItem("Reset View");
+        MenuItem fullscreenItem = new MenuItem("Toggle Fullscreen");
+        MenuItem hudItem = new MenuItem("Toggle Performance HUD");
+        CheckMenuItem heatmapItem = new CheckMenuItem("Tile Cost Heatmap");
+        CheckMenuItem progressiveItem = new CheckMenuItem("Progressive Rendering");
+        
+        zoomInItem.setAccelerator(KeyCombination.keyCombination("Ctrl+Plus"));
+        zoomOutItem.setAccelerator(KeyCombination.keyCombination("Ctrl+Minus"));
+        resetViewItem.setAccelerator(KeyCombination.keyCombination("Ctrl+R"));
+        fullscreenItem.setAccelerator(KeyCombination.keyCombination("F11"));
+        
+        zoomInItem.setOnAction(e -> zoomAt(WIDTH / 2.0, HEIGHT / 2.0, ZOOM_FACTOR));
+        zoomOutItem.setOnAction(e -> zoomAt(WIDTH / 2.0, HEIGHT / 2.0, 1.0 / ZOOM_FACTOR));
+        resetViewItem.setOnAction(e -> resetView());
+        hudItem.setOnAction(e -> toggleHud());
+        heatmapItem.setOnAction(e -> setTileHeatmap(heatmapItem.isSelected()));
+        progressiveItem.setOnAction(e -> progressiveRendering = progressiveItem.isSelected());
+        fullscreenItem.setOnAction(e -> {
+            Stage stage = (Stage) menuBar.getScene().getWindow();
+            stage.setFullScreen(!stage.isFullScreen());
+        });
+        
+        viewMenu.getItems().addAll(zoomInItem, zoomOutItem, resetViewItem, new SeparatorMenuItem(), fullscreenItem, hudItem, heatmapItem, progressiveItem);
+        
+        // Tools menu
+        Menu toolsMenu = new Menu("Tools");
+        MenuItem benchmarkItem = new MenuItem("Benchmark...");
+        benchmarkItem.setOnAction(e -> runBenchmark());
+        toolsMenu.getItems().add(benchmarkItem);
+        
+        // Help menu
+        Menu helpMenu = new Menu("Help");
+        MenuItem shortcutsItem = new MenuItem("Keyboard Shortcuts");
+        MenuItem aboutItem = new MenuItem("About");
+        
+        shortcutsItem.setAccelerator(KeyCombination.keyCombination("Ctrl+H"));
+        
+        shortcutsItem.setOnAction(e -> showKeyboardShortcuts());
+        aboutItem.setOnAction(e -> showAbout());
+        
+        helpMenu.getItems().addAll(shortcutsItem, aboutItem);
+        
+        menuBar.getMenus().addAll(fileMenu, viewMenu, toolsMenu, helpMenu);
+        return menuBar;
+    }
+    
+    private HBox createControlPanel() {
+        HBox controlPanel = new HBox(10);
+        controlPanel.setPadding(new Insets(10));
+        
+        // Create Julia parameter controls (initially hidden)
+        createJuliaParameterControls();
+        
+        // Iteration input with validation
+        iterationField.setPrefWidth(80);
+        iterationField.textProperty().addListener((obs, oldText, newText) -> {
+            if (!newText.matches("\\d*")) {
+                iterationField.setText(oldText);
+            }
+        });
+        
+        calculateButton.setOnAction(e -> calculateMandelbrot());
+        
+        // Color palette selector
+        ComboBox<ColorPalette.PaletteType> paletteSelector = new ComboBox<>();
+        paletteSelector.getItems().addAll(ColorPalette.PaletteType.values());
+        paletteSelector.setValue(currentPalette);
+        paletteSelector.setOnAction(e -> {
+            currentPalette = paletteSelector.getValue();
+            if (currentIterations != null) {
+                renderFractal(currentIterations, Integer.parseInt(iterationField.getText()));
+            }
+        });
+        
+        // Fractal type selector
+        ComboBox<String> fractalSelector = new ComboBox<>();
+        fractalSelector.getItems().addAll(
+            "Mandelbrot",
+            "Julia Set",
+            "Burning Ship",
+            "Tricorn",
+            "Multibrot (d=3)",
+            "Multibrot (d=4)",
+            "Phoenix"
+        );
+        fractalSelector.setValue("Mandelbrot");
+        fractalSelector.setOnAction(e -> {
+            String selectedFractal = fractalSelector.getValue();
+            // Show/hide Julia parameter controls
+            juliaParameterBox.setVisible(selectedFractal.equals("Julia Set"));
+            juliaParameterBox.setManaged(selectedFractal.equals("Julia Set"));
+            
+            switch (selectedFractal) {
+                case "Julia Set" -> {
+                    JuliaFractal julia = new JuliaFractal();
+                    currentFractal = julia;
+                    centerX = currentFractal.getDefaultCenter().real();
+                    centerY = currentFractal.getDefaultCenter().imaginary();
+                    ZOOM = currentFractal.getDefaultZoom();
+                    // Update parameter fields with current values
+                    ComplexNumber param = julia.getParameter();
+                    juliaRealField.setText(String.format("%.4f", param.real()));
+                    juliaImagField.setText(String.format("%.4f", param.imaginary()));
+                }
+                case "Burning Ship" -> {
+                    currentFractal = new BurningShipFractal();
+                    centerX = currentFractal.getDefaultCenter().real();
+                    centerY = currentFractal.getDefaultCenter().imaginary();
+                    ZOOM = currentFractal.getDefaultZoom();
+                }
+                case "Tricorn" -> {
+                    currentFractal = new TricornFractal();
+                    centerX = currentFractal.getDefaultCenter().real();
+                    centerY = currentFractal.getDefaultCenter().imaginary();
+                    ZOOM = currentFractal.getDefaultZoom();
+                }
+                case "Multibrot (d=3)" -> {
+                    currentFractal = new MultibrotFractal(3);
+                    centerX = currentFractal.getDefaultCenter().real();
+                    centerY = currentFractal.getDefaultCenter().imaginary();
+                    ZOOM = currentFractal.getDefaultZoom();
+                }
+                case "Multibrot (d=4)" -> {
+                    currentFractal = new MultibrotFractal(4);
+                    centerX = currentFractal.getDefaultCenter().real();
+                    centerY = currentFractal.getDefaultCenter().imaginary();
+                    ZOOM = currentFractal.getDefaultZoom();
+                }
+                case "Phoenix" -> {
+                    currentFractal = new PhoenixFractal();
+                    centerX = currentFractal.getDefaultCenter().real();
+                    centerY = currentFractal.getDefaultCenter().imaginary();
+                    ZOOM = currentFractal.getDefaultZoom();
+                }
+                default -> {
+                    currentFractal = new MandelbrotFractal();
+                    centerX = currentFractal.getDefaultCenter().real();
+                    centerY = currentFractal.getDefaultCenter().imaginary();
+                    ZOOM = currentFractal.getDefaultZoom();
+                }
+            }
+            updateCoordinateLabel();
+            calculateMandelbrot();
+        });
+        
+        // Calculator strategy selector
+        ComboBox<MandelbrotCalculatorStrategy.StrategyType> strategySelector = new ComboBox<>();
+        strategySelector.getItems().addAll(MandelbrotCalculatorStrategy.StrategyType.values());
+        strategySelector.setValue(MandelbrotCalculatorStrategy.StrategyType.EXECUTOR_SERVICE);
+        strategySelector.setOnAction(e -> {
+            MandelbrotCalculatorStrategy.StrategyType newStrategy = strategySelector.getValue();
+            if (calculator != null) {
+                calculator.close();
+            }
+            calculator = MandelbrotCalculatorStrategy.create(newStrategy);
+            calculateMandelbrot();
+        });
+        
+        controlPanel.getChildren().addAll(
+            new Label("Fractal:"),
+            fractalSelector,
+            juliaParameterBox,
+            new Separator(),
+            new Label("Iterations:"), 
+            iterationField, 
+            calculateButton, 
+            new Separator(),
+            new Label("Color:"),
+            paletteSelector,
+            new Separator(),
+            new Label("Calculator:"),
+            strategySelector
+        );
+        
+        return controlPanel;
+    }
+    
+    private HBox createStatusPanel() {
+        HBox statusPanel = new HBox(10);
+        statusPanel.setPadding(new Insets(5, 10, 10, 10));
+        
+        progressBar.setPrefWidth(200);
+        progressBar.setVisible(false);
+        
+        HBox.setHgrow(coordinateLabel, Priority.ALWAYS);
+        
+        progressLabel.visibleProperty().bind(progressBar.visibleProperty());
+        progressLabel.setText("");
+        progressBar.visibleProperty().addListener((obs, wasVisible, visible) -> progressLabel.setText(""));
+        
+        statusPanel.getChildren().addAll(coordinateLabel, statusLabel, progressBar, progressLabel);
+        
+        return statusPanel;
+    }
+    
+    private void resetView() {
+        centerX = -0.5;
+        centerY = 0;
+        ZOOM = INITIAL_ZOOM;
+        iterationField.setText(String.valueOf(DEFAULT_MAX_ITERATIONS));
+        updateCoordinateLabel();
+        calculateMandelbrot();
+    }
+    
+    private void zoomAt(double mouseX, double mouseY, double zoomFactor) {
+        if (applyZoom(mouseX, mouseY, zoomFactor)) {
+            calculateMandelbrot();
+        }
+    }
+    
+    /**
+     * Zoom the view around a point without rendering it
+     * @return false if the zoom would leave the allowed range
+     */
+    private boolean applyZoom(double mouseX, double mouseY, double zoomFactor) {
+        double newZoom = ZOOM * zoomFactor;
+        
+        // Clamp zoom to reasonable values
+        if (newZoom < MIN_ZOOM || newZoom > MAX_ZOOM) {
+            return false;
+        }
+        
+        // Resolve the area under the mouse first
+        focusX = mouseX;
+        focusY = mouseY;
+        
+        // Calculate the point under the mouse in complex plane
+        double pointX = (mouseX - WIDTH / 2.0) / ZOOM + centerX;
+        double pointY = (mouseY - HEIGHT / 2.0) / ZOOM + centerY;
+        
+        // Update zoom
+        ZOOM = newZoom;
+        
+        // Adjust center so the point under mouse stays in the same position
+        centerX = pointX - (mouseX - WIDTH / 2.0) / ZOOM;
+        centerY = pointY - (mouseY - HEIGHT / 2.0) / ZOOM;
+        
+        updateCoordinateLabel();
+        return true;
+    }
+    
+    private void updateCoordinateLabel() {
+        String zoomStr = ZOOM > 1000000 ? String.format("%.2e", ZOOM) : coordFormat.format(ZOOM);
+        coordinateLabel.setText(String.format("Center: (%s, %s) | Zoom: %s", 
+            coordFormat.format(centerX), 
+            coordFormat.format(centerY), 
+            zoomStr));
+    }
+
+    /**
+     * Read and validate the iteration count
+     * @return The iteration count, or 0 after showing an error if it is invalid
+     */
+    private int readMaxIterations() {
+        String iterText = iterationField.getText().trim();
+        if (iterText.isEmpty()) {
+            showError("Please enter a valid number of iterations");
+            return 0;
+        }
+        
+        try {
+            int maxIterations = Integer.parseInt(iterText);
+            if (maxIterations < 1 || maxIterations > 10000) {
+                showError("Iterations must be between 1 and 10000");
+                return 0;
+            }
+            return maxIterations;
+        } catch (NumberFormatException e) {
+            showError("Invalid iteration count");
+            return 0;
+        }
+    }
+
+    private void calculateMandelbrot() {
+        if (isBusy()) {
+            return; // Already calculating
+        }
+        if (isCalculating.get() && interactiveFrame) {
+            fullQualityPending = true; // Interactive frames are short, render once it is done
+            return;
+        }
+        
+        int maxIterations = readMaxIterations();
+        if (maxIterations == 0) {
+            return;
+        }
+        
+        if (isCalculating.get()) {
+            currentTask.cancel(true); // Superseded progressive frame
+        }
+        
+        isCalculating.set(true);
+        calculateButton.setDisable(true);
+        progressBar.setVisible(true);
+        progressBar.setProgress(ProgressIndicator.INDETERMINATE_PROGRESS);
+        statusLabel.setText("Calculating...");
+        
+        // Continue the previous frame if only maxIterations was raised
+        IterationState state = iterationState;
+        if (state == null || !state.canResume(WIDTH, HEIGHT, centerX, centerY, ZOOM, currentFractal, maxIterations)) {
+            state = IterationState.isSupported(currentFractal)
+                ? new IterationState(WIDTH, HEIGHT, centerX, centerY, ZOOM, currentFractal)
+                : null;
+        }
+        IterationState frameState = state;
+        
+        FrameRenderEvent frameEvent = new FrameRenderEvent();
+        frameEvent.begin();
+        frameEvent.describe(currentFractal, ZOOM, maxIterations, calculator.getType());
+        frameEvent.width = WIDTH;
+        frameEvent.height = HEIGHT;
+        frameEvent.centerX = centerX;
+        frameEvent.centerY = centerY;
+        frameEvent.resumed = frameState != null && frameState.getMaxIterations() > 0;
+        
+        TileProfile tileProfile = showTileHeatmap ? TileProfile.start() : null;
+        
+        // Resumed frames are already fast, and the heatmap needs the strategy's tiles
+        boolean progressive = progressiveRendering && !showTileHeatmap
+            && (frameState == null || frameState.getMaxIterations() == 0);
+        progressiveFrame = progressive;
+        long generation = ++frameGeneration;
+        ProgressiveRenderer.PassListener showPass = (passIterations, stride) -> {
+            if (stride > 1) {
+                Platform.runLater(() -> {
+                    if (generation == frameGeneration) {
+                        renderFractal(passIterations, maxIterations, stride);
+                        statusLabel.setText("Refining (" + stride + "px blocks)...");
+                    }
+                });
+            }
+        };
+        
+        // Stream the tiles to the canvas as they complete, the area being zoomed into first
+        Consumer<TileResult> showTile = showTiles(generation, maxIterations);
+        double frameFocusX = focusX;
+        double frameFocusY = focusY;
+        focusX = WIDTH / 2.0; // Views not reached by zooming at a point resolve from the center
+        focusY = HEIGHT / 2.0;
+        
+        currentTask = new Task<>() {
+            @Override
+            protected int[][] call() {
+                if (progressive) {
+                    return frameState != null
+                        ? progressiveRenderer.render(frameState, maxIterations, showPass, this::isCancelled)
+                        : progressiveRenderer.render(WIDTH, HEIGHT, centerX, centerY, ZOOM, maxIterations,
+                                                     currentFractal, showPass, this::isCancelled);
+                }
+                if (frameState != null) {
+                    TilePublisher.forEach(calculator.publishTiles(frameState, maxIterations, frameFocusX, frameFocusY,
+                                                                  tileExecutor), showTile);
+                    return frameState.getIterations();
+                }
+                int[][] frame = new int[WIDTH][HEIGHT];
+                var tiles = calculator.publishTiles(WIDTH, HEIGHT, centerX, centerY, ZOOM, maxIterations,
+                                                    currentFractal, frameFocusX, frameFocusY, tileExecutor);
+                TilePublisher.forEach(tiles, tile -> {
+                    tile.copyInto(frame);
+                    showTile.accept(tile);
+                });
+                return frame;
+            }
+        };
+        
+        Task<int[][]> task = currentTask;
+        currentTask.setOnSucceeded(e -> {
+            if (generation != frameGeneration) {
+                return; // Finished just before a newer frame replaced it
+            }
+            int[][] iterations = task.getValue();
+            currentIterations = iterations; // Store for saving
+            iterationState = frameState;
+            renderFractal(iterations, maxIterations);
+            frameEvent.commit();
+            if (tileProfile != null) {
+                tileProfile.stop();
+                lastTileProfile = tileProfile;
+                drawTileHeatmap(tileProfile);
+            }
+            isCalculating.set(false);
+            progressiveFrame = false;
+            calculateButton.setDisable(false);
+            progressBar.setVisible(false);
+            statusLabel.setText("Ready");
+        });
+        
+        currentTask.setOnFailed(e -> {
+            if (generation != frameGeneration) {
+                return;
+            }
+            iterationState = null; // Rows may be partially advanced
+            if (tileProfile != null) {
+                tileProfile.stop();
+            }
+            isCalculating.set(false);
+            progressiveFrame = false;
+            calculateButton.setDisable(false);
+            progressBar.setVisible(false);
+            statusLabel.setText("Calculation failed");
+            showError("Calculation failed: " + task.getException().getMessage());
+        });
+        
+        Thread calculationThread = new Thread(currentTask);
+        calculationThread.setDaemon(true);
+        calculationThread.start();
+    }
+
+    /**
+     * Create a tile consumer that draws tiles on the canvas as they arrive. Tiles arriving between
+     * two runs of the FX thread are drawn together, and tiles of a replaced frame are dropped.
+     */
+    private Consumer<TileResult> showTiles(long generation, int maxIterations) {
+        ColorPalette palette = new ColorPalette(currentPalette);
+        Queue<TileResult> arrived = new ConcurrentLinkedQueue<>();
+        AtomicBoolean drawScheduled = new AtomicBoolean();
+        return result -> {
+            arrived.add(result);
+            if (drawScheduled.compareAndSet(false, true)) {
+                Platform.runLater(() -> {
+                    drawScheduled.set(false);
+                    for (TileResult next = arrived.poll(); next != null; next = arrived.poll()) {
+                        if (generation == frameGeneration) {
+                            renderTile(next, maxIterations, palette);
+                        }
+                    }
+                });
+            }
+        };
+    }
+    
+    private void renderTile(TileResult result, int maxIterations, ColorPalette palette) {
+        Tile tile = result.tile();
+        int[] pixels = new int[tile.width() * tile.height()];
+        for (int y = 0; y < tile.height(); y++) {
+            for (int x = 0; x < tile.width(); x++) {
+                pixels[y * tile.width() + x] = palette.getArgbForIterations(result.get(x, y), maxIterations);
+            }
+        }
+        pixelWriter.setPixels(tile.x(), tile.y(), tile.width(), tile.height(), PixelFormat.getIntArgbInstance(), pixels, 0, tile.width());
+        canvas.getGraphicsContext2D().drawImage(image, tile.x(), tile.y(), tile.width(), tile.height(),
+                                                tile.x(), tile.y(), tile.width(), tile.height());
+    }
+    
+    /**
+     * Render the view at a resolution that meets the frame budget, used during continuous gestures.
+     * Views that change while a frame is running are coalesced into one frame after it.
+     */
+    private void renderInteractive() {
+        if (isCalculating.get()) {
+            if (interactiveFrame) {
+                interactivePending = true;
+                return;
+            }
+            if (!progressiveFrame) {
+                return;
+            }
+            currentTask.cancel(true); // Superseded progressive frame
+        }
+        
+        int maxIterations = readMaxIterations();
+        if (maxIterations == 0) {
+            return;
+        }
+        
+        int scale = frameBudget.chooseScale(WIDTH, HEIGHT);
+        int width = FrameBudget.scaledPixels(WIDTH, scale);
+        int height = FrameBudget.scaledPixels(HEIGHT, scale);
+        double frameCenterX = centerX;
+        double frameCenterY = centerY;
+        double frameZoom = ZOOM / scale;
+        Fractal fractal = currentFractal;
+        
+        isCalculating.set(true);
+        interactiveFrame = true;
+        progressiveFrame = false;
+        long generation = ++frameGeneration;
+        
+        Task<int[][]> task = new Task<>() {
+            @Override
+            protected int[][] call() {
+                long start = System.nanoTime();
+                int[][] iterations = calculator.calculateIterations(width, height, frameCenterX, frameCenterY,
+                                                                    frameZoom, maxIterations, fractal);
+                frameBudget.record((long) width * height, System.nanoTime() - start);
+                return iterations;
+            }
+        };
+        task.setOnSucceeded(e -> {
+            if (generation == frameGeneration) {
+                renderScaled(task.getValue(), maxIterations, width, height, scale);
+                statusLabel.setText(scale == 1 ? "Interactive" : "Interactive (1/" + scale + " resolution)");
+                finishInteractiveFrame();
+            }
+        });
+        task.setOnFailed(e -> {
+            if (generation == frameGeneration) {
+                finishInteractiveFrame();
+            }
+        });
+        currentTask = task;
+        
+        Thread calculationThread = new Thread(task);
+        calculationThread.setDaemon(true);
+        calculationThread.start();
+    }
+    
+    private void finishInteractiveFrame() {
+        isCalculating.set(false);
+        interactiveFrame = false;
+        if (fullQualityPending) {
+            fullQualityPending = false;
+            interactivePending = false;
+            calculateMandelbrot();
+        } else if (interactivePending) {
+            interactivePending = false;
+            renderInteractive();
+        }
+    }
+    
+    /**
+     * Draw a reduced resolution frame stretched over the canvas
+     */
+    private void renderScaled(int[][] iterations, int maxIterations, int width, int height, int scale) {
+        ColorPalette palette = new ColorPalette(currentPalette);
+        int[] pixels = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                pixels[y * width + x] = palette.getArgbForIterations(iterations[x][y], maxIterations);
+            }
+        }
+        WritableImage scaled = new WritableImage(width, height);
+        scaled.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+        canvas.getGraphicsContext2D().drawImage(scaled, 0, 0, width * scale, height * scale);
+    }
+    
+    private void renderFractal(int[][] iterations, int maxIterations) {
+        renderFractal(iterations, maxIterations, 1);
+    }
+
+    /**
+     * Draw a frame of which only the pixels on the stride grid are known, each filling a stride x stride block
+     */
+    private void renderFractal(int[][] iterations, int maxIterations, int stride) {
+        ColorPalette palette = new ColorPalette(currentPalette);
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        
+        ColorizeEvent colorizeEvent = new ColorizeEvent();
+        colorizeEvent.begin();
+        int[] pixels = new int[WIDTH * HEIGHT];
+        if (stride == 1) {
+            for (int y = 0; y < HEIGHT; y++) {
+                for (int x = 0; x < WIDTH; x++) {
+                    pixels[y * WIDTH + x] = palette.getArgbForIterations(iterations[x][y], maxIterations);
+                }
+            }
+        } else {
+            for (int y = 0; y < HEIGHT; y += stride) {
+                for (int x = 0; x < WIDTH; x += stride) {
+                    int argb = palette.getArgbForIterations(iterations[x][y], maxIterations);
+                    for (int blockY = y; blockY < Math.min(y + stride, HEIGHT); blockY++) {
+                        Arrays.fill(pixels, blockY * WIDTH + x, blockY * WIDTH + Math.min(x + stride, WIDTH), argb);
+                    }
+                }
+            }
+        }
+        colorizeEvent.end();
+        if (colorizeEvent.shouldCommit()) {
+            colorizeEvent.describe(currentFractal, ZOOM, maxIterations, calculator.getType());
+            colorizeEvent.palette = currentPalette.name();
+            colorizeEvent.pixels = pixels.length;
+            colorizeEvent.commit();
+        }
+        
+        // Write all pixels at once and draw the image to canvas
+        PixelUploadEvent uploadEvent = new PixelUploadEvent();
+        uploadEvent.begin();
+        pixelWriter.setPixels(0, 0, WIDTH, HEIGHT, PixelFormat.getIntArgbInstance(), pixels, 0, WIDTH);
+        gc.drawImage(image, 0, 0);
+        uploadEvent.end();
+        if (uploadEvent.shouldCommit()) {
+            uploadEvent.describe(currentFractal, ZOOM, maxIterations, calculator.getType());
+            uploadEvent.pixels = pixels.length;
+            uploadEvent.commit();
+        }
+    }
+    
+    private void showError(String message) {
+        Platform.runLater(() -> {
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setTitle("Error");
+            alert.setHeaderText(null);
+            alert.setContentText(message);
+            alert.showAndWait();
+        });
+    }
+    
+    private void saveImage(boolean highResolution) {
+        if (currentIterations == null) {
+            showError("No image to save. Please calculate the fractal first.");
+            return;
+        }
+        
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Save Fractal Image");
+        fileChooser.setInitialFileName("mandelbrot_" + System.currentTimeMillis() + ".png");
+        fileChooser.getExtensionFilters().addAll(
+            new FileChooser.ExtensionFilter("PNG Images", "*.png"),
+            new FileChooser.ExtensionFilter("JPEG Images", "*.jpg", "*.jpeg")
+        );
+        
+        File file = fileChooser.showSaveDialog(canvas.getScene().getWindow());
+        if (file != null) {
+            if (highResolution) {
+                saveHighResolutionImage(file);
+            } else {
+                saveCurrentImage(file);
+            }
+        }
+    }
+    
+    private void saveCurrentImage(File file) {
+        try {
+            WritableImage writableImage = new WritableImage(WIDTH, HEIGHT);
+            canvas.snapshot(null, writableImage);
+            
+            ExportEvent exportEvent = new ExportEvent();
+            exportEvent.begin();
+            String extension = getFileExtension(file.getName());
+            if ("png".equals(extension)) {
+                int[] pixels = new int[WIDTH * HEIGHT];
+                writableImage.getPixelReader().getPixels(0, 0, WIDTH, HEIGHT, PixelFormat.getIntArgbInstance(), pixels, 0, WIDTH);
+                try (PngWriter png = new PngWriter(file.toPath(), WIDTH, HEIGHT, PngWriter.indexedPalette(pixels))) {
+                    png.writeRows(pixels, HEIGHT);
+                }
+            } else {
+                BufferedImage bufferedImage = SwingFXUtils.fromFXImage(writableImage, null);
+                ImageIO.write(bufferedImage, extension, file);
+            }
+            commitExportEvent(exportEvent, file, extension, WIDTH, HEIGHT, Integer.parseInt(iterationField.getText()));
+            
+            showInfo("Image saved successfully to: " + file.getAbsolutePath());
+        } catch (IOException e) {
+            showError("Failed to save image: " + e.getMessage());
+        }
+    }
+    
+    private void saveHighResolutionImage(File file) {
+        // Create a dialog to get HD resolution
+        Dialog<int[]> dialog = new Dialog<>();
+        dialog.setTitle("High Resolution Export");
+        dialog.setHeaderText("Choose export resolution");
+        
+        // Set up the dialog content
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.setPadding(new Insets(20, 150, 10, 10));
+        
+        ComboBox<String> resolutionCombo = new ComboBox<>();
+        resolutionCombo.getItems().addAll(
+            "1920x1080 (Full HD)",
+            "2560x1440 (2K)",
+            "3840x2160 (4K)",
+            "7680x4320 (8K)",
+            "Custom"
+        );
+        resolutionCombo.setValue("1920x1080 (Full HD)");
+        
+        TextField widthField = new TextField("1920");
+        TextField heightField = new TextField("1080");
+        widthField.setDisable(true);
+        heightField.setDisable(true);
+        
+        resolutionCombo.setOnAction(e -> {
+            String selected = resolutionCombo.getValue();
+            boolean isCustom = "Custom".equals(selected);
+            widthField.setDisable(!isCustom);
+            heightField.setDisable(!isCustom);
+            
+            if (!isCustom) {
+                switch (selected) {
+                    case "1920x1080 (Full HD)" -> {
+                        widthField.setText("1920");
+                        heightField.setText("1080");
+                    }
+                    case "2560x1440 (2K)" -> {
+                        widthField.setText("2560");
+                        heightField.setText("1440");
+                    }
+                    case "3840x2160 (4K)" -> {
+                        widthField.setText("3840");
+                        heightField.setText("2160");
+                    }
+                    case "7680x4320 (8K)" -> {
+                        widthField.setText("7680");
+                        heightField.setText("4320");
+                    }
+                }
+            }
+        });
+        
+        grid.add(new Label("Resolution:"), 0, 0);
+        grid.add(resolutionCombo, 1, 0);
+        grid.add(new Label("Width:"), 0, 1);
+        grid.add(widthField, 1, 1);
+        grid.add(new Label("Height:"), 0, 2);
+        grid.add(heightField, 1, 2);
+        
+        dialog.getDialogPane().setContent(grid);
+        
+        ButtonType exportButtonType = new ButtonType("Export", ButtonBar.ButtonData.OK_DONE);
+        dialog.getDialogPane().getButtonTypes().addAll(exportButtonType, ButtonType.CANCEL);
+        
+        dialog.setResultConverter(dialogButton -> {
+            if (dialogButton == exportButtonType) {
+                try {
+                    int w = Integer.parseInt(widthField.getText());
+                    int h = Integer.parseInt(heightField.getText());
+                    if (w > 0 && h > 0 && w <= 15360 && h <= 8640) {
+                        return new int[]{w, h};
+                    }
+                } catch (NumberFormatException e) {
+                    // Invalid input
+                }
+            }
+            return null;
+        });
+        
+        dialog.showAndWait().ifPresent(resolution -> {
+            int hdWidth = resolution[0];
+            int hdHeight = resolution[1];
+            
+            int maxIterations = Integer.parseInt(iterationField.getText());
+            String extension = getFileExtension(file.getName());
+            try {
+                // Queued in the background and checkpointed, so a closed window or a crash does not lose a long render
+                ExportSpec spec = ExportSpec.of(file.toPath(), extension, hdWidth, hdHeight, centerX, centerY, ZOOM,
+                                                maxIterations, currentFractal, currentPalette);
+                exportQueue.submit(spec);
+                if (batchTable != null) {
+                    batchTable.getItems().setAll(exportQueue.getJobs());
+                }
+            } catch (IOException e) {
+                showError("Failed to start HD export: " + e.getMessage());
+            }
+        });
+    }
+    
+    /**
+     * Show the progress of the export queue in the status bar and the batch window, and announce finished jobs
+     */
+    private void exportJobChanged(ExportQueue.Job job) {
+        Platform.runLater(() -> {
+            if (batchTable != null) {
+                batchTable.refresh();
+                batchSummaryLabel.setText(exportQueue.summary());
+            }
+            List<ExportQueue.Job> running = exportQueue.getJobs().stream()
+                .filter(j -> j.getStatus() == ExportQueue.Status.RUNNING || j.getStatus() == ExportQueue.Status.QUEUED)
+                .toList();
+            if (!running.isEmpty()) {
+                statusLabel.setText(String.format("Exporting %d image%s... %s", running.size(), running.size() == 1 ? "" : "s",
+                    running.stream().map(j -> String.format("%.0f%%", j.getProgress() * 100))
+                           .collect(Collectors.joining(" "))));
+            } else if (job.getStatus() == ExportQueue.Status.DONE || job.getStatus() == ExportQueue.Status.FAILED) {
+                statusLabel.setText("Exports finished: " + exportQueue.summary());
+            }
+            if (batchStage == null) {
+                // Without the batch window open, every finished export is announced
+                ExportSpec spec = job.getSpec();
+                if (job.getStatus() == ExportQueue.Status.DONE) {
+                    showInfo("Image saved successfully to: " + spec.output().toAbsolutePath()
+                        + "\nResolution: " + spec.width() + "x" + spec.height());
+                } else if (job.getStatus() == ExportQueue.Status.FAILED) {
+                    showError("Failed to save " + spec.output().getFileName() + " after " + job.getAttempts()
+                        + " attempts: " + job.getError() + "\nIt is offered again on the next start.");
+                }
+            }
+            List<String> errors = exportQueue.drainErrors();
+            if (!errors.isEmpty()) {
+                showError(String.join("\n", errors));
+            }
+        });
+    }
+    
+    /**
+     * Ask whether to resume the exports that a previous session left unfinished, discard them, or decide later
+     */
+    private void offerUnfinishedExports() {
+        List<Path> unfinished;
+        try {
+            unfinished = RenderCheckpoint.findUnfinished(RenderCheckpoint.DEFAULT_ROOT);
+        } catch (IOException e) {
+            showError("Failed to look for unfinished exports: " + e.getMessage());
+            return;
+        }
+        if (unfinished.isEmpty()) {
+            return;
+        }
+        ButtonType resume = new ButtonType("Resume", ButtonBar.ButtonData.YES);
+        ButtonType discard = new ButtonType("Discard", ButtonBar.ButtonData.NO);
+        ButtonType later = new ButtonType("Later", ButtonBar.ButtonData.CANCEL_CLOSE);
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION,
+            unfinished.size() + " export" + (unfinished.size() == 1 ? " was" : "s were")
+                + " interrupted in the last session. Resume from where they stopped?",
+            resume, discard, later);
+        alert.setTitle("Unfinished Exports");
+        alert.setHeaderText(null);
+        ButtonType answer = alert.showAndWait().orElse(later);
+        try {
+            if (answer == resume) {
+                exportQueue.resumeUnfinished();
+                List<String> errors = exportQueue.drainErrors();
+                if (!errors.isEmpty()) {
+                    showError(String.join("\n", errors));
+                }
+            } else if (answer == discard) {
+                for (Path directory : unfinished) {
+                    RenderCheckpoint.open(directory).delete();
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            showError("Failed to handle unfinished exports: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Show the export queue: every job with its progress, and buttons to add jobs and save a report
+     */
+    private void showBatchExport() {
+        if (batchStage != null) {
+            batchStage.toFront();
+            return;
+        }
+        batchTable = new TableView<>();
+        TableColumn<ExportQueue.Job, String> outputColumn = new TableColumn<>("Output");
+        outputColumn.setCellValueFactory(cell ->
+            new ReadOnlyStringWrapper(cell.getValue().getSpec().output().getFileName().toString()));
+        outputColumn.setPrefWidth(220);
+        TableColumn<ExportQueue.Job, String> sizeColumn = new TableColumn<>("Size");
+        sizeColumn.setCellValueFactory(cell -> new ReadOnlyStringWrapper(
+            cell.getValue().getSpec().width() + "x" + cell.getValue().getSpec().height()));
+        TableColumn<ExportQueue.Job, String> statusColumn = new TableColumn<>("Status");
+        statusColumn.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().getStatus().toString()));
+        TableColumn<ExportQueue.Job, Double> progressColumn = new TableColumn<>("Progress");
+        progressColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getProgress()));
+        progressColumn.setCellFactory(ProgressBarTableCell.forTableColumn());
+        progressColumn.setPrefWidth(140);
+        TableColumn<ExportQueue.Job, String> attemptsColumn = new TableColumn<>("Attempts");
+        attemptsColumn.setCellValueFactory(cell -> new ReadOnlyStringWrapper(
+            cell.getValue().getAttempts() + "/" + ExportQueue.MAX_ATTEMPTS));
+        TableColumn<ExportQueue.Job, String> errorColumn = new TableColumn<>("Last Error");
+        errorColumn.setCellValueFactory(cell -> new ReadOnlyStringWrapper(
+            cell.getValue().getError() == null ? "" : cell.getValue().getError()));
+        errorColumn.setPrefWidth(220);
+        batchTable.getColumns().addAll(List.of(outputColumn, sizeColumn, statusColumn, progressColumn,
+                                               attemptsColumn, errorColumn));
+        batchTable.getItems().setAll(exportQueue.getJobs());
+        
+        Button addViewButton = new Button("Add Current View...");
+        addViewButton.setOnAction(e -> saveImage(true));
+        Button loadButton = new Button("Load Jobs...");
+        loadButton.setOnAction(e -> loadJobFile());
+        Button clearButton = new Button("Clear Finished");
+        clearButton.setOnAction(e -> {
+            exportQueue.clearFinished();
+            batchTable.getItems().setAll(exportQueue.getJobs());
+        });
+        Button reportButton = new Button("Save Report...");
+        reportButton.setOnAction(e -> saveBatchReport());
+        batchSummaryLabel = new Label(exportQueue.summary());
+        
+        HBox buttons = new HBox(10, addViewButton, loadButton, clearButton, reportButton);
+        VBox content = new VBox(10, batchTable, buttons, batchSummaryLabel);
+        content.setPadding(new Insets(10));
+        VBox.setVgrow(batchTable, Priority.ALWAYS);
+        
+        batchStage = new Stage();
+        batchStage.setTitle("Batch Export");
+        batchStage.setScene(new Scene(content, 900, 400));
+        batchStage.setOnHidden(e -> {
+            batchStage = null;
+            batchTable = null;
+        });
+        batchStage.show();
+    }
+    
+    private void loadJobFile() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Load Export Jobs");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Job Files", "*.json", "*.csv"));
+        File file = fileChooser.showOpenDialog(batchStage);
+        if (file == null) {
+            return;
+        }
+        try {
+            for (ExportSpec spec : JobFile.read(file.toPath())) {
+                exportQueue.submit(spec);
+            }
+            batchTable.getItems().setAll(exportQueue.getJobs());
+        } catch (IOException | IllegalArgumentException e) {
+            showError("Failed to load jobs from " + file.getName() + ": " + e.getMessage());
+        }
+    }
+    
+    private void saveBatchReport() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Save Batch Report");
+        fileChooser.setInitialFileName("export_report_" + System.currentTimeMillis() + ".csv");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV Files", "*.csv"));
+        File file = fileChooser.showSaveDialog(batchStage);
+        if (file != null) {
+            try {
+                exportQueue.writeReport(file.toPath());
+                showInfo("Report saved to: " + file.getAbsolutePath() + "\n" + exportQueue.summary());
+            } catch (IOException e) {
+                showError("Failed to save report: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Export the current view as a Deep Zoom pyramid of a chosen width, resuming an unfinished export of it
+     */
+    private void exportDeepZoom() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Export Deep Zoom Image");
+        fileChooser.setInitialFileName("mandelbrot_" + System.currentTimeMillis() + ".dzi");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Deep Zoom Images", "*.dzi"));
+        File file = fileChooser.showSaveDialog(canvas.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        
+        TextInputDialog dialog = new TextInputDialog("32768");
+        dialog.setTitle("Deep Zoom Export");
+        dialog.setHeaderText("Width of the full resolution image in pixels\n"
+            + "An unfinished export of the same view to the same file is resumed");
+        dialog.setContentText("Width:");
+        dialog.showAndWait().ifPresent(text -> {
+            int exportWidth;
+            try {
+                exportWidth = Integer.parseInt(text.trim());
+            } catch (NumberFormatException e) {
+                exportWidth = 0;
+            }
+            if (exportWidth < WIDTH || exportWidth > 1 << 30) {
+                showError("Width must be between " + WIDTH + " and " + (1 << 30) + " pixels");
+                return;
+            }
+            // Same view as the canvas, only with more pixels
+            int width = exportWidth;
+            int height = (int) Math.round((double) width * HEIGHT / WIDTH);
+            double zoom = ZOOM * width / WIDTH;
+            int maxIterations = Integer.parseInt(iterationField.getText());
+            
+            statusLabel.setText("Exporting Deep Zoom image...");
+            progressBar.setVisible(true);
+            progressBar.setProgress(ProgressIndicator.INDETERMINATE_PROGRESS);
+            
+            Task<Void> exportTask = new Task<>() {
+                @Override
+                protected Void call() throws Exception {
+                    ExportEvent exportEvent = new ExportEvent();
+                    exportEvent.begin();
+                    new DeepZoomExporter(calculator, new ColorPalette(currentPalette)).export(
+                        file.toPath(), width, height, centerX, centerY, zoom, maxIterations, currentFractal,
+                        progress -> Platform.runLater(() ->
+                            statusLabel.setText(String.format("Exporting Deep Zoom image... %.1f%%", progress * 100))));
+                    commitExportEvent(exportEvent, file, "dzi", width, height, maxIterations);
+                    return null;
+                }
+            };
+            
+            exportTask.setOnSucceeded(e -> {
+                progressBar.setVisible(false);
+                statusLabel.setText("Ready");
+                showInfo("Deep Zoom image saved to: " + file.getAbsolutePath() + "\nResolution: " + width + "x" + height);
+            });
+            
+            exportTask.setOnFailed(e -> {
+                progressBar.setVisible(false);
+                statusLabel.setText("Ready");
+                showError("Failed to export Deep Zoom image: " + exportTask.getException().getMessage());
+            });
+            
+            Thread exportThread = new Thread(exportTask);
+            exportThread.setDaemon(true);
+            exportThread.start();
+        });
+    }
+    
+    private void addKeyframe() {
+        int maxIterations = readMaxIterations();
+        if (maxIterations > 0) {
+            keyframes.add(new Keyframe(centerX, centerY, ZOOM, maxIterations));
+            statusLabel.setText("Keyframe " + keyframes.size() + " added");
+        }
+    }
+    
+    /**
+     * Show the keyframes of the zoom animation, which are added from the current view
+     */
+    private void showZoomAnimation() {
+        if (animationStage != null) {
+            animationStage.toFront();
+            return;
+        }
+        ListView<Keyframe> keyframeList = new ListView<>(keyframes);
+        keyframeList.setCellFactory(list -> new ListCell<>() {
+            @Override
+            protected void updateItem(Keyframe keyframe, boolean empty) {
+                super.updateItem(keyframe, empty);
+                setText(empty || keyframe == null ? null : String.format("%d. (%.12f, %.12f)  zoom %.3e  %d iterations",
+                    getIndex() + 1, keyframe.centerX(), keyframe.centerY(), keyframe.zoom(), keyframe.maxIterations()));
+            }
+        });
+        
+        Button addButton = new Button("Add Current View");
+        addButton.setOnAction(e -> addKeyframe());
+        Button removeButton = new Button("Remove");
+        removeButton.setOnAction(e -> {
+            int selected = keyframeList.getSelectionModel().getSelectedIndex();
+            if (selected >= 0) {
+                keyframes.remove(selected);
+            }
+        });
+        Button clearButton = new Button("Clear");
+        clearButton.setOnAction(e -> keyframes.clear());
+        TextField framesField = new TextField("60");
+        framesField.setPrefColumnCount(5);
+        TextField widthField = new TextField("1920");
+        widthField.setPrefColumnCount(5);
+        CheckBox exponentialBox = new CheckBox("Exponential map");
+        exponentialBox.setTooltip(new Tooltip("Zoom straight into the last keyframe's center, resampling every frame "
+                                              + "from one log-polar strip instead of calculating it"));
+        Button renderButton = new Button("Render Frames...");
+        renderButton.setOnAction(e -> {
+            int framesPerSegment;
+            int width;
+            try {
+                framesPerSegment = Integer.parseInt(framesField.getText().trim());
+                width = Integer.parseInt(widthField.getText().trim());
+            } catch (NumberFormatException ex) {
+                framesPerSegment = 0;
+                width = 0;
+            }
+            if (keyframes.size() < 2 || framesPerSegment < 1 || width < 16 || width > 16384) {
+                showError("Add at least two keyframes, and use a positive frame count and a width of 16 to 16384 pixels");
+                return;
+            }
+            renderAnimation(List.copyOf(keyframes), framesPerSegment, width, exponentialBox.isSelected());
+        });
+        
+        HBox buttons = new HBox(10, addButton, removeButton, clearButton);
+        HBox settings = new HBox(10, new Label("Frames between keyframes:"), framesField,
+                                 new Label("Width:"), widthField, exponentialBox, renderButton);
+        settings.setAlignment(Pos.CENTER_LEFT);
+        VBox content = new VBox(10, keyframeList, buttons, settings,
+                                new Label("Press K in the main window to add the view as a keyframe"));
+        content.setPadding(new Insets(10));
+        VBox.setVgrow(keyframeList, Priority.ALWAYS);
+        
+        animationStage = new Stage();
+        animationStage.setTitle("Zoom Animation");
+        animationStage.setScene(new Scene(content, 820, 350));
+        animationStage.setOnHidden(e -> animationStage = null);
+        animationStage.show();
+    }
+    
+    /**
+     * Render the keyframe path as numbered PNG frames into a chosen directory, continuing an earlier run into it
+     * @param exponential Resample a zoom from the first to the last keyframe out of an exponential map
+     */
+    private void renderAnimation(List<Keyframe> path, int framesPerSegment, int width, boolean exponential) {
+        DirectoryChooser directoryChooser = new DirectoryChooser();
+        directoryChooser.setTitle("Directory for the Animation Frames");
+        File directory = directoryChooser.showDialog(animationStage);
+        if (directory == null) {
+            return;
+        }
+        // Same views as the canvas, only with more pixels
+        int height = (int) Math.round((double) width * HEIGHT / WIDTH);
+        double scale = (double) width / WIDTH;
+        List<Keyframe> frames = Keyframe.interpolate(path, framesPerSegment).stream()
+            .map(frame -> new Keyframe(frame.centerX(), frame.centerY(), frame.zoom() * scale, frame.maxIterations()))
+            .toList();
+        
+        statusLabel.setText("Rendering animation...");
+        progressBar.setVisible(true);
+        progressBar.setProgress(0);
+        
+        Task<Void> animationTask = new Task<>() {
+            @Override
+            protected Void call() throws Exception {
+                if (exponential) {
+                    renderExponentialMap(path, frames.size(), width, height, scale, directory.toPath());
+                    return null;
+                }
+                new ZoomAnimation(calculator, new ColorPalette(currentPalette)).render(
+                    frames, directory.toPath(), width, height, currentFractal,
+                    written -> Platform.runLater(() -> {
+                        progressBar.setProgress((double) written / frames.size());
+                        statusLabel.setText("Rendering animation... frame " + written + " of " + frames.size());
+                    }));
+                return null;
+            }
+        };
+        
+        animationTask.setOnSucceeded(e -> {
+            progressBar.setVisible(false);
+            statusLabel.setText("Ready");
+            showInfo(frames.size() + " frames of " + width + "x" + height + " saved to: " + directory.getAbsolutePath());
+        });
+        
+        animationTask.setOnFailed(e -> {
+            progressBar.setVisible(false);
+            statusLabel.setText("Ready");
+            showError("Failed to render animation: " + animationTask.getException().getMessage());
+        });
+        
+        Thread animationThread = new Thread(animationTask);
+        animationThread.setDaemon(true);
+        animationThread.start();
+    }
+    
+    /**
+     * Zoom from the first keyframe's zoom into the last keyframe's center and zoom, resampling every frame
+     * from an exponential map calculated next to the frames
+     */
+    private void renderExponentialMap(List<Keyframe> path, int frameCount, int width, int height, double scale,
+                                      Path directory) throws IOException {
+        Keyframe first = path.get(0);
+        Keyframe last = path.get(path.size() - 1);
+        int maxIterations = path.stream().mapToInt(Keyframe::maxIterations).max().orElseThrow();
+        Path storage = directory.resolve("exponential_map.bin");
+        try (ExponentialMap map = ExponentialMap.render(calculator, storage, width, height, last.centerX(),
+                last.centerY(), first.zoom() * scale, last.zoom() * scale, maxIterations, currentFractal,
+                progress -> Platform.runLater(() ->
+                    statusLabel.setText(String.format("Calculating exponential map... %.1f%%", progress * 100))))) {
+            map.writeFrames(directory, frameCount, new ColorPalette(currentPalette), written -> Platform.runLater(() -> {
+                progressBar.setProgress((double) written / frameCount);
+                statusLabel.setText("Resampling animation... frame " + written + " of " + frameCount);
+            }));
+        } finally {
+            Files.deleteIfExists(storage);
+        }
+    }
+    
+    private void runBenchmark() {
+        if (!isCalculating.compareAndSet(false, true)) {
+            return;
+        }
+        calculateButton.setDisable(true);
+        progressBar.setVisible(true);
+        progressBar.setProgress(ProgressIndicator.INDETERMINATE_PROGRESS);
+        
+        Task<List<BenchmarkResult>> benchmarkTask = new Task<>() {
+            @Override
+            protected List<BenchmarkResult> call() {
+                return new RenderBenchmark().run(this::updateMessage);
+            }
+        };
+        statusLabel.textProperty().bind(benchmarkTask.messageProperty());
+        
+        benchmarkTask.setOnSucceeded(e -> {
+            finishBenchmark();
+            List<BenchmarkResult> results = benchmarkTask.getValue();
+            try {
+                Path baselineFile = Path.of(RenderBenchmark.BASELINE_FILE);
+                Map<String, BenchmarkResult> baseline = Files.exists(baselineFile)
+                    ? RenderBenchmark.readCsv(baselineFile) : Map.of();
+                Path csv = RenderBenchmark.writeReports(results, Path.of("."));
+                showBenchmarkResults(results, baseline, csv);
+            } catch (IOException ex) {
+                showError("Failed to write benchmark results: " + ex.getMessage());
+            }
+        });
+        
+        benchmarkTask.setOnFailed(e -> {
+            finishBenchmark();
+            showError("Benchmark failed: " + benchmarkTask.getException().getMessage());
+        });
+        
+        Thread benchmarkThread = new Thread(benchmarkTask);
+        benchmarkThread.setDaemon(true);
+        benchmarkThread.start();
+    }
+    
+    private void finishBenchmark() {
+        statusLabel.textProperty().unbind();
+        statusLabel.setText("Ready");
+        progressBar.setVisible(false);
+        calculateButton.setDisable(false);
+        isCalculating.set(false);
+    }
+    
+    private void showBenchmarkResults(List<BenchmarkResult> results, Map<String, BenchmarkResult> baseline, Path csv) {
+        TextArea report = new TextArea(RenderBenchmark.summarize(results, baseline));
+        report.setEditable(false);
+        report.setStyle("-fx-font-family: monospace;");
+        report.setPrefSize(900, 400);
+        
+        ButtonType saveBaselineType = new ButtonType("Save as Baseline", ButtonBar.ButtonData.LEFT);
+        Alert alert = new Alert(Alert.AlertType.INFORMATION, null, saveBaselineType, ButtonType.CLOSE);
+        alert.setTitle("Benchmark Results");
+        alert.setHeaderText(baseline.isEmpty()
+            ? "Results written to " + csv.toAbsolutePath()
+            : "Results written to " + csv.toAbsolutePath() + "\nCompared against " + RenderBenchmark.BASELINE_FILE);
+        alert.getDialogPane().setContent(report);
+        alert.showAndWait().filter(saveBaselineType::equals).ifPresent(button -> {
+            try {
+                RenderBenchmark.writeCsv(results, Path.of(RenderBenchmark.BASELINE_FILE));
+            } catch (IOException ex) {
+                showError("Failed to save baseline: " + ex.getMessage());
+            }
+        });
+    }
+    
+    private void commitExportEvent(ExportEvent event, File file, String format, int width, int height, int maxIterations) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.describe(currentFractal, ZOOM, maxIterations, calculator.getType());
+            event.describeFile(file.getAbsolutePath(), format, width, height, file.length());
+            event.commit();
+        }
+    }
+    
+    private String getFileExtension(String fileName) {
+        String extension = "png";
+        int i = fileName.lastIndexOf('.');
+        if (i > 0) {
+            extension = fileName.substring(i + 1).toLowerCase();
+            if ("jpeg".equals(extension)) {
+                extension = "jpg";
+            }
+        }
+        return extension;
+    }
+    
+    private void showInfo(String message) {
+        Platform.runLater(() -> {
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("Success");
+            alert.setHeaderText(null);
+            alert.setContentText(message);
+            alert.showAndWait();
+        });
+    }
+
+    public static void main(String[] args) {
+        if (List.of(args).contains("--benchmark")) {
+            System.exit(RenderBenchmark.runHeadless(args));
+        }
+        launch();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package ca.bazlur.mandelbrot.app;
+
+import ca.bazlur.mandelbrot.RenderEvent;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("ca.bazlur.mandelbrot.PixelUpload")
+@Label("Pixel Upload")
+@Description("Writing colored pixels into the image and drawing it on the canvas")
+public class PixelUploadEvent extends RenderEvent {
+    @Label("Pixels")
+    long pixels;
+}
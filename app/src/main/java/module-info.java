@@ -1,4 +1,5 @@
-module ca.bazlur.mandelbrot {
+module ca.bazlur.mandelbrot.app {
+    requires ca.bazlur.mandelbrot;
     requires javafx.controls;
     requires javafx.fxml;
     requires javafx.swing;
@@ -8,6 +9,6 @@ module ca.bazlur.mandelbrot {
 //    requires com.almasb.fxgl.all;
     requires java.desktop;
 
-    opens ca.bazlur.mandelbrot to javafx.fxml;
-    exports ca.bazlur.mandelbrot;
-}
\ No newline at end of file
+    opens ca.bazlur.mandelbrot.app to javafx.fxml;
+    exports ca.bazlur.mandelbrot.app;
+}
@@ -0,0 +1,53 @@
+package ca.bazlur.mandelbrot.bench;
+
+import ca.bazlur.mandelbrot.ColorPalette;
+import ca.bazlur.mandelbrot.MandelbrotCalculatorStrategy;
+import ca.bazlur.mandelbrot.MandelbrotCalculatorStrategy.StrategyType;
+import ca.bazlur.mandelbrot.MandelbrotFractal;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Colorization of a full 1000x800 frame, the work done on the FX thread after every calculation
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class ColorPaletteBenchmark {
+    private static final int WIDTH = 1000;
+    private static final int HEIGHT = 800;
+
+    @Param({"CLASSIC", "SMOOTH", "FIRE", "OCEAN", "RAINBOW", "GRAYSCALE"})
+    public ColorPalette.PaletteType paletteType;
+
+    @Param({"500"})
+    public int maxIterations;
+
+    private ColorPalette palette;
+    private int[][] iterations;
+
+    @Setup
+    public void setup() {
+        palette = new ColorPalette(paletteType);
+        try (var calculator = MandelbrotCalculatorStrategy.create(StrategyType.FORK_JOIN)) {
+            var fractal = new MandelbrotFractal();
+            var center = View.SEAHORSE_VALLEY.center(fractal);
+            iterations = calculator.calculateIterations(WIDTH, HEIGHT, center.real(), center.imaginary(),
+                View.SEAHORSE_VALLEY.zoom(fractal), maxIterations, fractal);
+        }
+    }
+
+    @Benchmark
+    public void colorizeFrame(Blackhole blackhole) {
+        for (int x = 0; x < WIDTH; x++) {
+            for (int y = 0; y < HEIGHT; y++) {
+                blackhole.consume(palette.getArgbForIterations(iterations[x][y], maxIterations));
+            }
+        }
+    }
+}
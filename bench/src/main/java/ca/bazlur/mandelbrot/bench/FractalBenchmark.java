@@ -0,0 +1,88 @@
+package ca.bazlur.mandelbrot.bench;
+
+import ca.bazlur.mandelbrot.BurningShipFractal;
+import ca.bazlur.mandelbrot.ComplexNumber;
+import ca.bazlur.mandelbrot.Fractal;
+import ca.bazlur.mandelbrot.JuliaFractal;
+import ca.bazlur.mandelbrot.MandelbrotFractal;
+import ca.bazlur.mandelbrot.MultibrotFractal;
+import ca.bazlur.mandelbrot.PhoenixFractal;
+import ca.bazlur.mandelbrot.TricornFractal;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the escape-time kernel of every fractal over a grid of points
+ * spanning the height of the 1000x800 window at each of the fixed views
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class FractalBenchmark {
+    private static final int GRID_SIZE = 128;
+
+    @Param({"Mandelbrot", "Julia", "BurningShip", "Tricorn", "Multibrot3", "Multibrot4", "Phoenix"})
+    public String fractalName;
+
+    @Param({"DEFAULT", "SEAHORSE_VALLEY", "DEEP_MINIBROT"})
+    public View view;
+
+    @Param({"1000"})
+    public int maxIterations;
+
+    private Fractal fractal;
+    private ComplexNumber[] points;
+    private double[] orbits;
+
+    @Setup
+    public void setup() {
+        fractal = createFractal(fractalName);
+        points = new ComplexNumber[GRID_SIZE * GRID_SIZE];
+        ComplexNumber center = view.center(fractal);
+        double zoom = view.zoom(fractal) * GRID_SIZE / 800.0;
+        for (int y = 0; y < GRID_SIZE; y++) {
+            for (int x = 0; x < GRID_SIZE; x++) {
+                points[y * GRID_SIZE + x] = new ComplexNumber(
+                    (x - GRID_SIZE / 2.0) / zoom + center.real(),
+                    (y - GRID_SIZE / 2.0) / zoom + center.imaginary());
+            }
+        }
+        orbits = new double[points.length * fractal.orbitStateSize()];
+    }
+
+    @Benchmark
+    public long calculateIterations() {
+        long total = 0;
+        for (ComplexNumber c : points) {
+            total += fractal.calculateIterations(c, maxIterations);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long resumeIterations() {
+        int stateSize = fractal.orbitStateSize();
+        long total = 0;
+        for (int i = 0; i < points.length; i++) {
+            total += fractal.resumeIterations(points[i], 0, maxIterations, orbits, i * stateSize);
+        }
+        return total;
+    }
+
+    static Fractal createFractal(String name) {
+        return switch (name) {
+            case "Mandelbrot" -> new MandelbrotFractal();
+            case "Julia" -> new JuliaFractal();
+            case "BurningShip" -> new BurningShipFractal();
+            case "Tricorn" -> new TricornFractal();
+            case "Multibrot3" -> new MultibrotFractal(3);
+            case "Multibrot4" -> new MultibrotFractal(4);
+            case "Phoenix" -> new PhoenixFractal();
+            default -> throw new IllegalArgumentException("Unknown fractal: " + name);
+        };
+    }
+}
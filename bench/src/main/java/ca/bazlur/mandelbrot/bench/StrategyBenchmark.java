@@ -0,0 +1,112 @@
+package ca.bazlur.mandelbrot.bench;
+
+import ca.bazlur.mandelbrot.ComplexNumber;
+import ca.bazlur.mandelbrot.Fractal;
+import ca.bazlur.mandelbrot.MandelbrotCalculatorStrategy;
+import ca.bazlur.mandelbrot.MandelbrotCalculatorStrategy.StrategyType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full frame throughput of every calculation strategy.
+ * Running it over the threads parameter gives the scaling curve of each strategy; the single threaded
+ * strategy ignores the thread count, so it runs once per resolution in {@link SingleThreaded}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class StrategyBenchmark {
+
+    @Param({"EXECUTOR_SERVICE", "FORK_JOIN", "AUTO"})
+    public StrategyType strategy;
+
+    @Param({"1000x800", "1920x1080", "3840x2160"})
+    public String resolution;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"Mandelbrot"})
+    public String fractalName;
+
+    @Param({"SEAHORSE_VALLEY"})
+    public View view;
+
+    @Param({"500"})
+    public int maxIterations;
+
+    private MandelbrotCalculatorStrategy calculator;
+    private Fractal fractal;
+    private int width;
+    private int height;
+    private ComplexNumber center;
+    private double zoom;
+
+    @Setup
+    public void setup() {
+        calculator = MandelbrotCalculatorStrategy.create(strategy, threads);
+        fractal = FractalBenchmark.createFractal(fractalName);
+        String[] size = resolution.split("x");
+        width = Integer.parseInt(size[0]);
+        height = Integer.parseInt(size[1]);
+        center = view.center(fractal);
+        // Scale the zoom so every resolution shows the same region
+        zoom = view.zoom(fractal) * width / 1000.0;
+    }
+
+    @TearDown
+    public void tearDown() {
+        calculator.close();
+    }
+
+    @Benchmark
+    public int[][] calculateFrame() {
+        return calculator.calculateIterations(width, height, center.real(), center.imaginary(), zoom, maxIterations, fractal);
+    }
+
+    /**
+     * The single threaded baseline, with the same frames but without the threads parameter
+     */
+    @State(Scope.Benchmark)
+    public static class SingleThreaded {
+
+        @Param({"1000x800", "1920x1080", "3840x2160"})
+        public String resolution;
+
+        @Param({"Mandelbrot"})
+        public String fractalName;
+
+        @Param({"SEAHORSE_VALLEY"})
+        public View view;
+
+        @Param({"500"})
+        public int maxIterations;
+
+        private final StrategyBenchmark frame = new StrategyBenchmark();
+
+        @Setup
+        public void setup() {
+            frame.strategy = StrategyType.SINGLE_THREADED;
+            frame.threads = 1;
+            frame.resolution = resolution;
+            frame.fractalName = fractalName;
+            frame.view = view;
+            frame.maxIterations = maxIterations;
+            frame.setup();
+        }
+
+        @TearDown
+        public void tearDown() {
+            frame.tearDown();
+        }
+
+        @Benchmark
+        public int[][] calculateFrame() {
+            return frame.calculateFrame();
+        }
+    }
+}
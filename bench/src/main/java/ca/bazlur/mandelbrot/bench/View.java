@@ -0,0 +1,37 @@
+package ca.bazlur.mandelbrot.bench;
+
+import ca.bazlur.mandelbrot.ComplexNumber;
+import ca.bazlur.mandelbrot.Fractal;
+
+/**
+ * Fixed views used by the benchmarks so results stay comparable between runs
+ */
+public enum View {
+    DEFAULT(Double.NaN, Double.NaN, Double.NaN),
+    SEAHORSE_VALLEY(-0.75, 0.1, 500),
+    DEEP_MINIBROT(-1.25066, 0.02012, 100000);
+
+    private final double centerX;
+    private final double centerY;
+    private final double zoom;
+
+    View(double centerX, double centerY, double zoom) {
+        this.centerX = centerX;
+        this.centerY = centerY;
+        this.zoom = zoom;
+    }
+
+    /**
+     * Get the center of this view, the fractal's own default for DEFAULT
+     */
+    public ComplexNumber center(Fractal fractal) {
+        return this == DEFAULT ? fractal.getDefaultCenter() : new ComplexNumber(centerX, centerY);
+    }
+
+    /**
+     * Get the zoom of this view, the fractal's own default for DEFAULT
+     */
+    public double zoom(Fractal fractal) {
+        return this == DEFAULT ? fractal.getDefaultZoom() : zoom;
+    }
+}
@@ -0,0 +1,320 @@
+package ca.bazlur.mandelbrot.cli;
+
+import ca.bazlur.mandelbrot.ColorPalette;
+import ca.bazlur.mandelbrot.ComplexNumber;
+import ca.bazlur.mandelbrot.DistributedCalculator;
+import ca.bazlur.mandelbrot.ExportSpec;
+import ca.bazlur.mandelbrot.Fractal;
+import ca.bazlur.mandelbrot.FractalType;
+import ca.bazlur.mandelbrot.JobFile;
+import ca.bazlur.mandelbrot.MandelbrotCalculatorStrategy;
+import ca.bazlur.mandelbrot.MandelbrotCalculatorStrategy.StrategyType;
+import ca.bazlur.mandelbrot.StripExporter;
+import ca.bazlur.mandelbrot.TileWorker;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Renders images from the command line, for servers without a display and for scripts. It uses the same
+ * strategies and {@link StripExporter} as the explorer but never touches JavaFX, so only java.base,
+ * java.desktop (for ImageIO) and, for {@code --serve}, jdk.httpserver are needed:
+ * <pre>
+ * java --enable-preview -jar cli/target/mandelbrot-cli.jar --center=-0.745,0.113 \
+ *     --zoom=500000 --iterations=2000 --palette=FIRE --size=3840x2160 --output=seahorse.png
+ * </pre>
+ * The exit code is 0 on success, 1 if rendering failed and 2 for invalid options.
+ */
+public class MandelbrotCli {
+    private static final int EXPLORER_WIDTH = 1000; // The width the fractals' default zooms are chosen for
+    private static final Set<String> OPTIONS = Set.of("fractal", "parameter", "center", "zoom", "iterations",
+        "palette", "size", "strategy", "threads", "output", "format", "jobs", "quiet", "serve", "tile-cache",
+        "memory-cache", "worker", "workers", "help");
+    private static final String USAGE = """
+        Usage: MandelbrotCli --output=<file> [options]
+               MandelbrotCli --jobs=<file.json|file.csv> [--strategy=...] [--threads=...]
+               MandelbrotCli --serve=<port> [--tile-cache=<dir>] [--memory-cache=<MB>] [--strategy=...] [--threads=...]
+               MandelbrotCli --worker=<port> [--strategy=...] [--threads=...]
+          --fractal=<type>         MANDELBROT (default), JULIA, BURNING_SHIP, TRICORN, MULTIBROT_3, MULTIBROT_4, PHOENIX
+          --parameter=<re>,<im>    Parameter of fractals that take one, such as JULIA
+          --center=<x>,<y>         Center of the view, defaults to the fractal's default center
+          --zoom=<pixels per unit> Defaults to the fractal's default view scaled to the width
+          --iterations=<n>         Maximum iterations, default 500
+          --palette=<type>         CLASSIC, SMOOTH (default), FIRE, OCEAN, RAINBOW, GRAYSCALE
+          --size=<width>x<height>  Default 1920x1080
+          --strategy=<type>        EXECUTOR_SERVICE (default), FORK_JOIN, SINGLE_THREADED, AUTO
+          --threads=<n>            Threads of the strategy, default one per core
+          --format=<name>          png, jpg, bmp, ...; defaults to the output's extension
+          --jobs=<file>            Render every export of a job file, see JobFile
+          --quiet                  Do not report progress
+          --serve=<port>           Serve XYZ map tiles over HTTP until stopped, see TileServer
+          --tile-cache=<dir>       Keep served tiles in this directory between runs
+          --memory-cache=<MB>      Size of the served tiles kept in memory, default 256
+          --worker=<port>          Calculate tiles for coordinators until stopped, see TileWorker
+          --workers=<host:port,..> Calculate on these workers instead of locally, see DistributedCalculator
+        """;
+
+    private MandelbrotCli() {
+    }
+
+    public static void main(String[] args) {
+        int status = run(args);
+        if (status >= 0) {
+            System.exit(status);
+        }
+    }
+
+    /**
+     * Render the images the options describe
+     * @return The process exit code, or -1 if a tile server or worker was started and keeps running
+     */
+    public static int run(String[] args) {
+        Map<String, String> options;
+        List<ExportSpec> specs;
+        StrategyType strategy;
+        int threads;
+        List<InetSocketAddress> workers;
+        try {
+            options = parse(args);
+            if (options.containsKey("help")) {
+                System.out.print(USAGE);
+                return 0;
+            }
+            strategy = StrategyType.valueOf(options.getOrDefault("strategy", "EXECUTOR_SERVICE").toUpperCase(Locale.ROOT));
+            threads = Integer.parseInt(options.getOrDefault("threads",
+                                                            String.valueOf(Runtime.getRuntime().availableProcessors())));
+            workers = options.containsKey("workers") ? addresses(options.get("workers")) : null;
+            if (options.containsKey("worker")) {
+                return work(options, strategy, threads);
+            }
+            if (options.containsKey("serve")) {
+                return serve(options, strategy, threads, workers);
+            }
+            specs = options.containsKey("jobs") ? JobFile.read(Path.of(options.get("jobs"))) : List.of(toSpec(options));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.print(USAGE);
+            return 2;
+        } catch (IOException e) {
+            System.err.println("Error: cannot read the job file: " + describe(e));
+            return 1;
+        }
+
+        boolean quiet = options.containsKey("quiet");
+        try (MandelbrotCalculatorStrategy calculator = createCalculator(strategy, threads, workers)) {
+            for (ExportSpec spec : specs) {
+                long start = System.nanoTime();
+                int[] reported = {-1};
+                new StripExporter(calculator, new ColorPalette(spec.palette())).export(
+                    spec.output(), spec.format(), spec.width(), spec.height(), spec.centerX(), spec.centerY(),
+                    spec.zoom(), spec.maxIterations(), spec.createFractal(), progress -> {
+                        int percent = (int) (progress * 100);
+                        if (!quiet && percent != reported[0]) {
+                            reported[0] = percent;
+                            System.err.print("\r" + spec.output().getFileName() + " " + percent + "%");
+                        }
+                    });
+                if (!quiet) {
+                    System.err.println();
+                    if (calculator instanceof DistributedCalculator distributed) {
+                        System.err.println(distributed.describeStatistics());
+                    }
+                }
+                System.out.printf(Locale.ROOT, "%s %dx%d %.2f s%n", spec.output(), spec.width(), spec.height(),
+                                  (System.nanoTime() - start) / 1e9);
+            }
+            return 0;
+        } catch (IOException | RuntimeException e) {
+            System.err.println();
+            System.err.println("Error: rendering failed: " + describe(e));
+            return 1;
+        }
+    }
+
+    /**
+     * Serve tiles until the process is stopped
+     */
+    private static int serve(Map<String, String> options, StrategyType strategy, int threads,
+                             List<InetSocketAddress> workers) {
+        int port = port(options.get("serve"), "serve");
+        long memoryCache = (long) number(options.getOrDefault("memory-cache", "256"), "memory-cache");
+        if (memoryCache < 0) {
+            throw new IllegalArgumentException("--memory-cache needs a size in MB");
+        }
+        Path cache = options.containsKey("tile-cache") ? Path.of(options.get("tile-cache")) : null;
+        MandelbrotCalculatorStrategy calculator;
+        try {
+            calculator = createCalculator(strategy, threads, workers);
+        } catch (IOException e) {
+            System.err.println("Error: " + describe(e));
+            return 1;
+        }
+        TileServer server = new TileServer(calculator, cache, memoryCache << 20);
+        try {
+            InetSocketAddress address = server.start(new InetSocketAddress(port));
+            System.out.println("Serving tiles on http://localhost:" + address.getPort() + "/mandelbrot/{z}/{x}/{y}.png");
+        } catch (IOException e) {
+            server.close();
+            calculator.close();
+            System.err.println("Error: cannot start the tile server: " + describe(e));
+            return 1;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            calculator.close();
+        }));
+        // The server's threads keep running, the process ends on a signal
+        return -1;
+    }
+
+    /**
+     * Calculate tiles for coordinators until the process is stopped
+     */
+    private static int work(Map<String, String> options, StrategyType strategy, int threads) {
+        int port = port(options.get("worker"), "worker");
+        MandelbrotCalculatorStrategy calculator = MandelbrotCalculatorStrategy.create(strategy, threads);
+        TileWorker worker = new TileWorker(calculator, threads);
+        try {
+            InetSocketAddress address = worker.start(new InetSocketAddress(port));
+            System.out.println("Calculating tiles on port " + address.getPort() + " with "
+                                   + calculator.describeConfiguration());
+        } catch (IOException e) {
+            worker.close();
+            calculator.close();
+            System.err.println("Error: cannot start the tile worker: " + describe(e));
+            return 1;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            worker.close();
+            calculator.close();
+        }));
+        return -1;
+    }
+
+    /**
+     * Create the strategy to render with, on the workers if any are given
+     * @throws IOException If none of the workers can be reached
+     */
+    private static MandelbrotCalculatorStrategy createCalculator(StrategyType strategy, int threads,
+                                                                 List<InetSocketAddress> workers) throws IOException {
+        return workers != null
+            ? new DistributedCalculator(workers, DistributedCalculator.DEFAULT_TILE_SIZE)
+            : MandelbrotCalculatorStrategy.create(strategy, threads);
+    }
+
+    private static List<InetSocketAddress> addresses(String value) {
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (String address : value.split(",")) {
+            int colon = address.lastIndexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("--workers needs host:port pairs separated by ','");
+            }
+            addresses.add(InetSocketAddress.createUnresolved(address.substring(0, colon).trim(),
+                                                             port(address.substring(colon + 1), "workers")));
+        }
+        return addresses;
+    }
+
+    private static int port(String value, String option) {
+        double port = number(value, option);
+        if (port < 0 || port > 65535 || port != (int) port) {
+            throw new IllegalArgumentException("--" + option + " needs a port number: " + value);
+        }
+        return (int) port;
+    }
+
+    private static String describe(Exception e) {
+        return e.getClass().getSimpleName() + (e.getMessage() != null ? ": " + e.getMessage() : "");
+    }
+
+    /**
+     * Read {@code --name=value} and {@code --flag} options
+     * @throws IllegalArgumentException For arguments that are not options and unknown options
+     */
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = options(args);
+        for (String name : options.keySet()) {
+            if (!OPTIONS.contains(name)) {
+                throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        return options;
+    }
+
+    private static Map<String, String> options(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument " + arg);
+            }
+            int equals = arg.indexOf('=');
+            options.put(equals < 0 ? arg.substring(2) : arg.substring(2, equals),
+                        equals < 0 ? "" : arg.substring(equals + 1));
+        }
+        return options;
+    }
+
+    private static ExportSpec toSpec(Map<String, String> options) {
+        String output = options.get("output");
+        if (output == null || output.isEmpty()) {
+            throw new IllegalArgumentException("--output is required");
+        }
+        FractalType type = FractalType.valueOf(options.getOrDefault("fractal", "MANDELBROT").toUpperCase(Locale.ROOT));
+        Fractal fractal = type.create();
+        ComplexNumber parameter = null;
+        if (options.containsKey("parameter")) {
+            if (!fractal.requiresParameter()) {
+                throw new IllegalArgumentException(type + " takes no parameter");
+            }
+            double[] values = pair(options.get("parameter"), ",", "parameter");
+            parameter = new ComplexNumber(values[0], values[1]);
+        }
+
+        double[] size = pair(options.getOrDefault("size", "1920x1080"), "x", "size");
+        int width = (int) size[0];
+        int height = (int) size[1];
+        if (width < 1 || height < 1 || width != size[0] || height != size[1]) {
+            throw new IllegalArgumentException("--size needs positive whole numbers");
+        }
+        double[] center = options.containsKey("center")
+            ? pair(options.get("center"), ",", "center")
+            : new double[]{fractal.getDefaultCenter().real(), fractal.getDefaultCenter().imaginary()};
+        double zoom = options.containsKey("zoom")
+            ? number(options.get("zoom"), "zoom")
+            : fractal.getDefaultZoom() * width / EXPLORER_WIDTH;
+        int maxIterations = (int) number(options.getOrDefault("iterations", "500"), "iterations");
+        if (zoom <= 0 || maxIterations < 1) {
+            throw new IllegalArgumentException("--zoom and --iterations must be positive");
+        }
+
+        String name = Path.of(output).getFileName().toString();
+        String extension = name.contains(".") ? name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT) : "png";
+        String format = options.getOrDefault("format", extension.equals("jpeg") ? "jpg" : extension);
+        return new ExportSpec(Path.of(output), format, width, height, center[0], center[1], zoom, maxIterations, type,
+                              parameter, ColorPalette.PaletteType.valueOf(
+                                  options.getOrDefault("palette", "SMOOTH").toUpperCase(Locale.ROOT)));
+    }
+
+    private static double[] pair(String value, String separator, String option) {
+        String[] parts = value.split(separator);
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("--" + option + " needs two values separated by '" + separator + "'");
+        }
+        return new double[]{number(parts[0], option), number(parts[1], option)};
+    }
+
+    private static double number(String value, String option) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + option + " is not a number: " + value);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package ca.bazlur.mandelbrot.cli;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads a {@link TileServer} the way a map viewer does: many clients, each on a virtual thread, requesting random
+ * tiles of the first levels, so the same tiles are requested again and concurrently. Reports the throughput,
+ * the latency percentiles and how the responses were served:
+ * <pre>
+ * java --enable-preview -cp cli/target/mandelbrot-cli.jar ca.bazlur.mandelbrot.cli.TileLoadTest \
+ *     --url=http://localhost:8080/mandelbrot --clients=200 --requests=5000 --levels=6
+ * </pre>
+ */
+public class TileLoadTest {
+    private static final String USAGE = """
+        Usage: TileLoadTest [options]
+          --url=<base>      Tile server and fractal, default http://localhost:8080/mandelbrot
+          --query=<query>   Appended to every tile URL, for example iterations=1000&palette=fire
+          --clients=<n>     Concurrent clients, default 64
+          --requests=<n>    Requests in total, default 2000
+          --levels=<n>      Tiles are picked from levels 0 to n-1, default 6
+          --seed=<n>        Seed of the tile choice, default 1
+        """;
+
+    private record Result(int status, String source, long nanos) {
+    }
+
+    private TileLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new TreeMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                System.err.print(USAGE);
+                System.exit(2);
+            }
+            options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        String base = options.getOrDefault("url", "http://localhost:8080/mandelbrot");
+        String query = options.containsKey("query") ? "?" + options.get("query") : "";
+        int clients = Integer.parseInt(options.getOrDefault("clients", "64"));
+        int requests = Integer.parseInt(options.getOrDefault("requests", "2000"));
+        int levels = Integer.parseInt(options.getOrDefault("levels", "6"));
+        Random random = new Random(Long.parseLong(options.getOrDefault("seed", "1")));
+
+        List<URI> tiles = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            int level = random.nextInt(levels);
+            tiles.add(URI.create(base + "/" + level + "/" + random.nextInt(1 << level) + "/"
+                                     + random.nextInt(1 << level) + ".png" + query));
+        }
+
+        AtomicInteger next = new AtomicInteger();
+        List<Result> results = Collections.synchronizedList(new ArrayList<>(requests));
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder().executor(executor).connectTimeout(Duration.ofSeconds(10)).build()) {
+            List<Future<?>> running = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                running.add(executor.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                        long sent = System.nanoTime();
+                        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(tiles.get(i)).build(),
+                                                                    HttpResponse.BodyHandlers.ofByteArray());
+                        results.add(new Result(response.statusCode(),
+                                               response.headers().firstValue("X-Tile-Source").orElse("-"),
+                                               System.nanoTime() - sent));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : running) {
+                future.get();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long[] latencies = results.stream().mapToLong(Result::nanos).sorted().toArray();
+        Map<String, Integer> outcomes = new TreeMap<>();
+        for (Result result : results) {
+            outcomes.merge(result.status() + " " + result.source(), 1, Integer::sum);
+        }
+        System.out.printf(Locale.ROOT, "%d requests from %d clients in %.2f s, %.1f requests/s%n",
+                          latencies.length, clients, seconds, latencies.length / seconds);
+        System.out.printf(Locale.ROOT, "latency ms p50 %.1f p90 %.1f p99 %.1f max %.1f%n", percentile(latencies, 0.50),
+                          percentile(latencies, 0.90), percentile(latencies, 0.99), percentile(latencies, 1));
+        outcomes.forEach((outcome, count) -> System.out.println(outcome + " " + count));
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.max(0, (int) Math.ceil(fraction * sorted.length) - 1)] / 1e6;
+    }
+}
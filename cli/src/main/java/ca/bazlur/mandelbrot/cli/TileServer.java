@@ -0,0 +1,451 @@
+package ca.bazlur.mandelbrot.cli;
+
+import ca.bazlur.mandelbrot.ColorPalette;
+import ca.bazlur.mandelbrot.ComplexNumber;
+import ca.bazlur.mandelbrot.Fractal;
+import ca.bazlur.mandelbrot.FractalType;
+import ca.bazlur.mandelbrot.MandelbrotCalculatorStrategy;
+import ca.bazlur.mandelbrot.PngWriter;
+import ca.bazlur.mandelbrot.Tile;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serves fractal tiles over HTTP in the XYZ scheme of web maps, {@code /{fractal}/{z}/{x}/{y}.png}, for example
+ * {@code /mandelbrot/3/2/5.png?iterations=1000&palette=fire} or {@code /julia/0/0/0.png?parameter=-0.8,0.156}.
+ * <p>
+ * Level 0 is a single {@value #TILE_SIZE} pixel tile showing the fractal's default view, every level halves the
+ * width a tile covers. Each request runs on its own virtual thread, which blocks while the shared strategy
+ * calculates; at most one render per core is admitted at a time. Requests for a tile that is already being
+ * rendered wait for that render instead of starting their own, and finished tiles are kept in a bounded memory
+ * cache and, optionally, a disk cache that survives restarts. Rendering is deterministic, so the ETag is derived
+ * from the request alone and a client revalidating a tile is answered without touching the caches.
+ * {@code /stats} reports the counters used for load testing.
+ */
+public class TileServer implements AutoCloseable {
+    public static final int TILE_SIZE = 256;
+    public static final int MAX_LEVEL = 22; // The frame of a level must fit in an int
+    public static final int MAX_ITERATIONS = 100_000;
+    private static final int DEFAULT_ITERATIONS = 256;
+    private static final int EXPLORER_WIDTH = 1000; // The width the fractals' default zooms are chosen for
+    private static final String RENDER_VERSION = "1"; // Change when the same request would render differently
+    private static final String CACHE_CONTROL = "public, max-age=86400";
+
+    private record TileKey(FractalType type, ComplexNumber parameter, ColorPalette.PaletteType palette,
+                           int maxIterations, int level, int x, int y) {
+        /** The cache directory of the tile's variant, relative to the cache root */
+        Path variant() {
+            String name = palette.name().toLowerCase(Locale.ROOT) + "-" + maxIterations
+                + (parameter != null ? "-" + parameter.real() + "," + parameter.imaginary() : "");
+            return Path.of(type.name().toLowerCase(Locale.ROOT), name);
+        }
+
+        Path file() {
+            return variant().resolve(Integer.toString(level)).resolve(Integer.toString(x)).resolve(y + ".png");
+        }
+
+        String etag() {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest((RENDER_VERSION + "/" + file()).getBytes(StandardCharsets.UTF_8));
+                return "\"" + HexFormat.of().formatHex(digest, 0, 12) + "\"";
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private record Served(byte[] png, String source) {
+    }
+
+    private final MandelbrotCalculatorStrategy calculator;
+    private final Path cacheDirectory; // May be null
+    private final MemoryCache memory;
+    private final Semaphore renders = new Semaphore(Runtime.getRuntime().availableProcessors());
+    private final Map<TileKey, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder rendered = new LongAdder();
+    private final LongAdder renderNanos = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private HttpServer server;
+
+    /**
+     * @param cacheDirectory Where rendered tiles are kept between runs, or null for the memory cache only
+     * @param memoryCacheBytes The total size of the PNGs the memory cache holds
+     */
+    public TileServer(MandelbrotCalculatorStrategy calculator, Path cacheDirectory, long memoryCacheBytes) {
+        this.calculator = calculator;
+        this.cacheDirectory = cacheDirectory;
+        this.memory = new MemoryCache(memoryCacheBytes);
+    }
+
+    /**
+     * Start answering requests on the address, port 0 picks a free port
+     * @return The address the server listens on
+     */
+    public InetSocketAddress start(InetSocketAddress address) throws IOException {
+        server = HttpServer.create(address, 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        return server.getAddress();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+        }
+        executor.close();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.increment();
+            String method = exchange.getRequestMethod();
+            if (!method.equals("GET") && !method.equals("HEAD")) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                sendText(exchange, 405, "Only GET and HEAD are supported\n");
+                return;
+            }
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals("/stats")) {
+                sendText(exchange, 200, stats());
+                return;
+            }
+
+            TileKey key;
+            try {
+                key = parse(path, exchange.getRequestURI().getRawQuery());
+            } catch (IllegalArgumentException e) {
+                sendText(exchange, 400, e.getMessage() + "\n");
+                return;
+            }
+            if (key == null) {
+                sendText(exchange, 404, "Tiles are served from /{fractal}/{z}/{x}/{y}.png\n");
+                return;
+            }
+
+            String etag = key.etag();
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.increment();
+                setCacheHeaders(exchange, etag);
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+
+            Served served;
+            try {
+                served = tile(key);
+            } catch (IOException | RuntimeException e) {
+                // Failures are not cached and their details stay in the server's log
+                failures.increment();
+                System.err.println("Error: rendering " + path + " failed: " + e);
+                sendText(exchange, 500, "Rendering failed\n");
+                return;
+            }
+            setCacheHeaders(exchange, etag);
+            exchange.getResponseHeaders().set("Content-Type", "image/png");
+            exchange.getResponseHeaders().set("X-Tile-Source", served.source());
+            if (method.equals("HEAD")) {
+                exchange.getResponseHeaders().set("Content-Length", Integer.toString(served.png().length));
+                exchange.sendResponseHeaders(200, -1);
+            } else {
+                exchange.sendResponseHeaders(200, served.png().length);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(served.png());
+                }
+            }
+        }
+    }
+
+    private static void setCacheHeaders(HttpExchange exchange, String etag) {
+        exchange.getResponseHeaders().set("ETag", etag);
+        exchange.getResponseHeaders().set("Cache-Control", CACHE_CONTROL);
+    }
+
+    /**
+     * Get a tile from the memory cache, the render already running for it, the disk cache or a new render,
+     * in that order
+     */
+    private Served tile(TileKey key) throws IOException {
+        byte[] cached = memory.get(key);
+        if (cached != null) {
+            memoryHits.increment();
+            return new Served(cached, "memory");
+        }
+
+        CompletableFuture<byte[]> mine = new CompletableFuture<>();
+        CompletableFuture<byte[]> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.increment();
+            try {
+                return new Served(running.join(), "coalesced");
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof IOException io) {
+                    throw io;
+                }
+                throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+            }
+        }
+        try {
+            Served served = load(key);
+            // Cache before the render is no longer in flight, so no request can miss both
+            memory.put(key, served.png());
+            mine.complete(served.png());
+            return served;
+        } catch (IOException | RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private Served load(TileKey key) throws IOException {
+        if (cacheDirectory != null) {
+            try {
+                byte[] png = Files.readAllBytes(cacheDirectory.resolve(key.file()));
+                diskHits.increment();
+                return new Served(png, "disk");
+            } catch (NoSuchFileException e) {
+                // Not rendered yet
+            }
+        }
+
+        byte[] png = render(key);
+        if (cacheDirectory != null) {
+            Path file = cacheDirectory.resolve(key.file());
+            Files.createDirectories(file.getParent());
+            // Another server sharing the directory may write the same tile, so every writer has its own part file
+            Path part = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".part");
+            try {
+                Files.write(part, png);
+                Files.move(part, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(part);
+            }
+        }
+        return new Served(png, "rendered");
+    }
+
+    private byte[] render(TileKey key) throws IOException {
+        renders.acquireUninterruptibly();
+        int[][] iterations;
+        long start = System.nanoTime();
+        try {
+            Fractal fractal = key.type().create();
+            if (key.parameter() != null) {
+                fractal.setParameter(key.parameter());
+            }
+            // The level is one frame of 2^level tiles a side around the default view, each tile a region of it
+            int frameSize = TILE_SIZE << key.level();
+            double zoom = fractal.getDefaultZoom() * TILE_SIZE / EXPLORER_WIDTH * (1L << key.level());
+            iterations = calculator.calculateRegion(frameSize, frameSize,
+                                                    new Tile(key.x() * TILE_SIZE, key.y() * TILE_SIZE, TILE_SIZE, TILE_SIZE),
+                                                    fractal.getDefaultCenter().real(),
+                                                    fractal.getDefaultCenter().imaginary(), zoom,
+                                                    key.maxIterations(), fractal);
+        } finally {
+            renders.release();
+        }
+        rendered.increment();
+        renderNanos.add(System.nanoTime() - start);
+
+        int[] colors = new ColorPalette(key.palette()).getArgbTable(key.maxIterations());
+        int[] argb = new int[TILE_SIZE * TILE_SIZE];
+        for (int y = 0; y < TILE_SIZE; y++) {
+            for (int x = 0; x < TILE_SIZE; x++) {
+                argb[y * TILE_SIZE + x] = colors[iterations[x][y]];
+            }
+        }
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        try (PngWriter writer = new PngWriter(Channels.newChannel(png), TILE_SIZE, TILE_SIZE,
+                                              PngWriter.indexedPalette(colors), ForkJoinPool.commonPool())) {
+            writer.writeRows(argb, TILE_SIZE);
+        }
+        return png.toByteArray();
+    }
+
+    /**
+     * Read the tile a request is for
+     * @return null if the path is not a tile path
+     * @throws IllegalArgumentException For tile paths with invalid values
+     */
+    private static TileKey parse(String path, String query) {
+        String[] parts = path.split("/");
+        if (parts.length != 5 || !parts[0].isEmpty() || !parts[4].endsWith(".png")) {
+            return null;
+        }
+        FractalType type;
+        try {
+            type = FractalType.valueOf(parts[1].toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown fractal " + parts[1]);
+        }
+        int level = integer(parts[2], "z");
+        int x = integer(parts[3], "x");
+        int y = integer(parts[4].substring(0, parts[4].length() - ".png".length()), "y");
+        if (level < 0 || level > MAX_LEVEL) {
+            throw new IllegalArgumentException("z must be between 0 and " + MAX_LEVEL);
+        }
+        if (x < 0 || y < 0 || x >= 1 << level || y >= 1 << level) {
+            throw new IllegalArgumentException("x and y must be between 0 and " + ((1 << level) - 1) + " at level " + level);
+        }
+
+        Map<String, String> parameters = query(query);
+        int maxIterations = parameters.containsKey("iterations") ? integer(parameters.get("iterations"), "iterations")
+            : DEFAULT_ITERATIONS;
+        if (maxIterations < 1 || maxIterations > MAX_ITERATIONS) {
+            throw new IllegalArgumentException("iterations must be between 1 and " + MAX_ITERATIONS);
+        }
+        ColorPalette.PaletteType palette;
+        try {
+            palette = ColorPalette.PaletteType.valueOf(parameters.getOrDefault("palette", "smooth").toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown palette " + parameters.get("palette"));
+        }
+        ComplexNumber parameter = null;
+        if (parameters.containsKey("parameter")) {
+            if (!type.create().requiresParameter()) {
+                throw new IllegalArgumentException(parts[1] + " takes no parameter");
+            }
+            String[] values = parameters.get("parameter").split(",");
+            if (values.length != 2) {
+                throw new IllegalArgumentException("parameter needs two numbers separated by ','");
+            }
+            try {
+                parameter = new ComplexNumber(Double.parseDouble(values[0].trim()), Double.parseDouble(values[1].trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("parameter is not a number: " + parameters.get("parameter"));
+            }
+            if (!Double.isFinite(parameter.real()) || !Double.isFinite(parameter.imaginary())) {
+                throw new IllegalArgumentException("parameter must be finite");
+            }
+        }
+        return new TileKey(type, parameter, palette, maxIterations, level, x, y);
+    }
+
+    private static Map<String, String> query(String query) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                int equals = pair.indexOf('=');
+                if (!pair.isEmpty()) {
+                    parameters.put(URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), StandardCharsets.UTF_8),
+                                   equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return parameters;
+    }
+
+    private static int integer(String value, String name) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " is not a whole number: " + value);
+        }
+    }
+
+    private String stats() {
+        long count = rendered.sum();
+        return String.format(Locale.ROOT, """
+            requests %d
+            not_modified %d
+            memory_hits %d
+            disk_hits %d
+            coalesced %d
+            rendered %d
+            render_ms_avg %.2f
+            failures %d
+            memory_cache_tiles %d
+            memory_cache_bytes %d
+            """, requests.sum(), notModified.sum(), memoryHits.sum(), diskHits.sum(), coalesced.sum(), count,
+                             count == 0 ? 0.0 : renderNanos.sum() / 1e6 / count, failures.sum(),
+                             memory.size(), memory.bytes());
+    }
+
+    private static void sendText(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] body = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        if (exchange.getRequestMethod().equals("HEAD")) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * The least recently used tiles are dropped once the PNGs exceed the budget
+     */
+    private static final class MemoryCache {
+        private final long capacity;
+        private final LinkedHashMap<TileKey, byte[]> tiles = new LinkedHashMap<>(16, 0.75f, true);
+        private long bytes;
+
+        MemoryCache(long capacity) {
+            this.capacity = capacity;
+        }
+
+        synchronized byte[] get(TileKey key) {
+            return tiles.get(key);
+        }
+
+        synchronized void put(TileKey key, byte[] png) {
+            if (png.length > capacity) {
+                return;
+            }
+            byte[] previous = tiles.put(key, png);
+            bytes += png.length - (previous != null ? previous.length : 0);
+            Iterator<byte[]> eldest = tiles.values().iterator();
+            while (bytes > capacity) {
+                bytes -= eldest.next().length;
+                eldest.remove();
+            }
+        }
+
+        synchronized int size() {
+            return tiles.size();
+        }
+
+        synchronized long bytes() {
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+module ca.bazlur.mandelbrot.cli {
+    requires ca.bazlur.mandelbrot;
+    requires java.net.http;
+    requires jdk.httpserver;
+
+    exports ca.bazlur.mandelbrot.cli;
+}
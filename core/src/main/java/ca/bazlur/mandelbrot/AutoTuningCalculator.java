@@ -0,0 +1,225 @@
+package ca.bazlur.mandelbrot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Picks the strategy, tile size and parallelism by measuring them online.
+ * Frames are grouped into workloads by fractal and resolution; within a workload every candidate
+ * is tried once, then the fastest one is used, and every {@value #EXPLORE_INTERVAL} frames the
+ * least recently measured candidate is tried again in case the view became cheaper or costlier.
+ */
+public class AutoTuningCalculator implements MandelbrotCalculatorStrategy {
+    private static final int EXPLORE_INTERVAL = 8;
+    private static final double SMOOTHING = 0.5; // Weight of the newest throughput measurement
+    private static final long SINGLE_THREADED_MAX_PIXELS = 256 * 256; // Only tried for thumbnails
+
+    private final List<Candidate> candidates;
+    private final Map<Candidate, MandelbrotCalculatorStrategy> calculators = new ConcurrentHashMap<>();
+    private final Map<String, Workload> workloads = new ConcurrentHashMap<>();
+    private volatile String decision = "tuning";
+
+    /**
+     * A strategy with its parallelism and granularity: tile size for the executor, rows for fork/join
+     */
+    record Candidate(StrategyType type, int parallelism, int granularity) {
+
+        MandelbrotCalculatorStrategy create() {
+            return switch (type) {
+                case EXECUTOR_SERVICE -> new MandelbrotCalculator(parallelism, granularity);
+                case FORK_JOIN -> new MandelbrotCalculatorFJ(parallelism, granularity);
+                case SINGLE_THREADED -> new SingleThreadedCalculator();
+                case AUTO -> throw new IllegalArgumentException("Auto cannot tune itself");
+            };
+        }
+
+        @Override
+        public String toString() {
+            return switch (type) {
+                case EXECUTOR_SERVICE -> String.format("%s, %d threads, %dpx tiles", type, parallelism, granularity);
+                case FORK_JOIN -> String.format("%s, parallelism %d, %d rows", type, parallelism, granularity);
+                default -> type.toString();
+            };
+        }
+    }
+
+    /**
+     * Smoothed throughput of every candidate for one kind of frame, guarded by its own lock
+     */
+    private static class Workload {
+        final double[] throughput; // Iterations plus pixels per nanosecond, NaN until measured
+        final long[] measuredAt;
+        long frames;
+
+        Workload(int candidates) {
+            throughput = new double[candidates];
+            measuredAt = new long[candidates];
+            Arrays.fill(throughput, Double.NaN);
+        }
+    }
+
+    public AutoTuningCalculator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param parallelism Highest number of threads a candidate may use
+     */
+    public AutoTuningCalculator(int parallelism) {
+        candidates = new ArrayList<>();
+        // The default configuration first, so an untuned frame is never worse than before
+        candidates.add(new Candidate(StrategyType.EXECUTOR_SERVICE, parallelism, MandelbrotCalculator.TILE_SIZE));
+        candidates.add(new Candidate(StrategyType.EXECUTOR_SERVICE, parallelism, 32));
+        candidates.add(new Candidate(StrategyType.EXECUTOR_SERVICE, parallelism, 128));
+        candidates.add(new Candidate(StrategyType.FORK_JOIN, parallelism, MandelbrotCalculatorFJ.THRESHOLD));
+        candidates.add(new Candidate(StrategyType.FORK_JOIN, parallelism, 16));
+        if (parallelism >= 4) {
+            // Half the threads can win when the other half would only contend for hyper-threaded cores
+            candidates.add(new Candidate(StrategyType.EXECUTOR_SERVICE, parallelism / 2, MandelbrotCalculator.TILE_SIZE));
+            candidates.add(new Candidate(StrategyType.FORK_JOIN, parallelism / 2, MandelbrotCalculatorFJ.THRESHOLD));
+        }
+        candidates.add(new Candidate(StrategyType.SINGLE_THREADED, 1, 0));
+    }
+
+    public int[][] calculateIterations(int width, int height, double centerX, double centerY, double zoom, int maxIterations) {
+        return calculateIterations(width, height, centerX, centerY, zoom, maxIterations, new MandelbrotFractal());
+    }
+
+    @Override
+    public int[][] calculateIterations(int width, int height, double centerX, double centerY, double zoom, int maxIterations, Fractal fractal) {
+        return tuned(fractal, width, height, 0,
+            calculator -> calculator.calculateIterations(width, height, centerX, centerY, zoom, maxIterations, fractal));
+    }
+
+    @Override
+    public int[][] calculateIterations(int width, int height, double centerX, double centerY, double zoom, int maxIterations,
+                                       Fractal fractal, double focusX, double focusY, TileListener listener) {
+        return tuned(fractal, width, height, 0, calculator -> calculator.calculateIterations(
+            width, height, centerX, centerY, zoom, maxIterations, fractal, focusX, focusY, listener));
+    }
+
+    @Override
+    public int[][] calculateIterations(IterationState state, int maxIterations) {
+        return tuned(state.getFractal(), state.getWidth(), state.getHeight(), workDone(state),
+            calculator -> calculator.calculateIterations(state, maxIterations));
+    }
+
+    @Override
+    public int[][] calculateIterations(IterationState state, int maxIterations,
+                                       double focusX, double focusY, TileListener listener) {
+        return tuned(state.getFractal(), state.getWidth(), state.getHeight(), workDone(state),
+            calculator -> calculator.calculateIterations(state, maxIterations, focusX, focusY, listener));
+    }
+
+    /**
+     * Get the work earlier calculations of a state already did, in the units {@link #record} counts:
+     * the iterations so far plus one per point that will not be advanced again
+     */
+    private static long workDone(IterationState state) {
+        long work = state.getWidth() * (long) state.getHeight()
+            - state.countPending(new Tile(0, 0, state.getWidth(), state.getHeight()));
+        for (int[] column : state.getIterations()) {
+            for (int count : column) {
+                work += count;
+            }
+        }
+        return work;
+    }
+
+    /**
+     * Run a calculation with the candidate chosen for its workload and record how fast it was
+     * @param workDone Work already in the frame before the calculation, so a resumed frame is measured by what it adds
+     */
+    private int[][] tuned(Fractal fractal, int width, int height, long workDone,
+                          Function<MandelbrotCalculatorStrategy, int[][]> calculation) {
+        long pixels = (long) width * height;
+        Workload workload = workloadOf(fractal, width, height);
+        int choice = choose(workload, pixels);
+        long start = System.nanoTime();
+        int[][] iterations = calculation.apply(calculatorOf(candidates.get(choice)));
+        record(workload, choice, iterations, pixels - workDone, System.nanoTime() - start);
+        return iterations;
+    }
+
+    private Workload workloadOf(Fractal fractal, int width, int height) {
+        // Resolutions within a factor of two of each other behave alike
+        int sizeClass = 63 - Long.numberOfLeadingZeros(Math.max(1, (long) width * height));
+        return workloads.computeIfAbsent(fractal.getName() + "@" + sizeClass, key -> new Workload(candidates.size()));
+    }
+
+    private MandelbrotCalculatorStrategy calculatorOf(Candidate candidate) {
+        return calculators.computeIfAbsent(candidate, Candidate::create);
+    }
+
+    private boolean isEligible(int candidate, long pixels) {
+        return candidates.get(candidate).type() != StrategyType.SINGLE_THREADED || pixels <= SINGLE_THREADED_MAX_PIXELS;
+    }
+
+    private int choose(Workload workload, long pixels) {
+        synchronized (workload) {
+            workload.frames++;
+            int best = -1;
+            int stalest = -1;
+            for (int i = 0; i < candidates.size(); i++) {
+                if (!isEligible(i, pixels)) {
+                    continue;
+                }
+                if (Double.isNaN(workload.throughput[i])) {
+                    decision = "tuning, trying " + candidates.get(i);
+                    return i;
+                }
+                if (best < 0 || workload.throughput[i] > workload.throughput[best]) {
+                    best = i;
+                }
+                if (stalest < 0 || workload.measuredAt[i] < workload.measuredAt[stalest]) {
+                    stalest = i;
+                }
+            }
+            if (workload.frames % EXPLORE_INTERVAL == 0 && stalest != best) {
+                decision = "re-measuring " + candidates.get(stalest);
+                return stalest;
+            }
+            decision = candidates.get(best).toString();
+            return best;
+        }
+    }
+
+    /**
+     * @param work Work of the frame besides its iterations, one per pixel less what earlier calculations did
+     */
+    private static void record(Workload workload, int candidate, int[][] iterations, long work, long nanos) {
+        for (int[] column : iterations) {
+            for (int count : column) {
+                work += count;
+            }
+        }
+        double throughput = (double) work / Math.max(1, nanos);
+        synchronized (workload) {
+            double previous = workload.throughput[candidate];
+            workload.throughput[candidate] = Double.isNaN(previous)
+                ? throughput
+                : SMOOTHING * throughput + (1 - SMOOTHING) * previous;
+            workload.measuredAt[candidate] = workload.frames;
+        }
+    }
+
+    @Override
+    public StrategyType getType() {
+        return StrategyType.AUTO;
+    }
+
+    @Override
+    public String describeConfiguration() {
+        return "Auto: " + decision;
+    }
+
+    @Override
+    public void close() {
+        calculators.values().forEach(MandelbrotCalculatorStrategy::close);
+        calculators.clear();
+    }
+}
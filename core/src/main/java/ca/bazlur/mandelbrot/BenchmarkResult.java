@@ -0,0 +1,63 @@
+package ca.bazlur.mandelbrot;
+
+import java.util.Locale;
+
+/**
+ * Measurements of one scene rendered with one strategy, averaged over the measured runs
+ * @param cpuUtilization The CPU time of the whole process over the wall time of all cores, 1 when every core was busy
+ * @param cpuSeconds The CPU time of the whole process per run
+ * @param busyThreads The number of threads that were busy for a noticeable part of the wall time
+ * @param busiestThreadUtilization The CPU time of the busiest thread over the wall time
+ * @param quietestThreadUtilization The CPU time of the least busy of the busy threads over the wall time,
+ *                                  far below the busiest when the work was unevenly spread
+ */
+public record BenchmarkResult(String scene, MandelbrotCalculatorStrategy.StrategyType strategy,
+                              int width, int height, int maxIterations,
+                              double wallMillis, double mpixelsPerSecond, double miterationsPerSecond,
+                              double allocatedMegabytes, double cpuUtilization, double cpuSeconds,
+                              int busyThreads, double busiestThreadUtilization, double quietestThreadUtilization) {
+
+    static final String CSV_HEADER = "scene,strategy,width,height,maxIterations,wallMillis,"
+        + "mpixelsPerSecond,miterationsPerSecond,allocatedMegabytes,cpuUtilization,cpuSeconds,"
+        + "busyThreads,busiestThreadUtilization,quietestThreadUtilization";
+
+    /**
+     * Key identifying the same measurement across runs, used to match baselines
+     */
+    public String key() {
+        return scene + "/" + strategy.name();
+    }
+
+    String toCsv() {
+        return String.format(Locale.ROOT, "\"%s\",%s,%d,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%d,%.3f,%.3f",
+            scene, strategy.name(), width, height, maxIterations,
+            wallMillis, mpixelsPerSecond, miterationsPerSecond, allocatedMegabytes, cpuUtilization, cpuSeconds,
+            busyThreads, busiestThreadUtilization, quietestThreadUtilization);
+    }
+
+    String toJson() {
+        return String.format(Locale.ROOT,
+            "{\"scene\": \"%s\", \"strategy\": \"%s\", \"width\": %d, \"height\": %d, \"maxIterations\": %d, "
+                + "\"wallMillis\": %.3f, \"mpixelsPerSecond\": %.3f, \"miterationsPerSecond\": %.3f, "
+                + "\"allocatedMegabytes\": %.3f, \"cpuUtilization\": %.3f, \"cpuSeconds\": %.3f, "
+                + "\"busyThreads\": %d, \"busiestThreadUtilization\": %.3f, \"quietestThreadUtilization\": %.3f}",
+            scene, strategy.name(), width, height, maxIterations,
+            wallMillis, mpixelsPerSecond, miterationsPerSecond, allocatedMegabytes, cpuUtilization, cpuSeconds,
+            busyThreads, busiestThreadUtilization, quietestThreadUtilization);
+    }
+
+    static BenchmarkResult fromCsv(String line) {
+        // The scene name is the only quoted column
+        int quoteEnd = line.indexOf('"', 1);
+        String scene = line.substring(1, quoteEnd);
+        String[] f = line.substring(quoteEnd + 2).split(",");
+        // Baselines saved before the per-thread columns existed end after cpuUtilization
+        boolean threads = f.length > 9;
+        return new BenchmarkResult(scene, MandelbrotCalculatorStrategy.StrategyType.valueOf(f[0]),
+            Integer.parseInt(f[1]), Integer.parseInt(f[2]), Integer.parseInt(f[3]),
+            Double.parseDouble(f[4]), Double.parseDouble(f[5]), Double.parseDouble(f[6]),
+            Double.parseDouble(f[7]), Double.parseDouble(f[8]),
+            threads ? Double.parseDouble(f[9]) : 0, threads ? Integer.parseInt(f[10]) : 0,
+            threads ? Double.parseDouble(f[11]) : 0, threads ? Double.parseDouble(f[12]) : 0);
+    }
+}
@@ -0,0 +1,15 @@
+package ca.bazlur.mandelbrot;
+
+/**
+ * A fixed view rendered by the built-in benchmark
+ */
+public record BenchmarkScene(String name, FractalType fractalType, double centerX, double centerY,
+                             double zoom, int width, int height, int maxIterations) {
+
+    static BenchmarkScene defaultView(FractalType type, int width, int height, int maxIterations) {
+        Fractal fractal = type.create();
+        return new BenchmarkScene(type.getDisplayName(), type,
+            fractal.getDefaultCenter().real(), fractal.getDefaultCenter().imaginary(),
+            fractal.getDefaultZoom(), width, height, maxIterations);
+    }
+}
@@ -0,0 +1,239 @@
+package ca.bazlur.mandelbrot;
+
+/**
+ * Maps iteration counts to ARGB colors. It needs nothing beyond java.base, so it works without a display.
+ */
+public class ColorPalette {
+  private static final Rgb BLACK = new Rgb(0, 0, 0);
+  private static final Rgb BLUE = new Rgb(0, 0, 1);
+  private static final Rgb CYAN = new Rgb(0, 1, 1);
+  private static final Rgb YELLOW = new Rgb(1, 1, 0);
+  private static final Rgb RED = new Rgb(1, 0, 0);
+
+  private final Rgb[] colorGradient;
+  private final PaletteType type;
+
+  public enum PaletteType {
+    CLASSIC,
+    SMOOTH,
+    FIRE,
+    OCEAN,
+    RAINBOW,
+    GRAYSCALE
+  }
+
+  public ColorPalette() {
+    this(PaletteType.SMOOTH);
+  }
+
+  public ColorPalette(PaletteType type) {
+    this.type = type;
+    this.colorGradient = createGradient(type);
+  }
+
+  /**
+   * A color with channels from 0 to 1, kept in floats like the colors the palettes were designed with
+   */
+  private record Rgb(float red, float green, float blue) {
+    static Rgb rgb(int red, int green, int blue) {
+      return color(red / 255.0, green / 255.0, blue / 255.0);
+    }
+
+    static Rgb color(double red, double green, double blue) {
+      return new Rgb((float) red, (float) green, (float) blue);
+    }
+
+    static Rgb gray(double gray) {
+      return color(gray, gray, gray);
+    }
+
+    static Rgb hsb(double hue, double saturation, double brightness) {
+      double h = (((hue % 360) + 360) % 360) / 360;
+      h = (h - Math.floor(h)) * 6.0;
+      double f = h - Math.floor(h);
+      double p = brightness * (1.0 - saturation);
+      double q = brightness * (1.0 - saturation * f);
+      double t = brightness * (1.0 - (saturation * (1.0 - f)));
+      return switch ((int) h) {
+        case 0 -> color(brightness, t, p);
+        case 1 -> color(q, brightness, p);
+        case 2 -> color(p, brightness, t);
+        case 3 -> color(p, q, brightness);
+        case 4 -> color(t, p, brightness);
+        default -> color(brightness, p, q);
+      };
+    }
+
+    int toArgb() {
+      int r = (int) Math.round(red * 255.0);
+      int g = (int) Math.round(green * 255.0);
+      int b = (int) Math.round(blue * 255.0);
+      return 0xFF000000 | (r << 16) | (g << 8) | b;
+    }
+  }
+
+  public int getArgbForIterations(int iterations, int maxIterations) {
+    if (iterations == maxIterations) {
+      return BLACK.toArgb(); // Points inside the set
+    }
+
+    // Smooth coloring using normalized iteration count
+    double smoothed = iterations + 1 - Math.log(Math.log(256)) / Math.log(2);
+    smoothed = Math.max(0, Math.min(smoothed, maxIterations));
+
+    double index = (smoothed / maxIterations) * (colorGradient.length - 1);
+    int colorIndex1 = (int) Math.floor(index);
+    int colorIndex2 = Math.min(colorIndex1 + 1, colorGradient.length - 1);
+
+    double fraction = index - colorIndex1;
+
+    return interpolateColors(colorGradient[colorIndex1], colorGradient[colorIndex2], fraction).toArgb();
+  }
+
+  /**
+   * Get the color of every iteration count from 0 to maxIterations, for colorizing whole frames with a lookup
+   */
+  public int[] getArgbTable(int maxIterations) {
+    int[] colors = new int[maxIterations + 1];
+    for (int i = 0; i <= maxIterations; i++) {
+      colors[i] = getArgbForIterations(i, maxIterations);
+    }
+    return colors;
+  }
+
+  /**
+   * Colorize an iteration grid, indexed [x][y], into ARGB pixels in row order
+   * @param colors The color of every iteration count, see {@link #getArgbTable}
+   */
+  public static int[] colorize(int[][] iterations, int width, int height, int[] colors) {
+    int[] argb = new int[width * height];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        argb[y * width + x] = colors[iterations[x][y]];
+      }
+    }
+    return argb;
+  }
+
+  public PaletteType getType() {
+    return type;
+  }
+
+  private Rgb[] createGradient(PaletteType type) {
+    int numColors = 256;
+
+    return switch (type) {
+      case CLASSIC -> createClassicGradient(numColors);
+      case SMOOTH -> createSmoothGradient(numColors);
+      case FIRE -> createFireGradient(numColors);
+      case OCEAN -> createOceanGradient(numColors);
+      case RAINBOW -> createRainbowGradient(numColors);
+      case GRAYSCALE -> createGrayscaleGradient(numColors);
+    };
+  }
+
+  private Rgb[] createClassicGradient(int numColors) {
+    Rgb[] gradient = new Rgb[numColors];
+    for (int i = 0; i < numColors; i++) {
+      double fraction = (double) i / (numColors - 1);
+      if (fraction < 0.3) {
+        gradient[i] = interpolateColors(BLUE, CYAN, fraction / 0.3);
+      } else if (fraction < 0.7) {
+        gradient[i] = interpolateColors(CYAN, YELLOW, (fraction - 0.3) / 0.4);
+      } else {
+        gradient[i] = interpolateColors(YELLOW, RED, (fraction - 0.7) / 0.3);
+      }
+    }
+    return gradient;
+  }
+
+  private Rgb[] createSmoothGradient(int numColors) {
+    Rgb[] gradient = new Rgb[numColors];
+    Rgb[] keyColors = {
+        Rgb.rgb(0, 7, 100),
+        Rgb.rgb(32, 107, 203),
+        Rgb.rgb(237, 255, 255),
+        Rgb.rgb(255, 170, 0),
+        Rgb.rgb(0, 2, 0)
+    };
+
+    for (int i = 0; i < numColors; i++) {
+      double position = (double) i / (numColors - 1) * (keyColors.length - 1);
+      int index = (int) position;
+      double fraction = position - index;
+
+      if (index >= keyColors.length - 1) {
+        gradient[i] = keyColors[keyColors.length - 1];
+      } else {
+        gradient[i] = interpolateColors(keyColors[index], keyColors[index + 1], fraction);
+      }
+    }
+    return gradient;
+  }
+
+  private Rgb[] createFireGradient(int numColors) {
+    Rgb[] gradient = new Rgb[numColors];
+    for (int i = 0; i < numColors; i++) {
+      double fraction = (double) i / (numColors - 1);
+      double r = Math.min(1.0, fraction * 3);
+      double g = Math.min(1.0, Math.max(0, (fraction - 0.33) * 3));
+      double b = Math.min(1.0, Math.max(0, (fraction - 0.66) * 3));
+      gradient[i] = Rgb.color(r, g, b);
+    }
+    return gradient;
+  }
+
+  private Rgb[] createOceanGradient(int numColors) {
+    Rgb[] gradient = new Rgb[numColors];
+    Rgb[] keyColors = {
+        Rgb.rgb(0, 0, 50),
+        Rgb.rgb(0, 50, 150),
+        Rgb.rgb(0, 100, 200),
+        Rgb.rgb(100, 200, 255),
+        Rgb.rgb(200, 255, 255)
+    };
+
+    for (int i = 0; i < numColors; i++) {
+      double position = (double) i / (numColors - 1) * (keyColors.length - 1);
+      int index = (int) position;
+      double fraction = position - index;
+
+      if (index >= keyColors.length - 1) {
+        gradient[i] = keyColors[keyColors.length - 1];
+      } else {
+        gradient[i] = interpolateColors(keyColors[index], keyColors[index + 1], fraction);
+      }
+    }
+    return gradient;
+  }
+
+  private Rgb[] createRainbowGradient(int numColors) {
+    Rgb[] gradient = new Rgb[numColors];
+    for (int i = 0; i < numColors; i++) {
+      double hue = (double) i / (numColors - 1) * 360;
+      gradient[i] = Rgb.hsb(hue, 1.0, 1.0);
+    }
+    return gradient;
+  }
+
+  private Rgb[] createGrayscaleGradient(int numColors) {
+    Rgb[] gradient = new Rgb[numColors];
+    for (int i = 0; i < numColors; i++) {
+      double gray = (double) i / (numColors - 1);
+      gradient[i] = Rgb.gray(gray);
+    }
+    return gradient;
+  }
+
+  private Rgb interpolateColors(Rgb color1, Rgb color2, double fraction) {
+    double red = color1.red() * (1 - fraction) + color2.red() * fraction;
+    double green = color1.green() * (1 - fraction) + color2.green() * fraction;
+    double blue = color1.blue() * (1 - fraction) + color2.blue() * fraction;
+
+    return Rgb.color(
+        Math.max(0, Math.min(1, red)),
+        Math.max(0, Math.min(1, green)),
+        Math.max(0, Math.min(1, blue))
+    );
+  }
+}
\ No newline at end of file
@@ -0,0 +1,90 @@
+package ca.bazlur.mandelbrot;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Predicts the relative cost of tiles before they are computed, so the strategies
+ * can schedule the expensive ones first. Uses the previous frame's iterations when
+ * the new frame is a pan of it, and a sparse low resolution probe otherwise.
+ */
+final class CostEstimator {
+    /** Distance in pixels between probed points, one point per PROBE_STRIDE x PROBE_STRIDE block */
+    static final int PROBE_STRIDE = 8;
+
+    private volatile Frame previous;
+
+    private record Frame(int[][] iterations, int width, int height, double centerX, double centerY,
+                         double zoom, int maxIterations, Fractal fractal) {
+    }
+
+    /**
+     * Get a cost function for the tiles of a new frame.
+     * The cost of a tile is its estimated total iterations plus one per pixel.
+     */
+    ToLongFunction<Tile> forFrame(int width, int height, double centerX, double centerY, double zoom,
+                                  int maxIterations, Fractal fractal) {
+        Frame last = previous;
+        boolean panned = last != null && last.width == width && last.height == height && last.zoom == zoom
+            && last.maxIterations == maxIterations && last.fractal == fractal;
+        double offsetX = panned ? (centerX - last.centerX) * zoom : 0;
+        double offsetY = panned ? (centerY - last.centerY) * zoom : 0;
+
+        return tile -> {
+            // Sample the middle of every PROBE_STRIDE block, at least one point for small tiles
+            long sampled = 0;
+            int samples = 0;
+            for (int y = tile.y() + Math.min(PROBE_STRIDE / 2, tile.height() - 1); y < tile.y() + tile.height(); y += PROBE_STRIDE) {
+                for (int x = tile.x() + Math.min(PROBE_STRIDE / 2, tile.width() - 1); x < tile.x() + tile.width(); x += PROBE_STRIDE) {
+                    sampled += sample(last, panned, x, y, offsetX, offsetY,
+                                      width, height, centerX, centerY, zoom, maxIterations, fractal) + 1;
+                    samples++;
+                }
+            }
+            return sampled * tile.pixels() / samples;
+        };
+    }
+
+    private static int sample(Frame last, boolean panned, int x, int y, double offsetX, double offsetY,
+                              int width, int height, double centerX, double centerY, double zoom,
+                              int maxIterations, Fractal fractal) {
+        if (panned) {
+            long px = Math.round(x + offsetX);
+            long py = Math.round(y + offsetY);
+            if (px >= 0 && px < width && py >= 0 && py < height) {
+                return last.iterations[(int) px][(int) py];
+            }
+        }
+        double real = (x - width / 2.0) / zoom + centerX;
+        double imaginary = (y - height / 2.0) / zoom + centerY;
+        return fractal.calculateIterations(new ComplexNumber(real, imaginary), maxIterations);
+    }
+
+    /**
+     * Get a cost function for continuing a frame: the number of points that have not escaped yet.
+     * A state that was never calculated has no escaped points to tell the tiles apart,
+     * so it is estimated like a new frame.
+     */
+    ToLongFunction<Tile> forResume(IterationState state, int maxIterations) {
+        if (state.getMaxIterations() == 0) {
+            return forFrame(state.getWidth(), state.getHeight(), state.getCenterX(), state.getCenterY(),
+                            state.getZoom(), maxIterations, state.getFractal());
+        }
+        return state::countPending;
+    }
+
+    /**
+     * Keep a completed continuation of a frame to predict the cost of frames panned from it
+     */
+    void remember(IterationState state, int maxIterations) {
+        remember(state.getIterations(), state.getWidth(), state.getHeight(), state.getCenterX(), state.getCenterY(),
+                 state.getZoom(), maxIterations, state.getFractal());
+    }
+
+    /**
+     * Keep a completed frame to predict the cost of frames panned from it
+     */
+    void remember(int[][] iterations, int width, int height, double centerX, double centerY, double zoom,
+                  int maxIterations, Fractal fractal) {
+        previous = new Frame(iterations, width, height, centerX, centerY, zoom, maxIterations, fractal);
+    }
+}
@@ -0,0 +1,297 @@
+package ca.bazlur.mandelbrot;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Exports a view of any size as a Deep Zoom (DZI) image pyramid: {@code name.dzi} describes the image and
+ * {@code name_files/<level>/<column>_<row>.png} holds its 256x256 tiles, level 0 being a single pixel.
+ * Only the tiles of the full resolution level are calculated, every lower tile is downsampled from the
+ * four tiles below it. The pyramid is built depth first, so only a few tiles per level are held in memory,
+ * while the tiles are encoded and written on a pool of their own.
+ * <p>
+ * A tile is written only after the tiles below it, and under its final name only once it is complete,
+ * so after a failed run every existing tile stands for a finished subtree. Exporting the same view into
+ * the same place again resumes: finished subtrees are read back instead of calculated.
+ */
+public class DeepZoomExporter {
+    public static final int TILE_SIZE = 256;
+    private static final String SETTINGS_FILE = "render.properties";
+
+    private final MandelbrotCalculatorStrategy calculator;
+    private final ColorPalette palette;
+    private final int writerThreads;
+
+    public DeepZoomExporter(MandelbrotCalculatorStrategy calculator, ColorPalette palette) {
+        this(calculator, palette, Runtime.getRuntime().availableProcessors());
+    }
+
+    public DeepZoomExporter(MandelbrotCalculatorStrategy calculator, ColorPalette palette, int writerThreads) {
+        this.calculator = calculator;
+        this.palette = palette;
+        this.writerThreads = writerThreads;
+    }
+
+    /**
+     * Render the view into a pyramid next to the descriptor, resuming an unfinished export of the same view
+     * @param descriptor The .dzi file, the tiles go into a directory named after it
+     * @param progress Receives the fraction of full resolution tiles done so far
+     * @throws IllegalStateException If the tile directory holds an export of a different view
+     */
+    public void export(Path descriptor, int width, int height, double centerX, double centerY, double zoom,
+                       int maxIterations, Fractal fractal, DoubleConsumer progress) throws IOException {
+        String name = descriptor.getFileName().toString().replaceFirst("\\.dzi$", "");
+        Path tiles = descriptor.resolveSibling(name + "_files");
+        Files.createDirectories(tiles);
+        checkSettings(tiles.resolve(SETTINGS_FILE), width, height, centerX, centerY, zoom, maxIterations, fractal);
+
+        ExecutorService writers = Executors.newFixedThreadPool(writerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "dzi-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Pyramid pyramid = new Pyramid(tiles, width, height, centerX, centerY, zoom, maxIterations, fractal,
+                                          progress, writers);
+            pyramid.build(0, 0, 0).writing.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException("Writing a tile failed", e.getCause());
+        } finally {
+            writers.shutdown();
+        }
+        Files.writeString(descriptor, String.format("""
+            <?xml version="1.0" encoding="UTF-8"?>
+            <Image xmlns="http://schemas.microsoft.com/deepzoom/2008" TileSize="%d" Overlap="0" Format="png">
+              <Size Width="%d" Height="%d"/>
+            </Image>
+            """, TILE_SIZE, width, height));
+    }
+
+    /**
+     * Record the view an export renders, or check that an unfinished export renders the same view
+     */
+    private void checkSettings(Path file, int width, int height, double centerX, double centerY, double zoom,
+                               int maxIterations, Fractal fractal) throws IOException {
+        Properties settings = new Properties();
+        settings.setProperty("fractal", fractal.getName());
+        settings.setProperty("palette", palette.getType().name());
+        settings.setProperty("width", Integer.toString(width));
+        settings.setProperty("height", Integer.toString(height));
+        settings.setProperty("centerX", Double.toString(centerX));
+        settings.setProperty("centerY", Double.toString(centerY));
+        settings.setProperty("zoom", Double.toString(zoom));
+        settings.setProperty("maxIterations", Integer.toString(maxIterations));
+        if (Files.exists(file)) {
+            Properties existing = new Properties();
+            try (Reader reader = Files.newBufferedReader(file)) {
+                existing.load(reader);
+            }
+            if (!existing.equals(settings)) {
+                throw new IllegalStateException(file.getParent() + " holds an export of a different view");
+            }
+            return;
+        }
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            settings.store(writer, "Deep Zoom export in progress");
+        }
+    }
+
+    /**
+     * The pixels of a tile together with the write of its file, which completes after the tiles below it
+     */
+    private record Node(int[] argb, int width, int height, CompletableFuture<Void> writing) {
+    }
+
+    private class Pyramid {
+        private final Path tiles;
+        private final int width;
+        private final int height;
+        private final double centerX;
+        private final double centerY;
+        private final double zoom;
+        private final int maxIterations;
+        private final Fractal fractal;
+        private final int[] colors;
+        private final int maxLevel;
+        private final long totalTiles;
+        private final AtomicLong tilesDone = new AtomicLong();
+        private final DoubleConsumer progress;
+        private final ExecutorService writers;
+        private final Semaphore writesInFlight;
+        private volatile Throwable writeFailure; // Stops rendering early once a tile could not be written
+
+        Pyramid(Path tiles, int width, int height, double centerX, double centerY, double zoom, int maxIterations,
+                Fractal fractal, DoubleConsumer progress, ExecutorService writers) {
+            this.tiles = tiles;
+            this.width = width;
+            this.height = height;
+            this.centerX = centerX;
+            this.centerY = centerY;
+            this.zoom = zoom;
+            this.maxIterations = maxIterations;
+            this.fractal = fractal;
+            this.progress = progress;
+            this.writers = writers;
+            this.writesInFlight = new Semaphore(4 * writerThreads);
+            this.maxLevel = 32 - Integer.numberOfLeadingZeros(Math.max(width, height) - 1);
+            this.totalTiles = (long) columns(maxLevel) * rows(maxLevel);
+            this.colors = palette.getArgbTable(maxIterations);
+        }
+
+        /**
+         * Build the tile and everything below it, or read it back if an earlier run finished it
+         */
+        Node build(int level, int column, int row) throws IOException {
+            Path file = tileFile(level, column, row);
+            int tileWidth = Math.min(TILE_SIZE, levelSize(width, level) - column * TILE_SIZE);
+            int tileHeight = Math.min(TILE_SIZE, levelSize(height, level) - row * TILE_SIZE);
+            if (Files.exists(file)) {
+                BufferedImage image = ImageIO.read(file.toFile());
+                tileCompleted(tilesBelow(level, column, row));
+                return new Node(image.getRGB(0, 0, tileWidth, tileHeight, null, 0, tileWidth), tileWidth, tileHeight,
+                                CompletableFuture.completedFuture(null));
+            }
+
+            int[] argb;
+            List<CompletableFuture<Void>> below = new ArrayList<>();
+            if (writeFailure != null) {
+                throw new IOException("Writing a tile failed", writeFailure);
+            }
+            if (level == maxLevel) {
+                argb = render(column * TILE_SIZE, row * TILE_SIZE, tileWidth, tileHeight);
+                tileCompleted(1);
+            } else {
+                argb = new int[tileWidth * tileHeight];
+                for (int dy = 0; dy < 2; dy++) {
+                    for (int dx = 0; dx < 2; dx++) {
+                        int childColumn = column * 2 + dx;
+                        int childRow = row * 2 + dy;
+                        if (childColumn < columns(level + 1) && childRow < rows(level + 1)) {
+                            Node child = build(level + 1, childColumn, childRow);
+                            downsample(child, argb, tileWidth, tileHeight, dx, dy);
+                            below.add(child.writing());
+                        }
+                    }
+                }
+            }
+            return new Node(argb, tileWidth, tileHeight, write(file, argb, tileWidth, tileHeight, below));
+        }
+
+        private int[] render(int x, int y, int tileWidth, int tileHeight) {
+            int[][] iterations = calculator.calculateRegion(width, height, new Tile(x, y, tileWidth, tileHeight),
+                                                            centerX, centerY, zoom, maxIterations, fractal);
+            int[] argb = new int[tileWidth * tileHeight];
+            for (int py = 0; py < tileHeight; py++) {
+                for (int px = 0; px < tileWidth; px++) {
+                    argb[py * tileWidth + px] = colors[iterations[px][py]];
+                }
+            }
+            return argb;
+        }
+
+        /**
+         * Average every 2x2 block of the child into one pixel of the quadrant dx, dy of the parent
+         */
+        private static void downsample(Node child, int[] argb, int tileWidth, int tileHeight, int dx, int dy) {
+            int half = TILE_SIZE / 2;
+            for (int py = dy * half; py < Math.min(tileHeight, (dy + 1) * half); py++) {
+                for (int px = dx * half; px < Math.min(tileWidth, (dx + 1) * half); px++) {
+                    int red = 0, green = 0, blue = 0, samples = 0;
+                    for (int sy = (py - dy * half) * 2; sy < Math.min(child.height(), (py - dy * half) * 2 + 2); sy++) {
+                        for (int sx = (px - dx * half) * 2; sx < Math.min(child.width(), (px - dx * half) * 2 + 2); sx++) {
+                            int pixel = child.argb()[sy * child.width() + sx];
+                            red += (pixel >> 16) & 0xFF;
+                            green += (pixel >> 8) & 0xFF;
+                            blue += pixel & 0xFF;
+                            samples++;
+                        }
+                    }
+                    argb[py * tileWidth + px] = 0xFF000000
+                        | ((red + samples / 2) / samples) << 16
+                        | ((green + samples / 2) / samples) << 8
+                        | ((blue + samples / 2) / samples);
+                }
+            }
+        }
+
+        /**
+         * Encode the tile on the writer pool once the tiles below it are written, under a temporary name
+         * that is replaced by the final one when the file is complete
+         */
+        private CompletableFuture<Void> write(Path file, int[] argb, int tileWidth, int tileHeight,
+                                              List<CompletableFuture<Void>> below) throws IOException {
+            try {
+                writesInFlight.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Export interrupted", e);
+            }
+            return CompletableFuture.allOf(below.toArray(CompletableFuture[]::new))
+                .thenRunAsync(() -> {
+                    Path partial = file.resolveSibling(file.getFileName() + ".part");
+                    try {
+                        Files.createDirectories(file.getParent());
+                        try (PngWriter png = new PngWriter(partial, tileWidth, tileHeight, PngWriter.indexedPalette(argb))) {
+                            png.writeRows(argb, tileHeight);
+                        }
+                        Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                }, writers)
+                .whenComplete((done, failure) -> {
+                    if (failure != null) {
+                        writeFailure = failure.getCause() != null ? failure.getCause() : failure;
+                    }
+                    writesInFlight.release();
+                });
+        }
+
+        private void tileCompleted(long count) {
+            progress.accept((double) tilesDone.addAndGet(count) / totalTiles);
+        }
+
+        /**
+         * Count the full resolution tiles below a tile
+         */
+        private long tilesBelow(int level, int column, int row) {
+            int shift = maxLevel - level;
+            long columns = Math.min((long) (column + 1) << shift, columns(maxLevel)) - ((long) column << shift);
+            long rows = Math.min((long) (row + 1) << shift, rows(maxLevel)) - ((long) row << shift);
+            return columns * rows;
+        }
+
+        private Path tileFile(int level, int column, int row) {
+            return tiles.resolve(Integer.toString(level)).resolve(column + "_" + row + ".png");
+        }
+
+        private int levelSize(int size, int level) {
+            int shift = maxLevel - level;
+            return (int) (((long) size + (1L << shift) - 1) >> shift);
+        }
+
+        private int columns(int level) {
+            return (levelSize(width, level) + TILE_SIZE - 1) / TILE_SIZE;
+        }
+
+        private int rows(int level) {
+            return (levelSize(height, level) + TILE_SIZE - 1) / TILE_SIZE;
+        }
+    }
+}
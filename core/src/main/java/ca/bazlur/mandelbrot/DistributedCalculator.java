@@ -0,0 +1,649 @@
+package ca.bazlur.mandelbrot;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calculates frames on {@link TileWorker}s running in other JVMs, on this machine or on others, so one render can use
+ * the cores of several machines. A frame is split into tiles, dealt in grid order to the workers' own queues in
+ * proportion to their capacity. A worker keeps one tile more than its capacity in flight to hide the round trip; when
+ * its queue runs dry it steals from the tail of the longest queue, and when nothing is left to steal it calculates a
+ * backup copy of a tile that has been in flight for more than twice the average, so neither an expensive tile nor one
+ * slow worker holds up the end of the frame. Frames of concurrent callers share the workers, each worker's queue
+ * holds the tiles of all of them.
+ * <p>
+ * A worker that closes its connection, misses heartbeats for {@value #FAILURE_TIMEOUT_MILLIS} ms or cannot be written
+ * to is dropped and its tiles go back to the queues of the others. Requests are written by a thread of each
+ * connection, so a worker that stops reading holds up neither the others nor the callers; dropped workers are reconnected at the start of a
+ * later frame and their last error is kept for {@link #describeStatistics}. A frame fails only when no worker is left
+ * or a tile fails on {@value #MAX_ATTEMPTS} workers. Workers
+ * calculate exactly the points a local strategy would, so the image does not depend on which worker did which tile.
+ */
+public class DistributedCalculator implements MandelbrotCalculatorStrategy {
+    public static final int DEFAULT_TILE_SIZE = 128;
+    static final int CONNECT_TIMEOUT_MILLIS = 3000;
+    static final int FAILURE_TIMEOUT_MILLIS = 5000;
+    static final long RECONNECT_DELAY_NANOS = 10_000_000_000L;
+    static final int MAX_ATTEMPTS = 3;
+
+    private final List<Worker> workers = new ArrayList<>();
+    private final int tileSize;
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor(); // A reader and a writer each
+
+    // Guarded by this, together with the state of the workers and the jobs
+    private final Set<Job> jobs = new HashSet<>();
+    private long nextId;
+    private long dispatched;
+    private long stolen;
+    private long redispatched;
+    private long backups;
+    private long workersLost;
+
+    /** A tile of a job, by its position in the job's tiles */
+    private record Assignment(Job job, int index) {
+    }
+
+    private record InFlight(Job job, int index, long sentNanos) {
+    }
+
+    /** The connection to one worker, with its queue of tiles of the frames being calculated */
+    private static final class Worker {
+        final InetSocketAddress address;
+        final Deque<Assignment> queue = new ArrayDeque<>();
+        final Map<Long, InFlight> inFlight = new HashMap<>();
+        Socket socket;
+        BlockingQueue<TileProtocol.Request> outbox; // Requests the writer of the connection has not sent yet
+        TileProtocol.Hello hello;
+        boolean alive;
+        boolean connecting;
+        long retryNanos;
+        long completed;
+        String error; // Why the worker was last dropped or could not be reached, or null
+
+        Worker(InetSocketAddress address) {
+            this.address = address;
+        }
+
+        String name() {
+            return address.getHostString() + ":" + address.getPort();
+        }
+    }
+
+    /** A frame being calculated, indexed by the position of the tile in tiles */
+    private static final class Job {
+        final int frameWidth;
+        final int frameHeight;
+        final Tile region;
+        final double centerX;
+        final double centerY;
+        final double zoom;
+        final int maxIterations;
+        final FractalType fractalType;
+        final ComplexNumber parameter;
+        final List<Tile> tiles;
+        final TileListener listener; // May be null
+        final RenderMetrics.Frame frame;
+        final int[][] iterations;
+        final boolean[] done;
+        final int[] copies;
+        final int[] failures;
+        int remaining;
+        long completedNanos;
+        int completedTiles;
+        RuntimeException failure;
+
+        Job(int frameWidth, int frameHeight, Tile region, double centerX, double centerY, double zoom,
+            int maxIterations, FractalType fractalType, ComplexNumber parameter, List<Tile> tiles, TileListener listener,
+            RenderMetrics.Frame frame) {
+            this.frameWidth = frameWidth;
+            this.frameHeight = frameHeight;
+            this.region = region;
+            this.centerX = centerX;
+            this.centerY = centerY;
+            this.zoom = zoom;
+            this.maxIterations = maxIterations;
+            this.fractalType = fractalType;
+            this.parameter = parameter;
+            this.tiles = tiles;
+            this.listener = listener;
+            this.frame = frame;
+            this.iterations = new int[region.width()][region.height()];
+            this.done = new boolean[tiles.size()];
+            this.copies = new int[tiles.size()];
+            this.failures = new int[tiles.size()];
+            this.remaining = tiles.size();
+        }
+
+        TileProtocol.Request request(long id, int index) {
+            Tile tile = tiles.get(index);
+            return new TileProtocol.Request(id, fractalType, parameter, frameWidth, frameHeight,
+                                            new Tile(region.x() + tile.x(), region.y() + tile.y(), tile.width(), tile.height()),
+                                            centerX, centerY, zoom, maxIterations);
+        }
+    }
+
+    /**
+     * Connect to the workers
+     * @param tileSize The width and height of the tiles sent to workers
+     * @throws IOException If none of the workers can be reached
+     */
+    public DistributedCalculator(List<InetSocketAddress> addresses, int tileSize) throws IOException {
+        this.tileSize = tileSize;
+        IOException failure = null;
+        for (InetSocketAddress address : addresses) {
+            Worker worker = new Worker(address);
+            workers.add(worker);
+            try {
+                connect(worker);
+            } catch (IOException e) {
+                worker.error = "not reachable: " + e; // Retried at the first frame
+                failure = e;
+            }
+        }
+        if (workers.stream().noneMatch(worker -> worker.alive)) {
+            close();
+            throw new IOException("No tile worker is reachable", failure);
+        }
+    }
+
+    @Override
+    public int[][] calculateIterations(int width, int height, double centerX, double centerY, double zoom, int maxIterations) {
+        return calculateIterations(width, height, centerX, centerY, zoom, maxIterations, new MandelbrotFractal());
+    }
+
+    @Override
+    public int[][] calculateIterations(int width, int height, double centerX, double centerY, double zoom,
+                                       int maxIterations, Fractal fractal) {
+        return calculateRegion(width, height, new Tile(0, 0, width, height), centerX, centerY, zoom, maxIterations, fractal);
+    }
+
+    @Override
+    public int[][] calculateIterations(int width, int height, double centerX, double centerY, double zoom, int maxIterations,
+                                       Fractal fractal, double focusX, double focusY, TileListener listener) {
+        List<Tile> tiles = Tile.nearestFirst(Tile.grid(width, height, tileSize), focusX, focusY);
+        return calculate(width, height, new Tile(0, 0, width, height), centerX, centerY, zoom, maxIterations, fractal,
+                         tiles, listener);
+    }
+
+    @Override
+    public int[][] calculateRegion(int frameWidth, int frameHeight, Tile region, double centerX, double centerY,
+                                   double zoom, int maxIterations, Fractal fractal) {
+        // Grid order: probing the cost here would take a local core for a while, stealing and backups even out the end
+        return calculate(frameWidth, frameHeight, region, centerX, centerY, zoom, maxIterations, fractal,
+                         Tile.grid(region.width(), region.height(), tileSize), null);
+    }
+
+    /**
+     * Continue a previous calculation in this JVM, the orbits it continues from are not on the workers
+     */
+    @Override
+    public int[][] calculateIterations(IterationState state, int maxIterations) {
+        RenderMetrics.Frame frame = RenderMetrics.get().frameStarted((long) state.getWidth() * state.getHeight());
+        frame.tilesQueued(1);
+        TileTimer timer = new TileTimer(frame);
+        long total = state.advanceRows(0, state.getHeight(), maxIterations, frame);
+        timer.finish(state.getFractal(), state.getZoom(), maxIterations, getType(), 0, 0, state.getWidth(),
+                     state.getHeight(), total);
+        state.complete(maxIterations);
+        frame.completed();
+        return state.getIterations();
+    }
+
+    private int[][] calculate(int frameWidth, int frameHeight, Tile region, double centerX, double centerY, double zoom,
+                              int maxIterations, Fractal fractal, List<Tile> tiles, TileListener listener) {
+        FractalType fractalType = FractalType.of(fractal);
+        ComplexNumber parameter = fractal instanceof JuliaFractal julia ? julia.getParameter() : null;
+        reconnect();
+        RenderMetrics.Frame frame = RenderMetrics.get().frameStarted(region.pixels());
+        frame.tilesQueued(tiles.size());
+        Job current = new Job(frameWidth, frameHeight, region, centerX, centerY, zoom, maxIterations, fractalType,
+                              parameter, tiles, listener, frame);
+        synchronized (this) {
+            if (workers.stream().noneMatch(worker -> worker.alive)) {
+                throw new UncheckedIOException(new IOException("No tile worker is reachable"));
+            }
+            jobs.add(current);
+            deal(current);
+            try {
+                dispatch();
+                while (current.remaining > 0 && current.failure == null) {
+                    // Wake up now and then to start backups of tiles that became overdue
+                    wait(TileProtocol.HEARTBEAT_MILLIS);
+                    if (current.listener != null && current.listener.isCancelled()) {
+                        current.failure = new CancellationException("Calculation cancelled");
+                        break;
+                    }
+                    dispatch();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } finally {
+                jobs.remove(current);
+                for (Worker worker : workers) {
+                    worker.queue.removeIf(queued -> queued.job() == current);
+                }
+            }
+            if (current.failure != null) {
+                throw current.failure;
+            }
+        }
+        frame.completed();
+        return current.iterations;
+    }
+
+    /**
+     * Deal the tiles in order to the workers, each getting a share in proportion to its capacity
+     */
+    private void deal(Job job) {
+        for (int index = 0; index < job.tiles.size(); index++) {
+            Worker least = null;
+            for (Worker worker : workers) {
+                if (worker.alive && (least == null || (worker.queue.size() + 1.0) / worker.hello.capacity()
+                    < (least.queue.size() + 1.0) / least.hello.capacity())) {
+                    least = worker;
+                }
+            }
+            least.queue.addLast(new Assignment(job, index));
+        }
+    }
+
+    private void dispatch() {
+        for (Worker worker : workers) {
+            fill(worker);
+        }
+    }
+
+    private void fill(Worker worker) {
+        while (worker.alive && worker.inFlight.size() <= worker.hello.capacity()) {
+            Assignment next = next(worker);
+            if (next == null) {
+                return;
+            }
+            send(worker, next);
+        }
+    }
+
+    /**
+     * Check if a tile still has to be calculated: its job is running and no copy of it completed
+     */
+    private boolean isPending(Job job, int index) {
+        return jobs.contains(job) && job.failure == null && !job.done[index];
+    }
+
+    /**
+     * Pick the next tile for a worker: its own, else one stolen from the longest queue, else a backup of an overdue one
+     */
+    private Assignment next(Worker worker) {
+        for (Assignment queued = worker.queue.pollFirst(); queued != null; queued = worker.queue.pollFirst()) {
+            if (isPending(queued.job(), queued.index())) {
+                return queued;
+            }
+        }
+
+        while (true) {
+            Worker victim = null;
+            for (Worker other : workers) {
+                if (other.alive && !other.queue.isEmpty() && (victim == null || other.queue.size() > victim.queue.size())) {
+                    victim = other;
+                }
+            }
+            if (victim == null) {
+                break;
+            }
+            Assignment queued = victim.queue.pollLast();
+            if (isPending(queued.job(), queued.index())) {
+                stolen++;
+                return queued;
+            }
+        }
+
+        long now = System.nanoTime();
+        InFlight oldest = null;
+        for (Worker other : workers) {
+            if (other == worker || !other.alive) {
+                continue;
+            }
+            for (InFlight sent : other.inFlight.values()) {
+                Job job = sent.job();
+                if (isPending(job, sent.index()) && job.copies[sent.index()] == 1 && job.completedTiles > 0
+                    && sent.sentNanos() < now - 2 * job.completedNanos / job.completedTiles
+                    && (oldest == null || sent.sentNanos() < oldest.sentNanos())) {
+                    oldest = sent;
+                }
+            }
+        }
+        if (oldest == null) {
+            return null;
+        }
+        backups++;
+        return new Assignment(oldest.job(), oldest.index());
+    }
+
+    private void send(Worker worker, Assignment assignment) {
+        Job job = assignment.job();
+        long id = nextId++;
+        worker.inFlight.put(id, new InFlight(job, assignment.index(), System.nanoTime()));
+        job.copies[assignment.index()]++;
+        dispatched++;
+        worker.outbox.add(job.request(id, assignment.index()));
+    }
+
+    /**
+     * Put a tile back at the front of the shortest queue, of another worker than the one it came from if possible
+     */
+    private void requeue(Assignment assignment, Worker from) {
+        Worker shortest = null;
+        for (Worker worker : workers) {
+            if (worker.alive && (shortest == null || (shortest == from && worker != from)
+                || (worker != from && worker.queue.size() < shortest.queue.size()))) {
+                shortest = worker;
+            }
+        }
+        if (shortest != null) {
+            shortest.queue.addFirst(assignment);
+        }
+    }
+
+    private void reconnect() {
+        List<Worker> dropped = new ArrayList<>();
+        synchronized (this) {
+            for (Worker worker : workers) {
+                // Concurrent callers leave a worker to the one that is already connecting it
+                if (!worker.alive && !worker.connecting && System.nanoTime() - worker.retryNanos >= 0) {
+                    worker.connecting = true;
+                    dropped.add(worker);
+                }
+            }
+        }
+        for (Worker worker : dropped) {
+            try {
+                connect(worker);
+            } catch (IOException e) {
+                unreachable(worker, e);
+            } finally {
+                synchronized (this) {
+                    worker.connecting = false;
+                }
+            }
+        }
+    }
+
+    private synchronized void unreachable(Worker worker, IOException cause) {
+        worker.retryNanos = System.nanoTime() + RECONNECT_DELAY_NANOS;
+        worker.error = "not reachable: " + cause;
+    }
+
+    private void connect(Worker worker) throws IOException {
+        Socket socket = new Socket();
+        try {
+            // Resolved on every attempt, so a worker restarted under the same name is found again
+            socket.connect(new InetSocketAddress(worker.address.getHostString(), worker.address.getPort()),
+                           CONNECT_TIMEOUT_MILLIS);
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(FAILURE_TIMEOUT_MILLIS);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            TileProtocol.Hello hello = TileProtocol.readHello(in);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            BlockingQueue<TileProtocol.Request> outbox = new LinkedBlockingQueue<>();
+            synchronized (this) {
+                worker.socket = socket;
+                worker.outbox = outbox;
+                worker.hello = hello;
+                worker.alive = true;
+            }
+            connections.submit(() -> read(worker, socket, in));
+            connections.submit(() -> write(worker, socket, out, outbox));
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    private void read(Worker worker, Socket socket, DataInputStream in) {
+        try {
+            while (true) {
+                int type = TileProtocol.readType(in);
+                if (type == TileProtocol.HEARTBEAT) {
+                    continue;
+                }
+                long id = in.readLong();
+                if (type == TileProtocol.RESULT) {
+                    completed(worker, id, TileProtocol.readResult(in));
+                } else if (type == TileProtocol.FAILED) {
+                    failed(worker, id, in.readUTF());
+                } else {
+                    throw new IOException("Unexpected message " + type);
+                }
+            }
+        } catch (IOException e) {
+            lost(worker, socket, e);
+        } catch (RuntimeException e) {
+            lost(worker, socket, new IOException("Invalid message from tile worker", e));
+        }
+    }
+
+    /**
+     * Send the requests of a connection in order; a blocked write ends when the reader drops the worker
+     * for missing heartbeats, which closes the socket
+     */
+    private void write(Worker worker, Socket socket, DataOutputStream out, BlockingQueue<TileProtocol.Request> outbox) {
+        try {
+            while (!socket.isClosed()) {
+                TileProtocol.Request request = outbox.poll(TileProtocol.HEARTBEAT_MILLIS, TimeUnit.MILLISECONDS);
+                if (request != null) {
+                    TileProtocol.writeRequest(out, request);
+                }
+            }
+        } catch (IOException e) {
+            lost(worker, socket, e);
+        } catch (InterruptedException e) {
+            // Closing
+        }
+    }
+
+    /**
+     * @throws IOException If the result does not have the size of the tile it answers
+     */
+    private void completed(Worker worker, long id, int[][] result) throws IOException {
+        Job finished;
+        Tile tile;
+        synchronized (this) {
+            InFlight sent = worker.inFlight.get(id);
+            if (sent == null) {
+                return;
+            }
+            finished = sent.job();
+            int index = sent.index();
+            tile = finished.tiles.get(index);
+            if (result.length != tile.width() || (result.length > 0 && result[0].length != tile.height())) {
+                // Still in flight, so dropping the worker hands the tile to another
+                throw new IOException("Result " + id + " does not have the size of tile " + tile);
+            }
+            worker.inFlight.remove(id);
+            finished.copies[index]--;
+            if (!isPending(finished, index)) {
+                fill(worker);
+                return;
+            }
+            long total = 0;
+            for (int x = 0; x < tile.width(); x++) {
+                System.arraycopy(result[x], 0, finished.iterations[tile.x() + x], tile.y(), tile.height());
+                for (int count : result[x]) {
+                    total += count;
+                }
+            }
+            finished.done[index] = true;
+            finished.completedTiles++;
+            finished.completedNanos += System.nanoTime() - sent.sentNanos();
+            worker.completed++;
+            finished.frame.pixelsCompleted(tile.pixels());
+            finished.frame.tileCompleted(total);
+            fill(worker);
+        }
+        RuntimeException failure = null;
+        if (finished.listener != null) {
+            try {
+                finished.listener.tileCompleted(tile, finished.iterations);
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+        synchronized (this) {
+            // Counted only once the listener has the tile, so the caller never returns before its last tile arrived
+            finished.remaining--;
+            if (failure != null && finished.failure == null) {
+                finished.failure = failure;
+            }
+            if (finished.remaining == 0 || finished.failure != null) {
+                notifyAll();
+            }
+        }
+    }
+
+    private synchronized void failed(Worker worker, long id, String message) {
+        InFlight sent = worker.inFlight.remove(id);
+        if (sent == null) {
+            return;
+        }
+        Job failing = sent.job();
+        int index = sent.index();
+        failing.copies[index]--;
+        if (isPending(failing, index)) {
+            if (++failing.failures[index] >= MAX_ATTEMPTS) {
+                failing.failure = new IllegalStateException("Tile " + failing.tiles.get(index) + " failed "
+                                                            + MAX_ATTEMPTS + " times, last on " + worker.name()
+                                                            + ": " + message);
+                notifyAll();
+            } else if (failing.copies[index] == 0) {
+                redispatched++;
+                requeue(new Assignment(failing, index), worker);
+            }
+        }
+        dispatch();
+    }
+
+    /**
+     * Drop a worker whose connection failed and hand its tiles to the others
+     */
+    private synchronized void lost(Worker worker, Socket socket, IOException cause) {
+        if (!worker.alive || worker.socket != socket) {
+            return;
+        }
+        worker.alive = false;
+        worker.retryNanos = System.nanoTime() + RECONNECT_DELAY_NANOS;
+        worker.error = "dropped: " + cause;
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Dropped anyway
+        }
+        workersLost++;
+
+        List<Assignment> orphans = new ArrayList<>(worker.queue);
+        worker.queue.clear();
+        for (InFlight sent : worker.inFlight.values()) {
+            Job job = sent.job();
+            job.copies[sent.index()]--;
+            if (isPending(job, sent.index()) && job.copies[sent.index()] == 0) {
+                orphans.add(new Assignment(job, sent.index()));
+                redispatched++;
+            }
+        }
+        worker.inFlight.clear();
+        if (workers.stream().noneMatch(other -> other.alive)) {
+            for (Job job : jobs) {
+                if (job.failure == null) {
+                    job.failure = new UncheckedIOException("All tile workers failed", cause);
+                }
+            }
+            notifyAll();
+            return;
+        }
+        for (Assignment orphan : orphans) {
+            requeue(orphan, worker);
+        }
+        dispatch();
+    }
+
+    /**
+     * Describe how the tiles were distributed so far, for logs and load tests
+     */
+    public synchronized String describeStatistics() {
+        StringBuilder statistics = new StringBuilder(String.format(
+            "%d tiles dispatched, %d stolen, %d re-dispatched, %d backups, %d workers dropped",
+            dispatched, stolen, redispatched, backups, workersLost));
+        for (Worker worker : workers) {
+            statistics.append(String.format("%n  %s %s, %d tiles", worker.name(), worker.alive ? "up" : "down",
+                                            worker.completed));
+            if (worker.error != null) {
+                statistics.append(", last ").append(worker.error);
+            }
+        }
+        return statistics.toString();
+    }
+
+    @Override
+    public StrategyType getType() {
+        // The strategy the workers calculate with
+        synchronized (this) {
+            for (Worker worker : workers) {
+                if (worker.hello != null) {
+                    return worker.hello.strategy();
+                }
+            }
+        }
+        return StrategyType.EXECUTOR_SERVICE;
+    }
+
+    @Override
+    public synchronized String describeConfiguration() {
+        int alive = 0;
+        int capacity = 0;
+        for (Worker worker : workers) {
+            if (worker.alive) {
+                alive++;
+                capacity += worker.hello.capacity();
+            }
+        }
+        return String.format("Distributed, %d of %d workers, %d threads, %dpx tiles", alive, workers.size(), capacity,
+                             tileSize);
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            for (Worker worker : workers) {
+                worker.alive = false;
+                if (worker.socket != null) {
+                    try {
+                        worker.socket.close();
+                    } catch (IOException e) {
+                        // Closing anyway
+                    }
+                }
+            }
+        }
+        connections.shutdownNow();
+    }
+}
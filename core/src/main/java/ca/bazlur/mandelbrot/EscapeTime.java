@@ -0,0 +1,60 @@
+package ca.bazlur.mandelbrot;
+
+import java.util.function.ToDoubleFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * The escape-time loop shared by the fractals.
+ * Iterations run in batches with a single escape check per batch; a batch that escaped
+ * is rolled back and finished one step at a time, so the counts match a step-by-step loop.
+ */
+final class EscapeTime {
+    static final double ESCAPE_RADIUS_SQUARED = 256.0;
+    static final int ESCAPE_CHECK_INTERVAL = 8;
+
+    /**
+     * The state of a point after iterating
+     * @param z The final orbit state
+     * @param iterations The number of iterations before escaping
+     */
+    record Orbit<S>(S z, int iterations) {
+    }
+
+    private EscapeTime() {
+    }
+
+    /**
+     * Iterate z, which has already taken the given iterations, until it escapes or reaches maxIterations
+     */
+    static Orbit<ComplexNumber> iterate(ComplexNumber z, int iterations, int maxIterations,
+                                        UnaryOperator<ComplexNumber> step) {
+        return iterate(z, iterations, maxIterations, step, ComplexNumber::magnitudeSquared);
+    }
+
+    /**
+     * Iterate a state that carries more than z, such as previous values of the orbit
+     * @param magnitudeSquared The squared magnitude of z in the state
+     */
+    static <S> Orbit<S> iterate(S z, int iterations, int maxIterations,
+                                UnaryOperator<S> step, ToDoubleFunction<S> magnitudeSquared) {
+        while (maxIterations - iterations >= ESCAPE_CHECK_INTERVAL) {
+            S saved = z;
+            boolean bounded = true;
+            for (int i = 0; i < ESCAPE_CHECK_INTERVAL; i++) {
+                bounded &= magnitudeSquared.applyAsDouble(z) < ESCAPE_RADIUS_SQUARED;
+                z = step.apply(z);
+            }
+            if (!bounded) {
+                z = saved;
+                break;
+            }
+            iterations += ESCAPE_CHECK_INTERVAL;
+        }
+
+        while (magnitudeSquared.applyAsDouble(z) < ESCAPE_RADIUS_SQUARED && iterations < maxIterations) {
+            z = step.apply(z);
+            iterations++;
+        }
+        return new Orbit<>(z, iterations);
+    }
+}
@@ -0,0 +1,194 @@
+package ca.bazlur.mandelbrot;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+
+/**
+ * An exponential map of a zoom into one point: a single strip in log-polar coordinates whose columns are the angles
+ * around the point and whose rows are radii shrinking by a constant factor, from the corners of the first frame to
+ * half a pixel of the last. The strip is calculated once with any strategy; every frame of the zoom is then
+ * resampled from it, so an animation of N frames costs one calculation plus N cheap reprojections.
+ * <p>
+ * The strip has about π times the frame diagonal columns, enough for one sample per pixel at the frame corners and
+ * more towards the center. It lives in a {@link SegmentFrame}, off the heap or mapped onto a file, since a deep zoom
+ * makes it hundreds of megabytes.
+ */
+public class ExponentialMap implements AutoCloseable {
+    private final Arena arena;
+    private final SegmentFrame strip;
+    private final int frameWidth;
+    private final int frameHeight;
+    private final double startZoom;
+    private final double endZoom;
+    private final double outerRadius;
+    private final double step;
+    private final int maxIterations;
+    // Column and log radius in rows of every frame pixel, the same for every zoom up to a row offset
+    private final double[] pixelColumns;
+    private final double[] pixelRows;
+
+    private ExponentialMap(Arena arena, SegmentFrame strip, int frameWidth, int frameHeight, double startZoom,
+                           double endZoom, double outerRadius, double step, int maxIterations) {
+        this.arena = arena;
+        this.strip = strip;
+        this.frameWidth = frameWidth;
+        this.frameHeight = frameHeight;
+        this.startZoom = startZoom;
+        this.endZoom = endZoom;
+        this.outerRadius = outerRadius;
+        this.step = step;
+        this.maxIterations = maxIterations;
+        // Where every frame pixel lies in the strip at zoom 1; other zooms only shift the rows
+        this.pixelRows = new double[frameWidth * frameHeight];
+        this.pixelColumns = new double[pixelRows.length];
+        for (int y = 0; y < frameHeight; y++) {
+            for (int x = 0; x < frameWidth; x++) {
+                double dx = x - frameWidth / 2.0;
+                double dy = y - frameHeight / 2.0;
+                double angle = Math.atan2(dy, dx);
+                pixelColumns[y * frameWidth + x] = (angle < 0 ? angle + 2 * Math.PI : angle) / step;
+                // The exact center has no angle, it takes the innermost row
+                pixelRows[y * frameWidth + x] = dx == 0 && dy == 0 ? Double.NEGATIVE_INFINITY : Math.log(Math.hypot(dx, dy)) / step;
+            }
+        }
+    }
+
+    /**
+     * Calculate the exponential map of a zoom from startZoom to endZoom into a point
+     * @param storage File to map the strip onto, or null to keep it in off-heap memory
+     * @param progress Receives the calculated fraction of the strip
+     */
+    public static ExponentialMap render(MandelbrotCalculatorStrategy calculator, Path storage, int frameWidth,
+                                        int frameHeight, double centerX, double centerY, double startZoom,
+                                        double endZoom, int maxIterations, Fractal fractal,
+                                        DoubleConsumer progress) throws IOException {
+        if (startZoom <= 0 || endZoom < startZoom) {
+            throw new IllegalArgumentException("An exponential map zooms in, the end zoom must not be below the start zoom");
+        }
+        int columns = (int) Math.ceil(Math.PI * Math.hypot(frameWidth, frameHeight));
+        double step = 2 * Math.PI / columns;
+        double outerRadius = Math.hypot(frameWidth, frameHeight) / 2 / startZoom;
+        double innerRadius = 0.5 / endZoom;
+        int rows = (int) Math.ceil(Math.log(outerRadius / innerRadius) / step) + 1;
+
+        Arena arena = Arena.ofShared(); // Frames are resampled on several threads
+        try {
+            SegmentFrame strip = storage == null
+                ? SegmentFrame.allocate(arena, columns, rows)
+                : SegmentFrame.map(arena, storage, columns, rows);
+            Fractal logPolar = new LogPolarFractal(fractal, centerX, centerY, outerRadius, step);
+            calculator.calculateInto(strip, columns / 2.0, rows / 2.0, 1, maxIterations, logPolar, progress);
+            return new ExponentialMap(arena, strip, frameWidth, frameHeight, startZoom, endZoom, outerRadius, step,
+                                      maxIterations);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Resample the frame at a zoom between the start and end zoom
+     * @param colors The color of every iteration count, see {@link ColorPalette#getArgbTable}
+     * @return The ARGB pixels of the frame, row by row
+     */
+    public int[] project(double zoom, int[] colors) {
+        int columns = strip.getWidth();
+        int lastRow = strip.getHeight() - 1;
+        double rowOffset = Math.log(outerRadius * zoom) / step;
+        int[] argb = new int[frameWidth * frameHeight];
+        for (int i = 0; i < argb.length; i++) {
+            double row = Math.max(0, Math.min(lastRow, rowOffset - pixelRows[i]));
+            double column = pixelColumns[i];
+            int row0 = (int) row;
+            int row1 = Math.min(row0 + 1, lastRow);
+            int column0 = (int) column % columns;
+            int column1 = (column0 + 1) % columns;
+            double fx = column - (int) column;
+            double fy = row - row0;
+            argb[i] = blend(
+                blend(colors[strip.get(column0, row0)], colors[strip.get(column1, row0)], fx),
+                blend(colors[strip.get(column0, row1)], colors[strip.get(column1, row1)], fx), fy);
+        }
+        return argb;
+    }
+
+    private static int blend(int color1, int color2, double fraction) {
+        if (color1 == color2 || fraction == 0) {
+            return color1;
+        }
+        int blended = 0;
+        for (int shift = 0; shift < 32; shift += 8) {
+            int c1 = (color1 >>> shift) & 0xFF;
+            int c2 = (color2 >>> shift) & 0xFF;
+            blended |= (int) Math.round(c1 + (c2 - c1) * fraction) << shift;
+        }
+        return blended;
+    }
+
+    /**
+     * Write the zoom as numbered PNG frames ({@code frame_00000.png}, ...), the zoom growing by the same factor
+     * every frame. Frames are resampled and encoded in parallel; frames already written are skipped.
+     * @param progress Receives the number of frames written so far
+     */
+    public void writeFrames(Path directory, int frames, ColorPalette palette, IntConsumer progress) throws IOException {
+        Files.createDirectories(directory);
+        int[] colors = palette.getArgbTable(maxIterations);
+        AtomicInteger written = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < frames; i++) {
+                int index = i;
+                results.add(workers.submit(() -> {
+                    Path file = ZoomAnimation.frameFile(directory, index);
+                    if (!Files.exists(file)) {
+                        double zoom = frames == 1 ? endZoom : startZoom * Math.pow(endZoom / startZoom, (double) index / (frames - 1));
+                        ZoomAnimation.write(file, project(zoom, colors), null, frameWidth, frameHeight);
+                    }
+                    progress.accept(written.incrementAndGet());
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Writing a frame failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Writing frames interrupted", e);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    public int getColumns() {
+        return strip.getWidth();
+    }
+
+    public int getRows() {
+        return strip.getHeight();
+    }
+
+    /**
+     * Release the strip; a mapped strip file stays on disk
+     */
+    @Override
+    public void close() {
+        arena.close();
+    }
+}
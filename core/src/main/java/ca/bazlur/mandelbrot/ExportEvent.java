@@ -0,0 +1,38 @@
+package ca.bazlur.mandelbrot;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("ca.bazlur.mandelbrot.Export")
+@Label("Export Encode/Write")
+@Description("Encoding an exported image and writing it to disk")
+public class ExportEvent extends RenderEvent {
+    @Label("File")
+    String file;
+
+    @Label("Format")
+    String format;
+
+    @Label("Width")
+    int width;
+
+    @Label("Height")
+    int height;
+
+    @Label("File Size")
+    @DataAmount
+    long bytes;
+
+    /**
+     * Describe the file that was written
+     */
+    public void describeFile(String file, String format, int width, int height, long bytes) {
+        this.file = file;
+        this.format = format;
+        this.width = width;
+        this.height = height;
+        this.bytes = bytes;
+    }
+}
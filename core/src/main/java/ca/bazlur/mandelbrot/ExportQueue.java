@@ -0,0 +1,297 @@
+package ca.bazlur.mandelbrot;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs image exports in the background, as many at a time as the concurrency limit allows.
+ * Every job is a {@link RenderCheckpoint}, so queued and interrupted jobs survive a restart and
+ * a failed attempt is retried from where it stopped, up to {@value #MAX_ATTEMPTS} attempts.
+ * Jobs run with a calculator of their own on at most half the cores together, so interactive rendering keeps
+ * the other half, and several small jobs share their cores instead of each one synchronizing all of them per strip.
+ */
+public class ExportQueue implements AutoCloseable {
+    public static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_MILLIS = 2_000;
+    // Thread priorities are ignored on Linux, so background work is kept off the interactive cores by count
+    private static final int CORE_SHARE_DIVISOR = 2;
+
+    public enum Status {
+        QUEUED, RUNNING, DONE, FAILED
+    }
+
+    /**
+     * An export and how far it got, updated by the worker running it
+     */
+    public static class Job {
+        private final ExportSpec spec;
+        private volatile RenderCheckpoint checkpoint;
+        private volatile Status status = Status.QUEUED;
+        private volatile double progress;
+        private volatile int attempts;
+        private volatile String error;
+        private volatile long elapsedNanos;
+
+        Job(RenderCheckpoint checkpoint) {
+            this.spec = checkpoint.getSpec();
+            this.checkpoint = checkpoint;
+            this.progress = checkpoint.completedFraction();
+        }
+
+        public ExportSpec getSpec() {
+            return spec;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public double getProgress() {
+            return progress;
+        }
+
+        public int getAttempts() {
+            return attempts;
+        }
+
+        /**
+         * @return The message of the last failed attempt, or null
+         */
+        public String getError() {
+            return error;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+    }
+
+    private final Path root;
+    private final int threadsPerJob;
+    private final ExecutorService workers;
+    private final Consumer<Job> listener;
+    private final List<Job> jobs = new CopyOnWriteArrayList<>();
+    private final Queue<String> errors = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param root The directory holding the checkpoints of the jobs
+     * @param concurrency How many jobs run at the same time, they share half the cores
+     * @param listener Called from a worker thread whenever a job changes status or makes progress
+     */
+    public ExportQueue(Path root, int concurrency, Consumer<Job> listener) {
+        this.root = root;
+        int cores = Math.max(1, Runtime.getRuntime().availableProcessors() / CORE_SHARE_DIVISOR);
+        this.threadsPerJob = Math.max(1, cores / concurrency);
+        this.workers = Executors.newFixedThreadPool(concurrency, daemonThreads("export-worker"));
+        this.listener = listener;
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Queue a new export
+     */
+    public Job submit(ExportSpec spec) throws IOException {
+        return enqueue(RenderCheckpoint.create(root, spec));
+    }
+
+    /**
+     * Queue the jobs that a previous session did not finish, continuing from their checkpoints
+     * @return The jobs queued, jobs whose checkpoint cannot be read are skipped and reported by {@link #drainErrors}
+     */
+    public List<Job> resumeUnfinished() throws IOException {
+        List<Job> resumed = new ArrayList<>();
+        for (Path directory : RenderCheckpoint.findUnfinished(root)) {
+            try {
+                resumed.add(enqueue(RenderCheckpoint.open(directory)));
+            } catch (IOException | IllegalArgumentException e) {
+                errors.add("Skipped unreadable checkpoint " + directory + ": " + describe(e));
+            }
+        }
+        return resumed;
+    }
+
+    private Job enqueue(RenderCheckpoint checkpoint) {
+        Job job = new Job(checkpoint);
+        jobs.add(job);
+        listener.accept(job);
+        workers.execute(() -> run(job));
+        return job;
+    }
+
+    private void run(Job job) {
+        long start = System.nanoTime();
+        job.status = Status.RUNNING;
+        listener.accept(job);
+        try (MandelbrotCalculatorStrategy calculator = new MandelbrotCalculator(
+                threadsPerJob, MandelbrotCalculator.TILE_SIZE, daemonThreads("export-render"))) {
+            StripExporter exporter = new StripExporter(calculator, new ColorPalette(job.spec.palette()));
+            ExportEvent event = null;
+            while (job.status == Status.RUNNING) {
+                job.attempts++;
+                event = new ExportEvent();
+                event.begin();
+                try {
+                    exporter.export(job.checkpoint, progress -> {
+                        job.progress = progress;
+                        listener.accept(job);
+                    });
+                    job.status = Status.DONE;
+                } catch (IOException | RuntimeException e) {
+                    job.error = describe(e);
+                    job.checkpoint.close();
+                    if (job.attempts >= MAX_ATTEMPTS) {
+                        job.status = Status.FAILED; // The checkpoint stays, the job is resumed on the next start
+                    } else {
+                        Thread.sleep(RETRY_DELAY_MILLIS * job.attempts);
+                        // Reopening drops whatever the failed attempt left half written
+                        job.checkpoint = RenderCheckpoint.open(job.checkpoint.getDirectory());
+                    }
+                }
+            }
+            if (job.status == Status.DONE) {
+                finish(job, event);
+            }
+        } catch (IOException e) {
+            job.error = describe(e);
+            job.status = Status.FAILED;
+        } catch (InterruptedException e) {
+            job.status = Status.FAILED;
+            job.error = "Interrupted";
+            Thread.currentThread().interrupt();
+        } finally {
+            job.elapsedNanos = System.nanoTime() - start;
+            listener.accept(job);
+        }
+    }
+
+    /**
+     * Record a finished export and delete its checkpoint. The image is complete by now, so a failure
+     * here does not fail the job or retry it, it is reported by {@link #drainErrors}
+     */
+    private void finish(Job job, ExportEvent event) {
+        try {
+            commit(event, job.spec);
+        } catch (IOException | RuntimeException e) {
+            errors.add("Could not record the export of " + job.spec.output() + ": " + describe(e));
+        }
+        try {
+            job.checkpoint.delete();
+        } catch (IOException | RuntimeException e) {
+            errors.add("Could not delete the checkpoint of " + job.spec.output() + ": " + describe(e));
+        }
+    }
+
+    private static String describe(Exception e) {
+        return e.getClass().getSimpleName() + (e.getMessage() != null ? ": " + e.getMessage() : "");
+    }
+
+    private static void commit(ExportEvent event, ExportSpec spec) throws IOException {
+        event.end();
+        if (event.shouldCommit()) {
+            event.describe(spec.createFractal(), spec.zoom(), spec.maxIterations(),
+                           MandelbrotCalculatorStrategy.StrategyType.EXECUTOR_SERVICE);
+            event.describeFile(spec.output().toString(), spec.format(), spec.width(), spec.height(),
+                               Files.size(spec.output()));
+            event.commit();
+        }
+    }
+
+    public List<Job> getJobs() {
+        return List.copyOf(jobs);
+    }
+
+    /**
+     * Take the problems reported since the last call that are not a failed job,
+     * such as checkpoints that could not be resumed or deleted
+     */
+    public List<String> drainErrors() {
+        List<String> drained = new ArrayList<>();
+        for (String error = errors.poll(); error != null; error = errors.poll()) {
+            drained.add(error);
+        }
+        return drained;
+    }
+
+    /**
+     * Check if no job is queued or running
+     */
+    public boolean isIdle() {
+        return jobs.stream().allMatch(job -> job.status == Status.DONE || job.status == Status.FAILED);
+    }
+
+    /**
+     * Forget the jobs that are done or failed, failed ones are still resumed on the next start
+     */
+    public void clearFinished() {
+        jobs.removeIf(job -> job.status == Status.DONE || job.status == Status.FAILED);
+    }
+
+    /**
+     * Summarize the jobs: how many succeeded, failed or needed retries, and the throughput of the finished ones
+     */
+    public String summary() {
+        int done = 0, failed = 0, retried = 0, pending = 0;
+        long pixels = 0;
+        long nanos = 0;
+        for (Job job : jobs) {
+            switch (job.status) {
+                case DONE -> {
+                    done++;
+                    pixels += (long) job.spec.width() * job.spec.height();
+                    nanos += job.elapsedNanos;
+                }
+                case FAILED -> failed++;
+                default -> pending++;
+            }
+            if (job.attempts > 1) {
+                retried++;
+            }
+        }
+        return String.format("%d done, %d failed, %d pending, %d retried | %.1f Mpixels in %.1f s of job time (%.2f Mpixels/s)",
+                             done, failed, pending, retried, pixels / 1e6, nanos / 1e9,
+                             nanos == 0 ? 0 : pixels / 1e6 / (nanos / 1e9));
+    }
+
+    /**
+     * Write one CSV line per job: output, size, status, attempts, seconds and the last error
+     */
+    public void writeReport(Path file) throws IOException {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file))) {
+            writer.println("output,width,height,max_iterations,status,attempts,seconds,error");
+            for (Job job : jobs) {
+                writer.printf("\"%s\",%d,%d,%d,%s,%d,%.3f,\"%s\"%n",
+                    job.spec.output().toString().replace("\"", "\"\""), job.spec.width(), job.spec.height(),
+                    job.spec.maxIterations(), job.status, job.attempts, job.elapsedNanos / 1e9,
+                    job.error == null || job.status == Status.DONE ? "" : job.error.replace("\"", "\"\""));
+            }
+        }
+    }
+
+    /**
+     * Stop the workers, unfinished jobs keep their checkpoints
+     */
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+}
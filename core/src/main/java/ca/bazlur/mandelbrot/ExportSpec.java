@@ -0,0 +1,84 @@
+package ca.bazlur.mandelbrot;
+
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Everything needed to render an image file again later: the view, the fractal and its parameter, and the colors
+ * @param parameter The fractal's parameter for fractals that require one, otherwise null
+ */
+public record ExportSpec(Path output, String format, int width, int height, double centerX, double centerY,
+                         double zoom, int maxIterations, FractalType fractalType, ComplexNumber parameter,
+                         ColorPalette.PaletteType palette) {
+
+    /**
+     * Describe an export of a fractal as it is configured now
+     */
+    public static ExportSpec of(Path output, String format, int width, int height, double centerX, double centerY,
+                                double zoom, int maxIterations, Fractal fractal, ColorPalette.PaletteType palette) {
+        ComplexNumber parameter = fractal instanceof JuliaFractal julia ? julia.getParameter() : null;
+        return new ExportSpec(output, format, width, height, centerX, centerY, zoom, maxIterations,
+                              FractalType.of(fractal), parameter, palette);
+    }
+
+    /**
+     * Create a new instance of the fractal, with its parameter
+     */
+    public Fractal createFractal() {
+        Fractal fractal = fractalType.create();
+        if (parameter != null) {
+            fractal.setParameter(parameter);
+        }
+        return fractal;
+    }
+
+    public Properties toProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("output", output.toAbsolutePath().toString());
+        properties.setProperty("format", format);
+        properties.setProperty("width", Integer.toString(width));
+        properties.setProperty("height", Integer.toString(height));
+        properties.setProperty("centerX", Double.toString(centerX));
+        properties.setProperty("centerY", Double.toString(centerY));
+        properties.setProperty("zoom", Double.toString(zoom));
+        properties.setProperty("maxIterations", Integer.toString(maxIterations));
+        properties.setProperty("fractal", fractalType.name());
+        if (parameter != null) {
+            properties.setProperty("parameterReal", Double.toString(parameter.real()));
+            properties.setProperty("parameterImaginary", Double.toString(parameter.imaginary()));
+        }
+        properties.setProperty("palette", palette.name());
+        return properties;
+    }
+
+    /**
+     * Read a spec written by {@link #toProperties}
+     * @throws IllegalArgumentException If a property is missing or invalid
+     */
+    public static ExportSpec fromProperties(Properties properties) {
+        ComplexNumber parameter = properties.containsKey("parameterReal")
+            ? new ComplexNumber(Double.parseDouble(require(properties, "parameterReal")),
+                                Double.parseDouble(require(properties, "parameterImaginary")))
+            : null;
+        return new ExportSpec(
+            Path.of(require(properties, "output")),
+            require(properties, "format"),
+            Integer.parseInt(require(properties, "width")),
+            Integer.parseInt(require(properties, "height")),
+            Double.parseDouble(require(properties, "centerX")),
+            Double.parseDouble(require(properties, "centerY")),
+            Double.parseDouble(require(properties, "zoom")),
+            Integer.parseInt(require(properties, "maxIterations")),
+            FractalType.valueOf(require(properties, "fractal")),
+            parameter,
+            ColorPalette.PaletteType.valueOf(require(properties, "palette")));
+    }
+
+    private static String require(Properties properties, String key) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Export spec has no " + key);
+        }
+        return value;
+    }
+}
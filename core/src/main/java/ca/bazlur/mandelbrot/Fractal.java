@@ -13,6 +13,31 @@ public interface Fractal {
      */
     int calculateIterations(ComplexNumber c, int maxIterations);
     
+    /**
+     * Get the number of doubles needed to store the orbit of a point
+     * so that its iteration can be resumed later
+     * @return The orbit state size, or 0 if this fractal cannot resume
+     */
+    default int orbitStateSize() {
+        return 0;
+    }
+    
+    /**
+     * Continue iterating a point from a previously saved orbit state.
+     * When iterations is 0 the saved state is ignored and the orbit starts fresh.
+     * The result is identical to calling calculateIterations with the new maximum.
+     * Fractals with an orbit state size of 0 keep no state and recalculate the point from scratch.
+     * @param c The complex number to test
+     * @param iterations The number of iterations already performed
+     * @param maxIterations Maximum number of iterations
+     * @param orbit The orbit state buffer, updated in place
+     * @param offset The offset of this point's state in the buffer
+     * @return The number of iterations before escaping
+     */
+    default int resumeIterations(ComplexNumber c, int iterations, int maxIterations, double[] orbit, int offset) {
+        return calculateIterations(c, maxIterations);
+    }
+    
     /**
      * Get the name of the fractal
      * @return The display name
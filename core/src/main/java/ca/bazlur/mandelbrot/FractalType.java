@@ -0,0 +1,55 @@
+package ca.bazlur.mandelbrot;
+
+import java.util.function.Supplier;
+
+/**
+ * The built-in fractals, for places that need to create a fractal by name
+ */
+public enum FractalType {
+    MANDELBROT("Mandelbrot", MandelbrotFractal::new),
+    JULIA("Julia Set", JuliaFractal::new),
+    BURNING_SHIP("Burning Ship", BurningShipFractal::new),
+    TRICORN("Tricorn", TricornFractal::new),
+    MULTIBROT_3("Multibrot (d=3)", () -> new MultibrotFractal(3)),
+    MULTIBROT_4("Multibrot (d=4)", () -> new MultibrotFractal(4)),
+    PHOENIX("Phoenix", PhoenixFractal::new);
+
+    private final String displayName;
+    private final Supplier<Fractal> factory;
+
+    FractalType(String displayName, Supplier<Fractal> factory) {
+        this.displayName = displayName;
+        this.factory = factory;
+    }
+
+    /**
+     * Create a new instance, with default parameters for fractals that take one
+     */
+    public Fractal create() {
+        return factory.get();
+    }
+
+    /**
+     * Find the type of a fractal, ignoring its parameter
+     * @throws IllegalArgumentException If the fractal is not one of the built-in ones
+     */
+    public static FractalType of(Fractal fractal) {
+        for (FractalType type : values()) {
+            Fractal candidate = type.create();
+            if (candidate.getClass() == fractal.getClass()
+                && (fractal.requiresParameter() || candidate.getName().equals(fractal.getName()))) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException(fractal.getName() + " is not a built-in fractal");
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,55 @@
+package ca.bazlur.mandelbrot;
+
+/**
+ * Picks the resolution of interactive frames so that they finish within a frame time budget,
+ * from the smoothed time per pixel of the interactive frames rendered so far.
+ */
+public class FrameBudget {
+    public static final long DEFAULT_TARGET_MILLIS = 16;
+
+    private static final int INITIAL_SCALE = 8; // Until the first frame is measured
+    private static final int MAX_SCALE = 32;
+    private static final double SMOOTHING = 0.5; // Weight of the newest measurement
+
+    private final long targetNanos;
+    private double nanosPerPixel; // 0 until the first frame is measured
+
+    public FrameBudget() {
+        this(DEFAULT_TARGET_MILLIS);
+    }
+
+    public FrameBudget(long targetMillis) {
+        this.targetNanos = targetMillis * 1_000_000;
+    }
+
+    /**
+     * Choose the smallest downscale factor at which a frame is predicted to meet the budget
+     * @return Factor by which width and height are divided, between 1 and {@value #MAX_SCALE}
+     */
+    public synchronized int chooseScale(int width, int height) {
+        if (nanosPerPixel == 0) {
+            return INITIAL_SCALE;
+        }
+        for (int scale = 1; scale < MAX_SCALE; scale++) {
+            if (scaledPixels(width, scale) * scaledPixels(height, scale) * nanosPerPixel <= targetNanos) {
+                return scale;
+            }
+        }
+        return MAX_SCALE;
+    }
+
+    /**
+     * Record the time an interactive frame took
+     */
+    public synchronized void record(long pixels, long nanos) {
+        double measured = (double) nanos / Math.max(1, pixels);
+        nanosPerPixel = nanosPerPixel == 0 ? measured : SMOOTHING * measured + (1 - SMOOTHING) * nanosPerPixel;
+    }
+
+    /**
+     * Get the size of a dimension after dividing it by scale, rounding up so the frame stays covered
+     */
+    public static int scaledPixels(int size, int scale) {
+        return (size + scale - 1) / scale;
+    }
+}
@@ -0,0 +1,17 @@
+package ca.bazlur.mandelbrot;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Receives an image from top to bottom, a strip of rows at a time
+ */
+public interface ImageSink extends Closeable {
+
+    /**
+     * Write the next rows of the image
+     * @param argb The pixels of the rows, row by row, as many per row as the image is wide
+     * @param rows The number of rows in argb
+     */
+    void writeRows(int[] argb, int rows) throws IOException;
+}
@@ -0,0 +1,168 @@
+package ca.bazlur.mandelbrot;
+
+/**
+ * Iteration counts of a frame together with the orbit of every point,
+ * so that raising maxIterations only continues the points that had not escaped yet
+ * instead of recalculating the whole frame.
+ */
+public class IterationState {
+    private final int width;
+    private final int height;
+    private final double centerX;
+    private final double centerY;
+    private final double zoom;
+    private final Fractal fractal;
+    private final int stateSize;
+    private final int[][] iterations;
+    private final double[] orbits;
+    private volatile int maxIterations; // 0 until the first calculation completes
+
+    public IterationState(int width, int height, double centerX, double centerY, double zoom, Fractal fractal) {
+        if (!isSupported(fractal)) {
+            throw new IllegalArgumentException(fractal.getName() + " does not support resuming iterations");
+        }
+        this.width = width;
+        this.height = height;
+        this.centerX = centerX;
+        this.centerY = centerY;
+        this.zoom = zoom;
+        this.fractal = fractal;
+        this.stateSize = fractal.orbitStateSize();
+        this.iterations = new int[width][height];
+        this.orbits = new double[width * height * stateSize];
+    }
+
+    /**
+     * Check if the fractal can save and resume its orbits
+     * @param fractal The fractal to check
+     * @return true if an IterationState can be created for it
+     */
+    public static boolean isSupported(Fractal fractal) {
+        return fractal.orbitStateSize() > 0;
+    }
+
+    /**
+     * Check if this state can be continued for the given view
+     * @return true if the view is unchanged and maxIterations did not decrease
+     */
+    public boolean canResume(int width, int height, double centerX, double centerY, double zoom,
+                             Fractal fractal, int maxIterations) {
+        return this.width == width && this.height == height
+            && this.centerX == centerX && this.centerY == centerY && this.zoom == zoom
+            && this.fractal == fractal && maxIterations >= this.maxIterations;
+    }
+
+    /**
+     * Advance all points in the given rows that have not escaped yet up to maxIterations.
+     * Rows may be advanced concurrently as long as they do not overlap.
+     * @return The number of iterations performed
+     */
+    long advanceRows(int startRow, int endRow, int maxIterations, RenderMetrics.Frame frame) {
+        return advance(new Tile(0, startRow, width, endRow - startRow), maxIterations, frame);
+    }
+
+    /**
+     * Advance all points in the tile that have not escaped yet up to maxIterations.
+     * Tiles may be advanced concurrently as long as they do not overlap.
+     * @return The number of iterations performed
+     */
+    long advance(Tile tile, int maxIterations, RenderMetrics.Frame frame) {
+        int previousMax = this.maxIterations;
+        long performed = 0;
+        for (int y = tile.y(); y < tile.y() + tile.height(); y++) {
+            int escaped = 0;
+            for (int x = tile.x(); x < tile.x() + tile.width(); x++) {
+                int current = iterations[x][y];
+                if (previousMax > 0 && current < previousMax) {
+                    escaped++;
+                    continue; // Already escaped, the count is final
+                }
+                ComplexNumber c = screenToComplex(x, y);
+                iterations[x][y] = fractal.resumeIterations(c, current, maxIterations, orbits, (y * width + x) * stateSize);
+                performed += iterations[x][y] - current;
+            }
+            frame.pixelsCompleted(tile.width());
+            if (previousMax > 0) {
+                RenderMetrics.get().cacheLookups(escaped, tile.width() - escaped);
+            }
+        }
+        return performed;
+    }
+
+    /**
+     * Advance a single point that has not escaped yet up to maxIterations.
+     * Used by renderers that visit the frame in their own order.
+     * @return The iteration count of the point
+     */
+    int advancePoint(int x, int y, int maxIterations) {
+        ComplexNumber c = screenToComplex(x, y);
+        int count = fractal.resumeIterations(c, iterations[x][y], maxIterations, orbits, (y * width + x) * stateSize);
+        iterations[x][y] = count;
+        return count;
+    }
+
+    /**
+     * Count the points in the tile that would be advanced by the next calculation
+     */
+    long countPending(Tile tile) {
+        int previousMax = this.maxIterations;
+        if (previousMax == 0) {
+            return tile.pixels();
+        }
+        long pending = 0;
+        for (int x = tile.x(); x < tile.x() + tile.width(); x++) {
+            int[] column = iterations[x];
+            for (int y = tile.y(); y < tile.y() + tile.height(); y++) {
+                if (column[y] >= previousMax) {
+                    pending++;
+                }
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Mark all rows as advanced to maxIterations
+     */
+    void complete(int maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+
+    private ComplexNumber screenToComplex(int x, int y) {
+        double real = (x - width / 2.0) / zoom + centerX;
+        double imaginary = (y - height / 2.0) / zoom + centerY;
+        return new ComplexNumber(real, imaginary);
+    }
+
+    public int[][] getIterations() {
+        return iterations;
+    }
+
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    public Fractal getFractal() {
+        return fractal;
+    }
+
+    public double getCenterX() {
+        return centerX;
+    }
+
+    public double getCenterY() {
+        return centerY;
+    }
+
+    public double getZoom() {
+        return zoom;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
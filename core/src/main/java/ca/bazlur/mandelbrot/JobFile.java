@@ -0,0 +1,203 @@
+package ca.bazlur.mandelbrot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Reads a list of exports from a JSON or CSV file. Each export has the properties of an {@link ExportSpec}:
+ * output, width, height, centerX, centerY, zoom and maxIterations are required; format defaults to the output's
+ * extension, fractal to MANDELBROT and palette to SMOOTH, and parameterReal and parameterImaginary set the
+ * parameter of fractals that take one. Relative outputs are resolved against the job file's directory.
+ * <pre>
+ * [{"output": "seahorse.png", "width": 7680, "height": 4320, "centerX": -0.75, "centerY": 0.1,
+ *   "zoom": 5000, "maxIterations": 2000, "palette": "FIRE"}]
+ *
+ * output,width,height,centerX,centerY,zoom,maxIterations,fractal
+ * seahorse.png,7680,4320,-0.75,0.1,5000,2000,MANDELBROT
+ * </pre>
+ */
+public class JobFile {
+
+    private JobFile() {
+    }
+
+    /**
+     * Read the exports of a .json or .csv file
+     * @throws IllegalArgumentException If the file is malformed or an export is incomplete
+     */
+    public static List<ExportSpec> read(Path file) throws IOException {
+        String content = Files.readString(file);
+        List<Map<String, String>> records = file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv")
+            ? parseCsv(content)
+            : new JsonReader(content).readArray();
+        Path base = file.toAbsolutePath().getParent();
+        List<ExportSpec> specs = new ArrayList<>();
+        for (int i = 0; i < records.size(); i++) {
+            try {
+                specs.add(toSpec(records.get(i), base));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Job " + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        return specs;
+    }
+
+    private static ExportSpec toSpec(Map<String, String> record, Path base) {
+        Properties properties = new Properties();
+        properties.putAll(record);
+        String output = properties.getProperty("output");
+        if (output == null) {
+            throw new IllegalArgumentException("Export spec has no output");
+        }
+        properties.setProperty("output", base.resolve(output).toString());
+        String name = Path.of(output).getFileName().toString();
+        String extension = name.contains(".") ? name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT) : "png";
+        properties.putIfAbsent("format", extension.equals("jpeg") ? "jpg" : extension);
+        properties.putIfAbsent("fractal", FractalType.MANDELBROT.name());
+        properties.putIfAbsent("palette", ColorPalette.PaletteType.SMOOTH.name());
+        return ExportSpec.fromProperties(properties);
+    }
+
+    private static List<Map<String, String>> parseCsv(String content) {
+        List<String> lines = content.lines().filter(line -> !line.isBlank()).toList();
+        if (lines.isEmpty()) {
+            return List.of();
+        }
+        String[] header = lines.get(0).split(",");
+        List<Map<String, String>> records = new ArrayList<>();
+        for (String line : lines.subList(1, lines.size())) {
+            String[] values = line.split(",", -1);
+            if (values.length != header.length) {
+                throw new IllegalArgumentException("CSV line has " + values.length + " values, the header "
+                                                   + header.length + ": " + line);
+            }
+            Map<String, String> record = new LinkedHashMap<>();
+            for (int i = 0; i < header.length; i++) {
+                if (!values[i].isBlank()) {
+                    record.put(header[i].trim(), values[i].trim());
+                }
+            }
+            records.add(record);
+        }
+        return records;
+    }
+
+    /**
+     * Reads an array of flat objects whose values are strings, numbers or booleans
+     */
+    private static class JsonReader {
+        private final String json;
+        private int position;
+
+        JsonReader(String json) {
+            this.json = json;
+        }
+
+        List<Map<String, String>> readArray() {
+            List<Map<String, String>> records = new ArrayList<>();
+            expect('[');
+            if (!consume(']')) {
+                do {
+                    records.add(readObject());
+                } while (consume(','));
+                expect(']');
+            }
+            skipWhitespace();
+            if (position < json.length()) {
+                throw error("Unexpected content after the array");
+            }
+            return records;
+        }
+
+        private Map<String, String> readObject() {
+            Map<String, String> record = new LinkedHashMap<>();
+            expect('{');
+            if (!consume('}')) {
+                do {
+                    String key = readString();
+                    expect(':');
+                    record.put(key, readValue());
+                } while (consume(','));
+                expect('}');
+            }
+            return record;
+        }
+
+        private String readValue() {
+            skipWhitespace();
+            if (position < json.length() && json.charAt(position) == '"') {
+                return readString();
+            }
+            int start = position;
+            while (position < json.length() && ",}] \t\r\n".indexOf(json.charAt(position)) < 0) {
+                position++;
+            }
+            if (start == position) {
+                throw error("Expected a value");
+            }
+            return json.substring(start, position);
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (position < json.length() && json.charAt(position) != '"') {
+                char c = json.charAt(position++);
+                if (c == '\\' && position < json.length()) {
+                    char escaped = json.charAt(position++);
+                    switch (escaped) {
+                        case 'n' -> value.append('\n');
+                        case 't' -> value.append('\t');
+                        case 'r' -> value.append('\r');
+                        case 'b' -> value.append('\b');
+                        case 'f' -> value.append('\f');
+                        case 'u' -> {
+                            if (position + 4 > json.length()) {
+                                throw error("Incomplete unicode escape");
+                            }
+                            value.append((char) Integer.parseInt(json.substring(position, position + 4), 16));
+                            position += 4;
+                        }
+                        default -> value.append(escaped);
+                    }
+                } else {
+                    value.append(c);
+                }
+            }
+            expect('"');
+            return value.toString();
+        }
+
+        private void expect(char c) {
+            if (!consume(c)) {
+                throw error("Expected '" + c + "'");
+            }
+        }
+
+        private boolean consume(char c) {
+            skipWhitespace();
+            if (position < json.length() && json.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void skipWhitespace() {
+            while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+                position++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at character " + position);
+        }
+    }
+}
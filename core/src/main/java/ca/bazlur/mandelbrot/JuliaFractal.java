@@ -5,7 +5,6 @@ package ca.bazlur.mandelbrot;
  * z(n+1) = z(n)^2 + c, where c is a fixed parameter and z(0) is the point being tested
  */
 public class JuliaFractal implements Fractal {
-    private static final double ESCAPE_RADIUS_SQUARED = 256.0;
     private ComplexNumber parameter;
     
     // Some interesting Julia set parameters
@@ -32,15 +31,33 @@ public class JuliaFractal implements Fractal {
     
     @Override
     public int calculateIterations(ComplexNumber point, int maxIterations) {
-        ComplexNumber z = point; // Start with the point itself for Julia sets
-        int iterations = 0;
-        
-        while (z.magnitudeSquared() < ESCAPE_RADIUS_SQUARED && iterations < maxIterations) {
-            z = z.square().add(parameter);
-            iterations++;
+        // Start with the point itself for Julia sets
+        return iterate(point, 0, maxIterations, null, 0);
+    }
+    
+    @Override
+    public int orbitStateSize() {
+        return 2;
+    }
+    
+    @Override
+    public int resumeIterations(ComplexNumber point, int iterations, int maxIterations, double[] orbit, int offset) {
+        ComplexNumber z = iterations == 0 ? point
+                                          : new ComplexNumber(orbit[offset], orbit[offset + 1]);
+        return iterate(z, iterations, maxIterations, orbit, offset);
+    }
+    
+    /**
+     * Run the escape-time loop from start, which has already taken the given iterations
+     * @param orbit Receives the final z when not null
+     */
+    private int iterate(ComplexNumber start, int iterations, int maxIterations, double[] orbit, int offset) {
+        var result = EscapeTime.iterate(start, iterations, maxIterations, z -> z.square().add(parameter));
+        if (orbit != null) {
+            orbit[offset] = result.z().real();
+            orbit[offset + 1] = result.z().imaginary();
         }
-        
-        return iterations;
+        return result.iterations();
     }
     
     @Override
@@ -0,0 +1,53 @@
+package ca.bazlur.mandelbrot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A view on an animation path
+ */
+public record Keyframe(double centerX, double centerY, double zoom, int maxIterations) {
+
+    /**
+     * Expand keyframes into the view of every frame. The zoom changes by the same factor each frame, and the center
+     * moves in step with the visible scale, so a point zoomed into stays put on screen instead of drifting.
+     * @param framesPerSegment Frames from one keyframe up to, not including, the next
+     * @return The frames, starting with the first keyframe and ending with the last
+     */
+    public static List<Keyframe> interpolate(List<Keyframe> keyframes, int framesPerSegment) {
+        if (keyframes.isEmpty() || framesPerSegment < 1) {
+            throw new IllegalArgumentException("Need at least one keyframe and one frame per segment");
+        }
+        List<Keyframe> frames = new ArrayList<>();
+        for (int i = 0; i + 1 < keyframes.size(); i++) {
+            Keyframe from = keyframes.get(i);
+            Keyframe to = keyframes.get(i + 1);
+            for (int frame = 0; frame < framesPerSegment; frame++) {
+                frames.add(from.towards(to, (double) frame / framesPerSegment));
+            }
+        }
+        frames.add(keyframes.get(keyframes.size() - 1));
+        return frames;
+    }
+
+    /**
+     * Get the view a fraction t of the way to another keyframe
+     */
+    Keyframe towards(Keyframe to, double t) {
+        double zoom = this.zoom * Math.pow(to.zoom / this.zoom, t);
+        // Progress of the visible scale 1/zoom, which is linear in t when the zoom does not change
+        double s = this.zoom == to.zoom ? t : (1 / this.zoom - 1 / zoom) / (1 / this.zoom - 1 / to.zoom);
+        return new Keyframe(
+            centerX + (to.centerX - centerX) * s,
+            centerY + (to.centerY - centerY) * s,
+            zoom,
+            (int) Math.round(maxIterations + (to.maxIterations - maxIterations) * t));
+    }
+
+    /**
+     * Check if another view shows the same points
+     */
+    boolean sameView(Keyframe other) {
+        return centerX == other.centerX && centerY == other.centerY && zoom == other.zoom;
+    }
+}
@@ -0,0 +1,45 @@
+package ca.bazlur.mandelbrot;
+
+/**
+ * Maps the pixel coordinates of an exponential map strip to points around its center: the column is the angle
+ * and every row shrinks the radius by the same factor, one angular step per row so strip pixels stay square.
+ * A strategy calculating the strip at zoom 1, centered on the strip's middle, passes its pixel coordinates through
+ * unchanged.
+ */
+class LogPolarFractal implements Fractal {
+    private final Fractal fractal;
+    private final double centerX;
+    private final double centerY;
+    private final double outerRadius;
+    private final double step;
+
+    /**
+     * @param outerRadius Radius of the first row
+     * @param step Angle between columns in radians, and the natural log of the radius ratio between rows
+     */
+    LogPolarFractal(Fractal fractal, double centerX, double centerY, double outerRadius, double step) {
+        this.fractal = fractal;
+        this.centerX = centerX;
+        this.centerY = centerY;
+        this.outerRadius = outerRadius;
+        this.step = step;
+    }
+
+    @Override
+    public int calculateIterations(ComplexNumber pixel, int maxIterations) {
+        double radius = outerRadius * Math.exp(-pixel.imaginary() * step);
+        double angle = pixel.real() * step;
+        return fractal.calculateIterations(
+            new ComplexNumber(centerX + radius * Math.cos(angle), centerY + radius * Math.sin(angle)), maxIterations);
+    }
+
+    @Override
+    public String getName() {
+        return fractal.getName();
+    }
+
+    @Override
+    public String getDescription() {
+        return fractal.getDescription();
+    }
+}
@@ -0,0 +1,233 @@
+package ca.bazlur.mandelbrot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.ToLongFunction;
+
+public class MandelbrotCalculator implements MandelbrotCalculatorStrategy {
+    static final int TILE_SIZE = 64; // Default tile width and height in pixels
+    private final int numThreads;
+    private final int tileSize;
+    private final ExecutorService executor;
+    private final CostEstimator costEstimator = new CostEstimator();
+    
+    public MandelbrotCalculator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+    
+    public MandelbrotCalculator(int numThreads) {
+        this(numThreads, TILE_SIZE);
+    }
+    
+    public MandelbrotCalculator(int numThreads, int tileSize) {
+        this(numThreads, tileSize, Executors.defaultThreadFactory());
+    }
+    
+    /**
+     * @param threadFactory Creates the worker threads, e.g. daemon threads for background work
+     */
+    public MandelbrotCalculator(int numThreads, int tileSize, ThreadFactory threadFactory) {
+        this.numThreads = numThreads;
+        this.tileSize = tileSize;
+        this.executor = Executors.newFixedThreadPool(numThreads, threadFactory);
+    }
+    
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int[][] calculateIterations(int width, int height, double centerX, double centerY, double zoom, int maxIterations) {
+        return calculateIterations(width, height, centerX, centerY, zoom, maxIterations, new MandelbrotFractal());
+    }
+    
+    @Override
+    public int[][] calculateIterations(int width, int height, double centerX, double centerY, double zoom, int maxIterations, Fractal fractal) {
+        RenderMetrics.Frame frame = RenderMetrics.get().frameStarted((long) width * height);
+        List<Tile> tiles = schedule(Tile.grid(width, height, tileSize),
+            costEstimator.forFrame(width, height, centerX, centerY, zoom, maxIterations, fractal));
+        return calculateTiles(tiles, width, height, centerX, centerY, zoom, maxIterations, fractal, frame, null);
+    }
+
+    @Override
+    public int[][] calculateIterations(int width, int height, double centerX, double centerY, double zoom, int maxIterations,
+                                       Fractal fractal, double focusX, double focusY, TileListener listener) {
+        RenderMetrics.Frame frame = RenderMetrics.get().frameStarted((long) width * height);
+        List<Tile> tiles = Tile.nearestFirst(Tile.grid(width, height, tileSize), focusX, focusY);
+        return calculateTiles(tiles, width, height, centerX, centerY, zoom, maxIterations, fractal, frame, listener);
+    }
+
+    private int[][] calculateTiles(List<Tile> tiles, int width, int height, double centerX, double centerY, double zoom,
+                                   int maxIterations, Fractal fractal, RenderMetrics.Frame frame, TileListener listener) {
+        int[][] iterations = new int[width][height];
+        frame.tilesQueued(tiles.size());
+
+        var futures = new ArrayList<Future<Void>>();
+        for (Tile tile : tiles) {
+            futures.add(executor.submit(new MandelbrotTask(iterations, tile, width, height, centerX, centerY, zoom, maxIterations, fractal, frame, listener)));
+        }
+        awaitAll(futures);
+
+        costEstimator.remember(iterations, width, height, centerX, centerY, zoom, maxIterations, fractal);
+        frame.completed();
+        return iterations;
+    }
+
+    @Override
+    public int[][] calculateIterations(IterationState state, int maxIterations) {
+        RenderMetrics.Frame frame = RenderMetrics.get().frameStarted((long) state.getWidth() * state.getHeight());
+        List<Tile> tiles = schedule(Tile.grid(state.getWidth(), state.getHeight(), tileSize),
+            costEstimator.forResume(state, maxIterations));
+        return advanceTiles(tiles, state, maxIterations, frame, null);
+    }
+
+    @Override
+    public int[][] calculateIterations(IterationState state, int maxIterations,
+                                       double focusX, double focusY, TileListener listener) {
+        RenderMetrics.Frame frame = RenderMetrics.get().frameStarted((long) state.getWidth() * state.getHeight());
+        List<Tile> tiles = Tile.nearestFirst(Tile.grid(state.getWidth(), state.getHeight(), tileSize), focusX, focusY);
+        return advanceTiles(tiles, state, maxIterations, frame, listener);
+    }
+
+    private int[][] advanceTiles(List<Tile> tiles, IterationState state, int maxIterations,
+                                 RenderMetrics.Frame frame, TileListener listener) {
+        frame.tilesQueued(tiles.size());
+
+        var futures = new ArrayList<Future<?>>();
+        for (Tile tile : tiles) {
+            futures.add(executor.submit(() -> {
+                if (listener != null && listener.isCancelled()) {
+                    throw new CancellationException("Calculation cancelled");
+                }
+                TileTimer timer = new TileTimer(frame);
+                long total = state.advance(tile, maxIterations, frame);
+                timer.finish(state.getFractal(), state.getZoom(), maxIterations, getType(),
+                             tile.x(), tile.y(), tile.width(), tile.height(), total);
+                if (listener != null) {
+                    listener.tileCompleted(tile, state.getIterations());
+                }
+            }));
+        }
+        awaitAll(futures);
+
+        state.complete(maxIterations);
+        costEstimator.remember(state, maxIterations);
+        frame.completed();
+        return state.getIterations();
+    }
+
+    /**
+     * Estimate the cost of every tile on the pool and order them longest first, so the
+     * expensive tiles start early and the cheap ones fill the gaps at the end of the frame
+     */
+    private List<Tile> schedule(List<Tile> tiles, ToLongFunction<Tile> cost) {
+        var estimates = new ArrayList<Callable<Long>>(tiles.size());
+        for (Tile tile : tiles) {
+            estimates.add(() -> cost.applyAsLong(tile));
+        }
+        long[] costs = new long[tiles.size()];
+        try {
+            List<Future<Long>> results = executor.invokeAll(estimates);
+            for (int i = 0; i < costs.length; i++) {
+                costs[i] = results.get(i).get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
+        }
+        return Tile.longestFirst(tiles, costs);
+    }
+
+    private static void awaitAll(List<? extends Future<?>> futures) {
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            futures.forEach(future -> future.cancel(false)); // Tiles not started yet are skipped
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public StrategyType getType() {
+        return StrategyType.EXECUTOR_SERVICE;
+    }
+
+    @Override
+    public String describeConfiguration() {
+        return String.format("%s, %d threads, %dpx tiles", getType(), numThreads, tileSize);
+    }
+
+    private static int calculatePointIterations(ComplexNumber c, int maxIterations, Fractal fractal) {
+        return fractal.calculateIterations(c, maxIterations);
+    }
+
+    private static ComplexNumber screenToComplex(int x, int y, int width, int height, double centerX, double centerY, double zoom) {
+        double real = (x - width / 2.0) / zoom + centerX;
+        double imaginary = (y - height / 2.0) / zoom + centerY;
+        return new ComplexNumber(real, imaginary);
+    }
+
+    static class MandelbrotTask implements Callable<Void> {
+        private final int[][] iterations;
+        private final Tile tile;
+        private final int width;
+        private final int height;
+        private final double centerX;
+        private final double centerY;
+        private final double zoom;
+        private final int maxIterations;
+        private final Fractal fractal;
+        private final RenderMetrics.Frame frame;
+        private final TileListener listener; // May be null
+
+        public MandelbrotTask(int[][] iterations, Tile tile, int width, int height,
+                              double centerX, double centerY, double zoom, int maxIterations, Fractal fractal,
+                              RenderMetrics.Frame frame, TileListener listener) {
+            this.iterations = iterations;
+            this.tile = tile;
+            this.width = width;
+            this.height = height;
+            this.centerX = centerX;
+            this.centerY = centerY;
+            this.zoom = zoom;
+            this.maxIterations = maxIterations;
+            this.fractal = fractal;
+            this.frame = frame;
+            this.listener = listener;
+        }
+
+        @Override
+        public Void call() throws Exception {
+            if (listener != null && listener.isCancelled()) {
+                throw new CancellationException("Calculation cancelled");
+            }
+            TileTimer timer = new TileTimer(frame);
+            long total = 0;
+            for (int x = tile.x(); x < tile.x() + tile.width(); x++) {
+                for (int y = tile.y(); y < tile.y() + tile.height(); y++) {
+                    ComplexNumber c = screenToComplex(x, y, width, height, centerX, centerY, zoom);
+                    iterations[x][y] = calculatePointIterations(c, maxIterations, fractal);
+                    total += iterations[x][y];
+                }
+                frame.pixelsCompleted(tile.height());
+            }
+
+            timer.finish(fractal, zoom, maxIterations, StrategyType.EXECUTOR_SERVICE,
+                         tile.x(), tile.y(), tile.width(), tile.height(), total);
+            if (listener != null) {
+                listener.tileCompleted(tile, iterations);
+            }
+            return null;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,356 @@
+package ca.bazlur.mandelbrot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+
+public class MandelbrotCalculatorFJ implements MandelbrotCalculatorStrategy {
+    private final ForkJoinPool forkJoinPool;
+    private final CostEstimator costEstimator = new CostEstimator();
+    static final int THRESHOLD = 50; // Default rows per task threshold
+    private static final int MIN_ROWS = 4; // Expensive tasks are split down to this many rows
+    private static final int TASKS_PER_WORKER = 8; // Target number of equal cost leaves per worker
+    private static final int FOCUS_TILE_WIDTH = MandelbrotCalculator.TILE_SIZE; // Leaves are cut into tiles this wide when focused
+    
+    private final int thresholdRows;
+    
+    public MandelbrotCalculatorFJ() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+    
+    public MandelbrotCalculatorFJ(int parallelism) {
+        this(parallelism, THRESHOLD);
+    }
+    
+    /**
+     * @param thresholdRows Tasks with at most this many rows are not split unless they are expensive
+     */
+    public MandelbrotCalculatorFJ(int parallelism, int thresholdRows) {
+        this.forkJoinPool = new ForkJoinPool(parallelism);
+        this.thresholdRows = thresholdRows;
+    }
+
+    public int[][] calculateIterations(int width, int height, double centerX, double centerY, double zoom, int maxIterations) {
+        return calculateIterations(width, height, centerX, centerY, zoom, maxIterations, new MandelbrotFractal());
+    }
+    
+    @Override
+    public int[][] calculateIterations(int width, int height, double centerX, double centerY, double zoom, int maxIterations, Fractal fractal) {
+        int[][] iterations = new int[width][height];
+        RenderMetrics.Frame frame = RenderMetrics.get().frameStarted((long) width * height);
+        frame.tilesQueued(1);
+        
+        SplitPlan plan = planSplits(width, height,
+            costEstimator.forFrame(width, height, centerX, centerY, zoom, maxIterations, fractal), frame, null);
+        MandelbrotTask task = new MandelbrotTask(iterations, 0, height, width, height, centerX, centerY, zoom, maxIterations, fractal, plan);
+        forkJoinPool.invoke(task);
+        
+        return completed(iterations, width, height, centerX, centerY, zoom, maxIterations, fractal, frame);
+    }
+
+    @Override
+    public int[][] calculateIterations(int width, int height, double centerX, double centerY, double zoom, int maxIterations,
+                                       Fractal fractal, double focusX, double focusY, TileListener listener) {
+        int[][] iterations = new int[width][height];
+        RenderMetrics.Frame frame = RenderMetrics.get().frameStarted((long) width * height);
+        
+        SplitPlan plan = planSplits(width, height,
+            costEstimator.forFrame(width, height, centerX, centerY, zoom, maxIterations, fractal), frame, listener);
+        invokeNearestFirst(plan, width, height, focusX, focusY, tile ->
+            computeTile(iterations, tile, width, height, centerX, centerY, zoom, maxIterations, fractal, plan));
+        
+        return completed(iterations, width, height, centerX, centerY, zoom, maxIterations, fractal, frame);
+    }
+
+    private int[][] completed(int[][] iterations, int width, int height, double centerX, double centerY, double zoom,
+                              int maxIterations, Fractal fractal, RenderMetrics.Frame frame) {
+        costEstimator.remember(iterations, width, height, centerX, centerY, zoom, maxIterations, fractal);
+        frame.completed();
+        return iterations;
+    }
+
+    @Override
+    public int[][] calculateIterations(IterationState state, int maxIterations) {
+        RenderMetrics.Frame frame = RenderMetrics.get().frameStarted((long) state.getWidth() * state.getHeight());
+        frame.tilesQueued(1);
+        SplitPlan plan = planSplits(state.getWidth(), state.getHeight(), costEstimator.forResume(state, maxIterations),
+                                    frame, null);
+        forkJoinPool.invoke(new ResumeTask(state, 0, state.getHeight(), maxIterations, plan));
+        return completed(state, maxIterations, frame);
+    }
+
+    @Override
+    public int[][] calculateIterations(IterationState state, int maxIterations,
+                                       double focusX, double focusY, TileListener listener) {
+        RenderMetrics.Frame frame = RenderMetrics.get().frameStarted((long) state.getWidth() * state.getHeight());
+        SplitPlan plan = planSplits(state.getWidth(), state.getHeight(), costEstimator.forResume(state, maxIterations),
+                                    frame, listener);
+        invokeNearestFirst(plan, state.getWidth(), state.getHeight(), focusX, focusY,
+                           tile -> advanceTile(state, tile, maxIterations, plan));
+        return completed(state, maxIterations, frame);
+    }
+
+    private int[][] completed(IterationState state, int maxIterations, RenderMetrics.Frame frame) {
+        state.complete(maxIterations);
+        costEstimator.remember(state, maxIterations);
+        frame.completed();
+        return state.getIterations();
+    }
+
+    @Override
+    public StrategyType getType() {
+        return StrategyType.FORK_JOIN;
+    }
+
+    @Override
+    public String describeConfiguration() {
+        return String.format("%s, parallelism %d, %d rows", getType(), forkJoinPool.getParallelism(), thresholdRows);
+    }
+
+    /**
+     * Run the leaves of the plan nearest to the focus point first, each cut into tiles so the horizontal
+     * distance counts as well. Thieves take forked halves from the far end of a worker's deque,
+     * so instead of splitting recursively the tiles are submitted to the pool in order.
+     */
+    private void invokeNearestFirst(SplitPlan plan, int width, int height, double focusX, double focusY,
+                                    Consumer<Tile> compute) {
+        List<Tile> tiles = new ArrayList<>();
+        plan.addLeafTiles(0, height, width, tiles);
+        plan.frame().tilesQueued(tiles.size());
+        
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(tiles.size());
+        for (Tile tile : Tile.nearestFirst(tiles, focusX, focusY)) {
+            tasks.add(forkJoinPool.submit(() -> compute.accept(tile)));
+        }
+        try {
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+        } catch (RuntimeException | Error e) {
+            tasks.forEach(task -> task.cancel(false));
+            throw e;
+        }
+    }
+
+    /**
+     * Estimate the cost of every strip of rows in parallel and derive where tasks are split
+     */
+    private SplitPlan planSplits(int width, int height, ToLongFunction<Tile> cost,
+                                 RenderMetrics.Frame frame, TileListener listener) {
+        int strip = CostEstimator.PROBE_STRIDE;
+        int strips = (height + strip - 1) / strip;
+        long[] stripCosts = forkJoinPool.submit(() -> IntStream.range(0, strips).parallel()
+            .mapToLong(i -> cost.applyAsLong(new Tile(0, i * strip, width, Math.min(strip, height - i * strip))))
+            .toArray()).join();
+
+        long[] prefix = new long[height + 1];
+        for (int y = 0; y < height; y++) {
+            int i = y / strip;
+            int rows = Math.min(strip, height - i * strip);
+            prefix[y + 1] = prefix[y] + Math.max(1, stripCosts[i] / rows);
+        }
+        long leafBudget = Math.max(1, prefix[height] / ((long) forkJoinPool.getParallelism() * TASKS_PER_WORKER));
+        return new SplitPlan(prefix, leafBudget, thresholdRows, frame, listener);
+    }
+
+    /**
+     * Where to split a frame into tasks
+     * @param rowCosts Prefix sums of the estimated row costs, so the cost of rows [a, b) is rowCosts[b] - rowCosts[a]
+     * @param leafBudget Highest estimated cost of a task that is not split further
+     * @param frame The frame the tasks report their progress to
+     * @param listener Told about every completed leaf, may be null
+     */
+    record SplitPlan(long[] rowCosts, long leafBudget, int thresholdRows, RenderMetrics.Frame frame,
+                     TileListener listener) {
+
+        /**
+         * Check if rows [startRow, endRow) should be computed by one task:
+         * short enough and cheap enough, or too short to split further
+         */
+        boolean isLeaf(int startRow, int endRow) {
+            int rows = endRow - startRow;
+            return rows <= Math.min(MIN_ROWS, thresholdRows)
+                || (rows <= thresholdRows && rowCosts[endRow] - rowCosts[startRow] <= leafBudget);
+        }
+
+        /**
+         * Find the row that splits [startRow, endRow) into two halves of equal estimated cost
+         */
+        int midRow(int startRow, int endRow) {
+            long half = (rowCosts[startRow] + rowCosts[endRow]) / 2;
+            int low = startRow + 1;
+            int high = endRow - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (rowCosts[mid] < half) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Add the leaves within rows [startRow, endRow), cut into tiles of at most FOCUS_TILE_WIDTH columns
+         */
+        void addLeafTiles(int startRow, int endRow, int width, List<Tile> tiles) {
+            if (isLeaf(startRow, endRow)) {
+                for (int x = 0; x < width; x += FOCUS_TILE_WIDTH) {
+                    tiles.add(new Tile(x, startRow, Math.min(FOCUS_TILE_WIDTH, width - x), endRow - startRow));
+                }
+            } else {
+                int midRow = midRow(startRow, endRow);
+                addLeafTiles(startRow, midRow, width, tiles);
+                addLeafTiles(midRow, endRow, width, tiles);
+            }
+        }
+
+        void checkCancelled() {
+            if (listener != null && listener.isCancelled()) {
+                throw new CancellationException("Calculation cancelled");
+            }
+        }
+
+        void leafCompleted(Tile tile, int[][] iterations) {
+            if (listener != null) {
+                listener.tileCompleted(tile, iterations);
+            }
+        }
+    }
+
+    private static int calculatePointIterations(ComplexNumber c, int maxIterations, Fractal fractal) {
+        return fractal.calculateIterations(c, maxIterations);
+    }
+
+    private static void computeTile(int[][] iterations, Tile tile, int width, int height, double centerX, double centerY,
+                                    double zoom, int maxIterations, Fractal fractal, SplitPlan plan) {
+        plan.checkCancelled();
+        TileTimer timer = new TileTimer(plan.frame());
+        long total = 0;
+        for (int y = tile.y(); y < tile.y() + tile.height(); y++) {
+            for (int x = tile.x(); x < tile.x() + tile.width(); x++) {
+                ComplexNumber c = screenToComplex(x, y, width, height, centerX, centerY, zoom);
+                iterations[x][y] = calculatePointIterations(c, maxIterations, fractal);
+                total += iterations[x][y];
+            }
+            plan.frame().pixelsCompleted(tile.width());
+        }
+        timer.finish(fractal, zoom, maxIterations, StrategyType.FORK_JOIN,
+                     tile.x(), tile.y(), tile.width(), tile.height(), total);
+        plan.leafCompleted(tile, iterations);
+    }
+
+    private static void advanceTile(IterationState state, Tile tile, int maxIterations, SplitPlan plan) {
+        plan.checkCancelled();
+        TileTimer timer = new TileTimer(plan.frame());
+        long total = state.advance(tile, maxIterations, plan.frame());
+        timer.finish(state.getFractal(), state.getZoom(), maxIterations, StrategyType.FORK_JOIN,
+                     tile.x(), tile.y(), tile.width(), tile.height(), total);
+        plan.leafCompleted(tile, state.getIterations());
+    }
+
+    private static ComplexNumber screenToComplex(int x, int y, int width, int height, double centerX, double centerY, double zoom) {
+        double real = (x - width / 2.0) / zoom + centerX;
+        double imaginary = (y - height / 2.0) / zoom + centerY;
+        return new ComplexNumber(real, imaginary);
+    }
+    
+    @Override
+    public void close() {
+        forkJoinPool.shutdown();
+    }
+
+    static class MandelbrotTask extends RecursiveAction {
+        private final int[][] iterations;
+        private final int startRow;
+        private final int endRow;
+        private final int width;
+        private final int height;
+        private final double centerX;
+        private final double centerY;
+        private final double zoom;
+        private final int maxIterations;
+        private final Fractal fractal;
+        private final SplitPlan plan;
+
+        MandelbrotTask(int[][] iterations, int startRow, int endRow, int width, int height,
+                       double centerX, double centerY, double zoom, int maxIterations, Fractal fractal, SplitPlan plan) {
+            this.iterations = iterations;
+            this.startRow = startRow;
+            this.endRow = endRow;
+            this.width = width;
+            this.height = height;
+            this.centerX = centerX;
+            this.centerY = centerY;
+            this.zoom = zoom;
+            this.maxIterations = maxIterations;
+            this.fractal = fractal;
+            this.plan = plan;
+        }
+
+        @Override
+        protected void compute() {
+            if (plan.isLeaf(startRow, endRow)) {
+                // Base case: compute directly
+                computeDirectly();
+            } else {
+                // Fork into subtasks of equal predicted cost
+                int midRow = plan.midRow(startRow, endRow);
+                
+                MandelbrotTask topTask = new MandelbrotTask(
+                    iterations, startRow, midRow, width, height, 
+                    centerX, centerY, zoom, maxIterations, fractal, plan
+                );
+                
+                MandelbrotTask bottomTask = new MandelbrotTask(
+                    iterations, midRow, endRow, width, height, 
+                    centerX, centerY, zoom, maxIterations, fractal, plan
+                );
+                
+                // Fork both tasks and join, one queued task becomes two
+                plan.frame().tilesQueued(1);
+                invokeAll(topTask, bottomTask);
+            }
+        }
+        
+        private void computeDirectly() {
+            computeTile(iterations, new Tile(0, startRow, width, endRow - startRow), width, height,
+                        centerX, centerY, zoom, maxIterations, fractal, plan);
+        }
+    }
+
+    static class ResumeTask extends RecursiveAction {
+        private final IterationState state;
+        private final int startRow;
+        private final int endRow;
+        private final int maxIterations;
+        private final SplitPlan plan;
+
+        ResumeTask(IterationState state, int startRow, int endRow, int maxIterations, SplitPlan plan) {
+            this.state = state;
+            this.startRow = startRow;
+            this.endRow = endRow;
+            this.maxIterations = maxIterations;
+            this.plan = plan;
+        }
+
+        @Override
+        protected void compute() {
+            if (plan.isLeaf(startRow, endRow)) {
+                advanceTile(state, new Tile(0, startRow, state.getWidth(), endRow - startRow), maxIterations, plan);
+            } else {
+                int midRow = plan.midRow(startRow, endRow);
+                plan.frame().tilesQueued(1);
+                invokeAll(new ResumeTask(state, startRow, midRow, maxIterations, plan),
+                          new ResumeTask(state, midRow, endRow, maxIterations, plan));
+            }
+        }
+    }
+}
\ No newline at end of file
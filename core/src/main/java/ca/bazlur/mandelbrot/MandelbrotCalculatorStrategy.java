@@ -0,0 +1,167 @@
+package ca.bazlur.mandelbrot;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.function.DoubleConsumer;
+
+public interface MandelbrotCalculatorStrategy extends AutoCloseable {
+    /** Pixels per band when calculating into a SegmentFrame */
+    int SEGMENT_BAND_PIXELS = 1 << 20;
+    
+    int[][] calculateIterations(int width, int height, double centerX, double centerY, double zoom, int maxIterations);
+    
+    int[][] calculateIterations(int width, int height, double centerX, double centerY, double zoom, int maxIterations, Fractal fractal);
+    
+    /**
+     * Continue a previous calculation up to a higher maxIterations,
+     * iterating only the points that have not escaped yet
+     */
+    int[][] calculateIterations(IterationState state, int maxIterations);
+    
+    /**
+     * Calculate a frame starting with the tiles nearest to a focus point, handing every tile
+     * to the listener as soon as it is done. Strategies without tiles report the whole frame at the end.
+     */
+    default int[][] calculateIterations(int width, int height, double centerX, double centerY, double zoom, int maxIterations,
+                                        Fractal fractal, double focusX, double focusY, TileListener listener) {
+        int[][] iterations = calculateIterations(width, height, centerX, centerY, zoom, maxIterations, fractal);
+        listener.tileCompleted(new Tile(0, 0, width, height), iterations);
+        return iterations;
+    }
+    
+    /**
+     * Continue a previous calculation starting with the tiles nearest to a focus point,
+     * handing every tile to the listener as soon as it is done
+     */
+    default int[][] calculateIterations(IterationState state, int maxIterations,
+                                        double focusX, double focusY, TileListener listener) {
+        int[][] iterations = calculateIterations(state, maxIterations);
+        listener.tileCompleted(new Tile(0, 0, state.getWidth(), state.getHeight()), iterations);
+        return iterations;
+    }
+    
+    /**
+     * Calculate a rectangle of a larger frame, with exactly the points the whole frame would use,
+     * so frames too large to hold in memory can be calculated piece by piece
+     * @return The iterations of the region, indexed from its top left corner
+     */
+    default int[][] calculateRegion(int frameWidth, int frameHeight, Tile region, double centerX, double centerY,
+                                    double zoom, int maxIterations, Fractal fractal) {
+        return calculateIterations(region.width(), region.height(), region.width() / 2.0, region.height() / 2.0, 1,
+                                   maxIterations, new RegionFractal(fractal, frameWidth, frameHeight, region,
+                                                                    centerX, centerY, zoom));
+    }
+
+    /**
+     * Calculate a frame of any size into off-heap storage, a band of rows at a time,
+     * so the heap only ever holds the band being calculated
+     */
+    default void calculateInto(SegmentFrame frame, double centerX, double centerY, double zoom, int maxIterations,
+                               Fractal fractal) {
+        calculateInto(frame, centerX, centerY, zoom, maxIterations, fractal, fraction -> {});
+    }
+
+    /**
+     * Calculate a frame of any size into off-heap storage, a band of rows at a time
+     * @param progress Receives the fraction of rows calculated after every band
+     */
+    default void calculateInto(SegmentFrame frame, double centerX, double centerY, double zoom, int maxIterations,
+                               Fractal fractal, DoubleConsumer progress) {
+        int width = frame.getWidth();
+        int height = frame.getHeight();
+        int bandRows = Math.max(1, SEGMENT_BAND_PIXELS / width);
+        for (int y = 0; y < height; y += bandRows) {
+            Tile band = new Tile(0, y, width, Math.min(bandRows, height - y));
+            frame.writeRegion(band, calculateRegion(width, height, band, centerX, centerY, zoom, maxIterations, fractal));
+            progress.accept((double) (y + band.height()) / height);
+        }
+    }
+
+    /**
+     * Calculate a frame as a stream of tiles, nearest to the focus point first, each subscriber on a new thread
+     */
+    default Flow.Publisher<TileResult> publishTiles(int width, int height, double centerX, double centerY, double zoom,
+                                                    int maxIterations, Fractal fractal, double focusX, double focusY) {
+        return publishTiles(width, height, centerX, centerY, zoom, maxIterations, fractal, focusX, focusY,
+                            TilePublisher.NEW_THREAD);
+    }
+    
+    /**
+     * Calculate a frame as a stream of tiles, nearest to the focus point first
+     * @param executor Runs the calculation of every subscriber
+     */
+    default Flow.Publisher<TileResult> publishTiles(int width, int height, double centerX, double centerY, double zoom,
+                                                    int maxIterations, Fractal fractal, double focusX, double focusY,
+                                                    Executor executor) {
+        return new TilePublisher(listener -> calculateIterations(width, height, centerX, centerY, zoom, maxIterations,
+                                                                 fractal, focusX, focusY, listener), executor);
+    }
+    
+    /**
+     * Continue a previous calculation as a stream of tiles, nearest to the focus point first, each subscriber on a new thread
+     */
+    default Flow.Publisher<TileResult> publishTiles(IterationState state, int maxIterations, double focusX, double focusY) {
+        return publishTiles(state, maxIterations, focusX, focusY, TilePublisher.NEW_THREAD);
+    }
+    
+    /**
+     * Continue a previous calculation as a stream of tiles, nearest to the focus point first
+     * @param executor Runs the calculation of every subscriber
+     */
+    default Flow.Publisher<TileResult> publishTiles(IterationState state, int maxIterations, double focusX, double focusY,
+                                                    Executor executor) {
+        return new TilePublisher(listener -> calculateIterations(state, maxIterations, focusX, focusY, listener), executor);
+    }
+    
+    StrategyType getType();
+    
+    /**
+     * Describe the strategy together with its parallelism and granularity, for the statistics display
+     */
+    default String describeConfiguration() {
+        return getType().getDisplayName();
+    }
+    
+    @Override
+    void close();
+    
+    enum StrategyType {
+        EXECUTOR_SERVICE("Executor Service (Multi-threaded)"),
+        FORK_JOIN("Fork/Join Framework"),
+        SINGLE_THREADED("Single Thread"),
+        AUTO("Auto (Self-Tuning)");
+        
+        private final String displayName;
+        
+        StrategyType(String displayName) {
+            this.displayName = displayName;
+        }
+        
+        public String getDisplayName() {
+            return displayName;
+        }
+        
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+    
+    static MandelbrotCalculatorStrategy create(StrategyType type) {
+      return switch (type) {
+        case EXECUTOR_SERVICE -> new MandelbrotCalculator();
+        case FORK_JOIN -> new MandelbrotCalculatorFJ();
+        case SINGLE_THREADED -> new SingleThreadedCalculator();
+        case AUTO -> new AutoTuningCalculator();
+      };
+    }
+
+    static MandelbrotCalculatorStrategy create(StrategyType type, int parallelism) {
+      return switch (type) {
+        case EXECUTOR_SERVICE -> new MandelbrotCalculator(parallelism);
+        case FORK_JOIN -> new MandelbrotCalculatorFJ(parallelism);
+        case SINGLE_THREADED -> new SingleThreadedCalculator();
+        case AUTO -> new AutoTuningCalculator(parallelism);
+      };
+    }
+}
\ No newline at end of file
@@ -5,7 +5,6 @@ package ca.bazlur.mandelbrot;
  * z(n+1) = z(n)^d + c, where d is the power (degree)
  */
 public class MultibrotFractal implements Fractal {
-    private static final double ESCAPE_RADIUS_SQUARED = 256.0;
     private final double power;
     
     public MultibrotFractal(double power) {
@@ -14,15 +13,32 @@ public class MultibrotFractal implements Fractal {
     
     @Override
     public int calculateIterations(ComplexNumber c, int maxIterations) {
-        ComplexNumber z = new ComplexNumber(0, 0);
-        int iterations = 0;
-        
-        while (z.magnitudeSquared() < ESCAPE_RADIUS_SQUARED && iterations < maxIterations) {
-            z = complexPower(z, power).add(c);
-            iterations++;
+        return iterate(c, new ComplexNumber(0, 0), 0, maxIterations, null, 0);
+    }
+    
+    @Override
+    public int orbitStateSize() {
+        return 2;
+    }
+    
+    @Override
+    public int resumeIterations(ComplexNumber c, int iterations, int maxIterations, double[] orbit, int offset) {
+        ComplexNumber z = iterations == 0 ? new ComplexNumber(0, 0)
+                                          : new ComplexNumber(orbit[offset], orbit[offset + 1]);
+        return iterate(c, z, iterations, maxIterations, orbit, offset);
+    }
+    
+    /**
+     * Run the escape-time loop from start, which has already taken the given iterations
+     * @param orbit Receives the final z when not null
+     */
+    private int iterate(ComplexNumber c, ComplexNumber start, int iterations, int maxIterations, double[] orbit, int offset) {
+        var result = EscapeTime.iterate(start, iterations, maxIterations, z -> complexPower(z, power).add(c));
+        if (orbit != null) {
+            orbit[offset] = result.z().real();
+            orbit[offset + 1] = result.z().imaginary();
         }
-        
-        return iterations;
+        return result.iterations();
     }
     
     /**
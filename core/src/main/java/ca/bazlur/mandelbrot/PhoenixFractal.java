@@ -0,0 +1,80 @@
+package ca.bazlur.mandelbrot;
+
+/**
+ * Implementation of the Phoenix fractal
+ * z(n+1) = z(n)^2 + c + p*z(n-1)
+ */
+public class PhoenixFractal implements Fractal {
+    private final double p; // Phoenix parameter
+    
+    /** z together with z(n-1), iterated as one state */
+    private value record State(ComplexNumber z, ComplexNumber zPrev) {
+    }
+    
+    public PhoenixFractal() {
+        this.p = 0.56667; // Default interesting value
+    }
+    
+    public PhoenixFractal(double p) {
+        this.p = p;
+    }
+    
+    @Override
+    public int calculateIterations(ComplexNumber c, int maxIterations) {
+        return iterate(c, new ComplexNumber(0, 0), new ComplexNumber(0, 0), 0, maxIterations, null, 0);
+    }
+    
+    @Override
+    public int orbitStateSize() {
+        return 4; // z and z(n-1)
+    }
+    
+    @Override
+    public int resumeIterations(ComplexNumber c, int iterations, int maxIterations, double[] orbit, int offset) {
+        ComplexNumber z = new ComplexNumber(0, 0);
+        ComplexNumber zPrev = new ComplexNumber(0, 0);
+        if (iterations > 0) {
+            z = new ComplexNumber(orbit[offset], orbit[offset + 1]);
+            zPrev = new ComplexNumber(orbit[offset + 2], orbit[offset + 3]);
+        }
+        return iterate(c, z, zPrev, iterations, maxIterations, orbit, offset);
+    }
+    
+    /**
+     * Run the escape-time loop from z and z(n-1), which have already taken the given iterations
+     * @param orbit Receives the final z and z(n-1) when not null
+     */
+    private int iterate(ComplexNumber c, ComplexNumber z, ComplexNumber zPrev, int iterations, int maxIterations,
+                        double[] orbit, int offset) {
+        var result = EscapeTime.iterate(new State(z, zPrev), iterations, maxIterations, state -> {
+            ComplexNumber zNext = state.z().square().add(c).add(
+                new ComplexNumber(p * state.zPrev().real(), p * state.zPrev().imaginary())
+            );
+            return new State(zNext, state.z());
+        }, state -> state.z().magnitudeSquared());
+        
+        if (orbit != null) {
+            State state = result.z();
+            orbit[offset] = state.z().real();
+            orbit[offset + 1] = state.z().imaginary();
+            orbit[offset + 2] = state.zPrev().real();
+            orbit[offset + 3] = state.zPrev().imaginary();
+        }
+        return result.iterations();
+    }
+    
+    @Override
+    public String getName() {
+        return String.format("Phoenix (p=%.3f)", p);
+    }
+    
+    @Override
+    public String getDescription() {
+        return String.format("Phoenix fractal: z(n+1) = z(n)² + c + %.3f*z(n-1)", p);
+    }
+    
+    @Override
+    public ComplexNumber getDefaultCenter() {
+        return new ComplexNumber(0, 0);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,305 @@
+package ca.bazlur.mandelbrot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes a PNG row by row, without holding the image in memory.
+ * The filtered rows are cut into blocks that are deflated in parallel, pigz style: every block is primed
+ * with the last 32KB of the block before it, so compression is as good as with a single deflater,
+ * and ends on a byte boundary so the compressed blocks can simply be concatenated into one zlib stream.
+ * Images with at most 256 colors are written as 8-bit indexed PNG, others as 24-bit truecolor.
+ */
+public class PngWriter implements ImageSink {
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] ZLIB_HEADER = {0x78, (byte) 0x9C}; // Deflate, 32KB window, default level
+    private static final int BLOCK_SIZE = 128 * 1024;
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+    private static final int FILTER_NONE = 0;
+    private static final int FILTER_SUB = 1;
+    private static final int MAX_PALETTE_SIZE = 256;
+
+    private final WritableByteChannel channel;
+    private final ForkJoinPool pool;
+    private final int width;
+    private final int height;
+    private final int[] palette; // Sorted RGB values, null for truecolor
+    private final int maxBlocksInFlight;
+    private final Deque<Future<ByteBuffer>> blocks = new ArrayDeque<>();
+    private final Adler32 adler = new Adler32();
+    private final byte[] scanline;
+    private byte[] block = new byte[BLOCK_SIZE];
+    private byte[] previousBlock; // Null until the first block is submitted
+    private int blockSize;
+    private int rowsWritten;
+    private boolean headerWritten; // Written with the first rows, so a failed constructor has nothing to clean up
+    private int lastColor = -1; // Palette lookup cache, neighbouring pixels often share a color
+    private int lastIndex;
+
+    /**
+     * @param palette The colors of the image as returned by {@link #indexedPalette}, null to write truecolor
+     */
+    public PngWriter(Path file, int width, int height, int[] palette) throws IOException {
+        this(open(file, width, height, palette), width, height, palette, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Nothing is written until the first rows, the channel is closed by {@link #close}
+     */
+    public PngWriter(WritableByteChannel channel, int width, int height, int[] palette, ForkJoinPool pool) {
+        checkArguments(width, height, palette);
+        this.channel = channel;
+        this.pool = pool;
+        this.width = width;
+        this.height = height;
+        this.palette = palette;
+        this.maxBlocksInFlight = 2 * pool.getParallelism();
+        this.scanline = new byte[1 + width * (palette != null ? 1 : 3)];
+    }
+
+    /**
+     * Check the arguments before the file is opened, so invalid ones do not leave an open channel behind
+     */
+    private static FileChannel open(Path file, int width, int height, int[] palette) throws IOException {
+        checkArguments(width, height, palette);
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                                StandardOpenOption.WRITE);
+    }
+
+    private static void checkArguments(int width, int height, int[] palette) {
+        if (width <= 0 || height <= 0 || width > (Integer.MAX_VALUE - 1) / 3) {
+            throw new IllegalArgumentException("Invalid image size " + width + "x" + height);
+        }
+        if (palette != null && (palette.length == 0 || palette.length > MAX_PALETTE_SIZE)) {
+            throw new IllegalArgumentException("Palette has " + palette.length + " colors");
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        write(ByteBuffer.wrap(SIGNATURE));
+        ByteBuffer header = ByteBuffer.allocate(13)
+            .putInt(width)
+            .putInt(height)
+            .put((byte) 8)                            // Bit depth
+            .put((byte) (palette != null ? 3 : 2))    // Indexed or truecolor
+            .put((byte) 0)                            // Deflate
+            .put((byte) 0)                            // Adaptive filtering
+            .put((byte) 0);                           // No interlace
+        write(chunk("IHDR", header.array(), 0, 13));
+        if (palette != null) {
+            byte[] entries = new byte[palette.length * 3];
+            for (int i = 0; i < palette.length; i++) {
+                entries[i * 3] = (byte) (palette[i] >> 16);
+                entries[i * 3 + 1] = (byte) (palette[i] >> 8);
+                entries[i * 3 + 2] = (byte) palette[i];
+            }
+            write(chunk("PLTE", entries, 0, entries.length));
+        }
+        headerWritten = true;
+    }
+
+    /**
+     * Collect the colors of an image for indexed output
+     * @param argb Every color the image uses, in any order and with repetitions
+     * @return The distinct colors, sorted and without alpha, or null if there are more than 256
+     */
+    public static int[] indexedPalette(int[] argb) {
+        int[] colors = new int[MAX_PALETTE_SIZE];
+        int count = 0;
+        for (int pixel : argb) {
+            int rgb = pixel & 0xFFFFFF;
+            if (Arrays.binarySearch(colors, 0, count, rgb) < 0) {
+                if (count == MAX_PALETTE_SIZE) {
+                    return null;
+                }
+                colors[count++] = rgb;
+                Arrays.sort(colors, 0, count);
+            }
+        }
+        return Arrays.copyOf(colors, count);
+    }
+
+    @Override
+    public void writeRows(int[] argb, int rows) throws IOException {
+        if (rowsWritten + rows > height) {
+            throw new IllegalStateException("Image has only " + height + " rows");
+        }
+        if (!headerWritten) {
+            writeHeader();
+        }
+        for (int row = 0; row < rows; row++) {
+            if (palette != null) {
+                filterIndexed(argb, row * width);
+            } else {
+                filterTruecolor(argb, row * width);
+            }
+            adler.update(scanline);
+            append(scanline);
+        }
+        rowsWritten += rows;
+    }
+
+    /**
+     * Indexed rows are not filtered, the differences of palette indices do not compress better than the indices
+     */
+    private void filterIndexed(int[] argb, int offset) {
+        scanline[0] = FILTER_NONE;
+        for (int x = 0; x < width; x++) {
+            int rgb = argb[offset + x] & 0xFFFFFF;
+            if (rgb != lastColor) {
+                lastIndex = Arrays.binarySearch(palette, rgb);
+                if (lastIndex < 0) {
+                    throw new IllegalArgumentException(String.format("Color %06x is not in the palette", rgb));
+                }
+                lastColor = rgb;
+            }
+            scanline[1 + x] = (byte) lastIndex;
+        }
+    }
+
+    /**
+     * The Sub filter suits the smooth gradients of fractal images
+     */
+    private void filterTruecolor(int[] argb, int offset) {
+        scanline[0] = FILTER_SUB;
+        int previous = 0;
+        for (int x = 0; x < width; x++) {
+            int pixel = argb[offset + x];
+            int i = 1 + x * 3;
+            scanline[i] = (byte) ((pixel >> 16) - (previous >> 16));
+            scanline[i + 1] = (byte) ((pixel >> 8) - (previous >> 8));
+            scanline[i + 2] = (byte) (pixel - previous);
+            previous = pixel;
+        }
+    }
+
+    private void append(byte[] bytes) throws IOException {
+        int offset = 0;
+        while (offset < bytes.length) {
+            int count = Math.min(bytes.length - offset, BLOCK_SIZE - blockSize);
+            System.arraycopy(bytes, offset, block, blockSize, count);
+            blockSize += count;
+            offset += count;
+            if (blockSize == BLOCK_SIZE) {
+                submitBlock(false);
+            }
+        }
+    }
+
+    /**
+     * Hand the current block to the pool, writing finished blocks first if too many are in flight
+     */
+    private void submitBlock(boolean last) throws IOException {
+        byte[] raw = block;
+        int length = blockSize;
+        byte[] dictionary = previousBlock;
+        boolean first = dictionary == null;
+        int checksum = (int) adler.getValue();
+        blocks.add(pool.submit(() -> compress(raw, length, dictionary, first, last, checksum)));
+        previousBlock = raw;
+        block = new byte[BLOCK_SIZE];
+        blockSize = 0;
+        while (blocks.size() > (last ? 0 : maxBlocksInFlight)) {
+            writeNextBlock();
+        }
+    }
+
+    private void writeNextBlock() throws IOException {
+        try {
+            write(blocks.remove().get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("PNG encoding interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("PNG encoding failed", e.getCause());
+        }
+    }
+
+    /**
+     * Deflate one block into an IDAT chunk, on a pool thread
+     * @param dictionary The block before this one, whose last 32KB this block may refer back to
+     * @param checksum The Adler-32 of all rows, only used for the last block
+     */
+    private static ByteBuffer compress(byte[] raw, int length, byte[] dictionary, boolean first, boolean last, int checksum) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary, dictionary.length - DICTIONARY_SIZE, DICTIONARY_SIZE);
+            }
+            deflater.setInput(raw, 0, length);
+            if (last) {
+                deflater.finish();
+            }
+            // Deflate can grow incompressible data slightly, leave room for that and the zlib framing
+            byte[] compressed = new byte[length + length / 1000 + 64];
+            int size = 0;
+            if (first) {
+                compressed[size++] = ZLIB_HEADER[0];
+                compressed[size++] = ZLIB_HEADER[1];
+            }
+            int flush = last ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH; // Sync flush ends on a byte boundary
+            while (true) {
+                size += deflater.deflate(compressed, size, compressed.length - size, flush);
+                if (last ? deflater.finished() : size < compressed.length) {
+                    break;
+                }
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            if (last) {
+                compressed = Arrays.copyOf(compressed, size + 4);
+                ByteBuffer.wrap(compressed, size, 4).putInt(checksum);
+                size += 4;
+            }
+            return chunk("IDAT", compressed, 0, size);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (rowsWritten != height) {
+                throw new IllegalStateException("Wrote " + rowsWritten + " of " + height + " rows");
+            }
+            submitBlock(true);
+            write(chunk("IEND", new byte[0], 0, 0));
+        } finally {
+            blocks.forEach(block -> block.cancel(false));
+            channel.close();
+        }
+    }
+
+    private static ByteBuffer chunk(String type, byte[] data, int offset, int length) {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data, offset, length);
+        return ByteBuffer.allocate(12 + length)
+            .putInt(length)
+            .put(typeBytes)
+            .put(data, offset, length)
+            .putInt((int) crc.getValue())
+            .flip();
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
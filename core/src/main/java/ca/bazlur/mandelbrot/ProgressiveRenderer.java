@@ -0,0 +1,111 @@
+package ca.bazlur.mandelbrot;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntBinaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Renders a frame coarse to fine: every 8th pixel first, then every 4th, 2nd and finally all of them.
+ * Each pass only computes the pixels that no earlier pass computed, and is handed to a listener as soon
+ * as it is done, so a block-upscaled preview can be shown long before the full frame completes.
+ * The final iterations are identical to those of the calculation strategies.
+ */
+public class ProgressiveRenderer {
+    /** Pixel strides of the passes, from coarsest to full resolution */
+    public static final int[] STRIDES = {8, 4, 2, 1};
+
+    private final ForkJoinPool pool;
+
+    @FunctionalInterface
+    public interface PassListener {
+        /**
+         * Called from a worker thread after every pass
+         * @param iterations The frame, final at every pixel whose coordinates are both multiples of stride
+         * @param stride The stride of the pass that just completed
+         */
+        void passCompleted(int[][] iterations, int stride);
+    }
+
+    public ProgressiveRenderer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ProgressiveRenderer(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Render a new frame
+     * @param cancelled Checked before every row, the render stops with a CancellationException once it returns true
+     */
+    public int[][] render(int width, int height, double centerX, double centerY, double zoom, int maxIterations,
+                          Fractal fractal, PassListener listener, BooleanSupplier cancelled) {
+        int[][] iterations = new int[width][height];
+        render(iterations, width, height, (x, y) -> {
+            double real = (x - width / 2.0) / zoom + centerX;
+            double imaginary = (y - height / 2.0) / zoom + centerY;
+            return fractal.calculateIterations(new ComplexNumber(real, imaginary), maxIterations);
+        }, listener, cancelled);
+        return iterations;
+    }
+
+    /**
+     * Render a frame into a new iteration state, keeping the orbits so the frame can be resumed later
+     * @param cancelled Checked before every row, the render stops with a CancellationException once it returns true
+     */
+    public int[][] render(IterationState state, int maxIterations, PassListener listener, BooleanSupplier cancelled) {
+        if (state.getMaxIterations() > 0) {
+            throw new IllegalArgumentException("Progressive rendering starts a frame, resume it with a strategy instead");
+        }
+        render(state.getIterations(), state.getWidth(), state.getHeight(),
+               (x, y) -> state.advancePoint(x, y, maxIterations), listener, cancelled);
+        state.complete(maxIterations);
+        return state.getIterations();
+    }
+
+    private void render(int[][] iterations, int width, int height, IntBinaryOperator point,
+                        PassListener listener, BooleanSupplier cancelled) {
+        RenderMetrics.Frame frame = RenderMetrics.get().frameStarted((long) width * height);
+        for (int i = 0; i < STRIDES.length; i++) {
+            int stride = STRIDES[i];
+            int previousStride = i == 0 ? 0 : STRIDES[i - 1];
+            frame.tilesQueued(1);
+            long total = pool.submit(() -> IntStream.range(0, (height + stride - 1) / stride).parallel()
+                .mapToLong(row -> computeRow(iterations, row * stride, width, stride, previousStride, point, frame, cancelled))
+                .sum()).join();
+            frame.tileCompleted(total);
+            if (cancelled.getAsBoolean()) {
+                throw new CancellationException();
+            }
+            listener.passCompleted(iterations, stride);
+        }
+        frame.completed();
+    }
+
+    /**
+     * Compute the pixels of row y on the stride grid that are not on the grid of the previous pass
+     * @return The iterations of the computed pixels
+     */
+    private static long computeRow(int[][] iterations, int y, int width, int stride, int previousStride,
+                                   IntBinaryOperator point, RenderMetrics.Frame frame, BooleanSupplier cancelled) {
+        if (cancelled.getAsBoolean()) {
+            return 0;
+        }
+        // On rows the previous pass visited, only the pixels between its samples are new
+        boolean visited = previousStride > 0 && y % previousStride == 0;
+        int first = visited ? stride : 0;
+        int step = visited ? previousStride : stride;
+        long total = 0;
+        int pixels = 0;
+        for (int x = first; x < width; x += step) {
+            int count = point.applyAsInt(x, y);
+            iterations[x][y] = count;
+            total += count;
+            pixels++;
+        }
+        frame.pixelsCompleted(pixels);
+        return total;
+    }
+}
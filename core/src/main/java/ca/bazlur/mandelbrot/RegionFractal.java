@@ -0,0 +1,41 @@
+package ca.bazlur.mandelbrot;
+
+/**
+ * Maps the pixel coordinates of a region to the points of the larger frame the region is part of.
+ * A strategy calculating the region at zoom 1, centered on the region's own middle, passes its pixel
+ * coordinates through unchanged, so every point is computed exactly as the whole frame would compute it.
+ */
+class RegionFractal implements Fractal {
+    private final Fractal fractal;
+    private final double offsetX;
+    private final double offsetY;
+    private final double centerX;
+    private final double centerY;
+    private final double zoom;
+
+    RegionFractal(Fractal fractal, int frameWidth, int frameHeight, Tile region, double centerX, double centerY, double zoom) {
+        this.fractal = fractal;
+        this.offsetX = region.x() - frameWidth / 2.0;
+        this.offsetY = region.y() - frameHeight / 2.0;
+        this.centerX = centerX;
+        this.centerY = centerY;
+        this.zoom = zoom;
+    }
+
+    @Override
+    public int calculateIterations(ComplexNumber pixel, int maxIterations) {
+        double real = (pixel.real() + offsetX) / zoom + centerX;
+        double imaginary = (pixel.imaginary() + offsetY) / zoom + centerY;
+        return fractal.calculateIterations(new ComplexNumber(real, imaginary), maxIterations);
+    }
+
+    @Override
+    public String getName() {
+        return fractal.getName();
+    }
+
+    @Override
+    public String getDescription() {
+        return fractal.getDescription();
+    }
+}
@@ -0,0 +1,265 @@
+package ca.bazlur.mandelbrot;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Renders a fixed list of scenes with every strategy and reports throughput, allocation and CPU time,
+ * to compare hardware and JDK builds against a baseline. CPU time is reported for the whole process
+ * and for the busiest and the least busy thread, so that unevenly loaded workers show up.
+ * Runs from the Tools menu or headless with {@code --benchmark}.
+ */
+public class RenderBenchmark {
+    public static final String BASELINE_FILE = "benchmark-baseline.csv";
+
+    private static final int WARMUP_RUNS = 1;
+    private static final int MEASURED_RUNS = 3;
+    private static final int WIDTH = 1000;
+    private static final int HEIGHT = 800;
+    // Threads that were busy for less than this share of the wall time, such as idle pool threads, are not counted
+    private static final double BUSY_THREAD_SHARE = 0.05;
+
+    static final List<BenchmarkScene> SCENES = createScenes();
+
+    private final com.sun.management.ThreadMXBean threadBean =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final com.sun.management.OperatingSystemMXBean osBean =
+        (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+    private static List<BenchmarkScene> createScenes() {
+        List<BenchmarkScene> scenes = new ArrayList<>();
+        for (FractalType type : FractalType.values()) {
+            scenes.add(BenchmarkScene.defaultView(type, WIDTH, HEIGHT, 500));
+        }
+        scenes.add(new BenchmarkScene("Seahorse Valley", FractalType.MANDELBROT, -0.75, 0.1, 500, WIDTH, HEIGHT, 1000));
+        scenes.add(new BenchmarkScene("Mini Mandelbrot", FractalType.MANDELBROT, -1.25066, 0.02012, 100000, WIDTH, HEIGHT, 1000));
+        return scenes;
+    }
+
+    /**
+     * Render every scene with every strategy
+     * @param progress Receives a message before each measurement
+     * @return One result per scene and strategy
+     */
+    public List<BenchmarkResult> run(Consumer<String> progress) {
+        List<BenchmarkResult> results = new ArrayList<>();
+        for (MandelbrotCalculatorStrategy.StrategyType type : MandelbrotCalculatorStrategy.StrategyType.values()) {
+            try (MandelbrotCalculatorStrategy calculator = MandelbrotCalculatorStrategy.create(type)) {
+                for (BenchmarkScene scene : SCENES) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        return results;
+                    }
+                    progress.accept(String.format("%s with %s (%d/%d)", scene.name(), type,
+                        results.size() + 1, SCENES.size() * MandelbrotCalculatorStrategy.StrategyType.values().length));
+                    results.add(measure(calculator, type, scene));
+                }
+            }
+        }
+        return results;
+    }
+
+    private BenchmarkResult measure(MandelbrotCalculatorStrategy calculator,
+                                    MandelbrotCalculatorStrategy.StrategyType type, BenchmarkScene scene) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            render(calculator, scene);
+        }
+
+        long totalIterations = 0;
+        long allocatedBefore = threadBean.getTotalThreadAllocatedBytes();
+        long cpuBefore = osBean.getProcessCpuTime();
+        Map<Long, Long> threadCpuBefore = threadCpuTimes();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            totalIterations += sum(render(calculator, scene));
+        }
+        long wallNanos = System.nanoTime() - start;
+        long cpuNanos = osBean.getProcessCpuTime() - cpuBefore;
+        Map<Long, Long> threadCpuAfter = threadCpuTimes();
+        long allocated = threadBean.getTotalThreadAllocatedBytes() - allocatedBefore;
+
+        double seconds = wallNanos / 1e9;
+        double pixels = (double) scene.width() * scene.height() * MEASURED_RUNS;
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        int busyThreads = 0;
+        long busiestNanos = 0;
+        long quietestNanos = 0;
+        for (Map.Entry<Long, Long> thread : threadCpuAfter.entrySet()) {
+            long threadNanos = thread.getValue() - threadCpuBefore.getOrDefault(thread.getKey(), 0L);
+            if (threadNanos >= wallNanos * BUSY_THREAD_SHARE) {
+                quietestNanos = busyThreads == 0 ? threadNanos : Math.min(quietestNanos, threadNanos);
+                busiestNanos = Math.max(busiestNanos, threadNanos);
+                busyThreads++;
+            }
+        }
+
+        return new BenchmarkResult(scene.name(), type, scene.width(), scene.height(), scene.maxIterations(),
+            wallNanos / 1e6 / MEASURED_RUNS,
+            pixels / seconds / 1e6,
+            totalIterations / seconds / 1e6,
+            allocated / (1024.0 * 1024.0) / MEASURED_RUNS,
+            // Process wide, so one busy thread on eight cores shows as 12.5%
+            (double) cpuNanos / wallNanos / cores,
+            cpuNanos / 1e9 / MEASURED_RUNS,
+            busyThreads,
+            (double) busiestNanos / wallNanos,
+            (double) quietestNanos / wallNanos);
+    }
+
+    /**
+     * Get the CPU time of every application thread; JVM threads such as the JIT compilers are left out
+     * @return CPU nanoseconds by thread id
+     */
+    private Map<Long, Long> threadCpuTimes() {
+        Map<Long, Long> times = new HashMap<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            ThreadGroup group = thread.getThreadGroup();
+            if (group == null || group.getParent() == null) {
+                continue; // Terminated, or in the system group
+            }
+            long nanos = threadBean.getThreadCpuTime(thread.threadId());
+            if (nanos >= 0) {
+                times.put(thread.threadId(), nanos);
+            }
+        }
+        return times;
+    }
+
+    private static int[][] render(MandelbrotCalculatorStrategy calculator, BenchmarkScene scene) {
+        // New instance every time, fractals may carry mutable parameters
+        Fractal fractal = scene.fractalType().create();
+        return calculator.calculateIterations(scene.width(), scene.height(), scene.centerX(), scene.centerY(),
+            scene.zoom(), scene.maxIterations(), fractal);
+    }
+
+    private static long sum(int[][] iterations) {
+        long total = 0;
+        for (int[] column : iterations) {
+            for (int count : column) {
+                total += count;
+            }
+        }
+        return total;
+    }
+
+    public static void writeCsv(List<BenchmarkResult> results, Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(BenchmarkResult.CSV_HEADER);
+        for (BenchmarkResult result : results) {
+            lines.add(result.toCsv());
+        }
+        Files.write(file, lines);
+    }
+
+    public static void writeJson(List<BenchmarkResult> results, Path file) throws IOException {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"java\": \"").append(System.getProperty("java.vm.name")).append(' ')
+            .append(System.getProperty("java.runtime.version")).append("\",\n");
+        json.append("  \"os\": \"").append(System.getProperty("os.name")).append(' ')
+            .append(System.getProperty("os.arch")).append("\",\n");
+        json.append("  \"processors\": ").append(Runtime.getRuntime().availableProcessors()).append(",\n");
+        json.append("  \"results\": [\n");
+        for (int i = 0; i < results.size(); i++) {
+            json.append("    ").append(results.get(i).toJson());
+            json.append(i < results.size() - 1 ? ",\n" : "\n");
+        }
+        json.append("  ]\n}\n");
+        Files.writeString(file, json);
+    }
+
+    public static Map<String, BenchmarkResult> readCsv(Path file) throws IOException {
+        Map<String, BenchmarkResult> results = new LinkedHashMap<>();
+        List<String> lines = Files.readAllLines(file);
+        for (String line : lines.subList(1, lines.size())) {
+            if (!line.isBlank()) {
+                BenchmarkResult result = BenchmarkResult.fromCsv(line);
+                results.put(result.key(), result);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Format the results as a table, with the throughput change against the baseline when one is given
+     */
+    public static String summarize(List<BenchmarkResult> results, Map<String, BenchmarkResult> baseline) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "%-34s %-18s %10s %10s %10s %10s %8s %8s %7s %8s %8s %9s%n",
+            "Scene", "Strategy", "ms", "Mpix/s", "Miter/s", "MB alloc", "CPU avg", "CPU s", "Threads", "Busiest",
+            "Quietest", "vs base"));
+        for (BenchmarkResult result : results) {
+            BenchmarkResult base = baseline.get(result.key());
+            String change = base == null ? "-" : String.format(Locale.ROOT, "%+.1f%%",
+                (result.mpixelsPerSecond() / base.mpixelsPerSecond() - 1) * 100);
+            report.append(String.format(Locale.ROOT, "%-34s %-18s %10.1f %10.2f %10.1f %10.1f %7.0f%% %8.2f %7d %7.0f%% %7.0f%% %9s%n",
+                result.scene(), result.strategy().name(), result.wallMillis(), result.mpixelsPerSecond(),
+                result.miterationsPerSecond(), result.allocatedMegabytes(), result.cpuUtilization() * 100,
+                result.cpuSeconds(), result.busyThreads(), result.busiestThreadUtilization() * 100,
+                result.quietestThreadUtilization() * 100, change));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Write the CSV and JSON reports into a directory
+     * @return The CSV file that was written
+     */
+    public static Path writeReports(List<BenchmarkResult> results, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        String name = "benchmark_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        Path csv = directory.resolve(name + ".csv");
+        writeCsv(results, csv);
+        writeJson(results, directory.resolve(name + ".json"));
+        return csv;
+    }
+
+    /**
+     * Run the benchmark without starting the user interface.
+     * Options: {@code --output=<dir>}, {@code --baseline=<csv>}, {@code --save-baseline}
+     * @return The process exit code
+     */
+    public static int runHeadless(String[] args) {
+        Path output = Path.of(".");
+        Path baselineFile = Path.of(BASELINE_FILE);
+        boolean saveBaseline = false;
+        for (String arg : args) {
+            if (arg.startsWith("--output=")) {
+                output = Path.of(arg.substring("--output=".length()));
+            } else if (arg.startsWith("--baseline=")) {
+                baselineFile = Path.of(arg.substring("--baseline=".length()));
+            } else if (arg.equals("--save-baseline")) {
+                saveBaseline = true;
+            }
+        }
+
+        try {
+            List<BenchmarkResult> results = new RenderBenchmark().run(System.out::println);
+            Map<String, BenchmarkResult> baseline = Files.exists(baselineFile) ? readCsv(baselineFile) : Map.of();
+            System.out.println();
+            System.out.print(summarize(results, baseline));
+
+            Path csv = writeReports(results, output);
+            System.out.println("\nResults written to " + csv.toAbsolutePath());
+            if (saveBaseline) {
+                writeCsv(results, baselineFile);
+                System.out.println("Baseline saved to " + baselineFile.toAbsolutePath());
+            }
+            return 0;
+        } catch (IOException e) {
+            System.err.println("Failed to write benchmark results: " + e.getMessage());
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package ca.bazlur.mandelbrot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The progress of a long render on disk, so it survives the application: a manifest with the export spec
+ * and an append-only journal of the tiles calculated so far. Each journal record holds a tile and its
+ * compressed iterations with a checksum; a record torn by a crash is dropped when the checkpoint is opened.
+ * The journal is forced to disk every {@value #FORCE_INTERVAL_MILLIS} ms, so at most that much work is lost.
+ */
+public class RenderCheckpoint implements Closeable {
+    /** Where the application keeps the checkpoints of unfinished renders */
+    public static final Path DEFAULT_ROOT = Path.of(System.getProperty("user.home"), ".mandelbrot", "checkpoints");
+
+    private static final String MANIFEST = "manifest.properties";
+    private static final String JOURNAL = "tiles.journal";
+    private static final int RECORD_HEADER = 6 * Integer.BYTES; // x, y, width, height, length, CRC
+    private static final long FORCE_INTERVAL_MILLIS = 5_000;
+
+    private final Path directory;
+    private final ExportSpec spec;
+    private final FileChannel journal;
+    private final Map<Tile, Long> offsets = new ConcurrentHashMap<>(); // Record of every journaled tile
+    private long completedPixels;
+    private long lastForce = System.currentTimeMillis();
+
+    private RenderCheckpoint(Path directory, ExportSpec spec) throws IOException {
+        this.directory = directory;
+        this.spec = spec;
+        this.journal = FileChannel.open(directory.resolve(JOURNAL), StandardOpenOption.CREATE,
+                                        StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Start a checkpoint for a new render in a new directory under root
+     */
+    public static RenderCheckpoint create(Path root, ExportSpec spec) throws IOException {
+        Files.createDirectories(root);
+        Path directory = Files.createTempDirectory(root, "render-");
+        Path manifest = directory.resolve(MANIFEST);
+        Path partial = directory.resolve(MANIFEST + ".part");
+        try (Writer writer = Files.newBufferedWriter(partial)) {
+            spec.toProperties().store(writer, "Render in progress, tiles are in " + JOURNAL);
+        }
+        Files.move(partial, manifest, StandardCopyOption.ATOMIC_MOVE);
+        return new RenderCheckpoint(directory, spec);
+    }
+
+    /**
+     * Open the checkpoint of an interrupted render, keeping every complete journal record
+     */
+    public static RenderCheckpoint open(Path directory) throws IOException {
+        Properties manifest = new Properties();
+        try (Reader reader = Files.newBufferedReader(directory.resolve(MANIFEST))) {
+            manifest.load(reader);
+        }
+        RenderCheckpoint checkpoint = new RenderCheckpoint(directory, ExportSpec.fromProperties(manifest));
+        checkpoint.recover();
+        return checkpoint;
+    }
+
+    /**
+     * Find the checkpoints of unfinished renders under root, oldest first
+     */
+    public static List<Path> findUnfinished(Path root) throws IOException {
+        if (!Files.isDirectory(root)) {
+            return List.of();
+        }
+        try (Stream<Path> directories = Files.list(root)) {
+            return directories
+                .filter(directory -> Files.exists(directory.resolve(MANIFEST)))
+                .sorted(Comparator.comparing(directory -> directory.toFile().lastModified()))
+                .toList();
+        }
+    }
+
+    /**
+     * Index the journal and cut off a record that a crash left incomplete
+     */
+    private void recover() throws IOException {
+        long size = journal.size();
+        long offset = 0;
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+        while (offset + RECORD_HEADER <= size) {
+            header.clear();
+            readFully(header, offset);
+            header.flip();
+            Tile tile = new Tile(header.getInt(), header.getInt(), header.getInt(), header.getInt());
+            int length = header.getInt();
+            int crc = header.getInt();
+            if (length < 0 || offset + RECORD_HEADER + length > size || checksum(readPayload(offset, length)) != crc) {
+                break;
+            }
+            offsets.put(tile, offset);
+            completedPixels += tile.pixels();
+            offset += RECORD_HEADER + length;
+        }
+        journal.truncate(offset);
+    }
+
+    /**
+     * Check if a tile was calculated before
+     */
+    public boolean contains(Tile tile) {
+        return offsets.containsKey(tile);
+    }
+
+    /**
+     * Read the iterations of a journaled tile
+     * @return The iterations, indexed from the tile's top left corner
+     */
+    public int[][] read(Tile tile) throws IOException {
+        long offset = offsets.get(tile);
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(header, offset);
+        int length = header.getInt(4 * Integer.BYTES);
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(readPayload(offset, length));
+            ByteBuffer values = ByteBuffer.allocate(Math.toIntExact((long) tile.pixels() * Integer.BYTES))
+                                          .order(ByteOrder.LITTLE_ENDIAN);
+            inflater.inflate(values);
+            if (values.hasRemaining() || !inflater.finished()) {
+                throw new IOException("Corrupt journal record for " + tile + ", it does not hold the whole tile");
+            }
+            values.flip();
+            int[][] iterations = new int[tile.width()][tile.height()];
+            for (int[] column : iterations) {
+                values.asIntBuffer().get(column);
+                values.position(values.position() + column.length * Integer.BYTES);
+            }
+            return iterations;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt journal record for " + tile, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Append a calculated tile to the journal, forcing it to disk if the last force is long enough ago
+     */
+    public synchronized void append(Tile tile, int[][] iterations) throws IOException {
+        ByteBuffer values = ByteBuffer.allocate(Math.toIntExact((long) tile.pixels() * Integer.BYTES))
+                                      .order(ByteOrder.LITTLE_ENDIAN);
+        for (int x = 0; x < tile.width(); x++) {
+            values.asIntBuffer().put(iterations[x], 0, tile.height());
+            values.position(values.position() + tile.height() * Integer.BYTES);
+        }
+        values.flip();
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        List<ByteBuffer> chunks = new ArrayList<>();
+        int length = 0;
+        try {
+            deflater.setInput(values);
+            deflater.finish();
+            while (!deflater.finished()) {
+                ByteBuffer chunk = ByteBuffer.allocate(64 * 1024);
+                deflater.deflate(chunk);
+                length += chunk.flip().remaining();
+                chunks.add(chunk);
+            }
+        } finally {
+            deflater.end();
+        }
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        chunks.forEach(payload::put);
+        payload.flip();
+
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER).order(ByteOrder.LITTLE_ENDIAN)
+            .putInt(tile.x()).putInt(tile.y()).putInt(tile.width()).putInt(tile.height())
+            .putInt(length).putInt(checksum(payload.duplicate()))
+            .flip();
+        long offset = journal.size();
+        long position = offset;
+        for (ByteBuffer buffer : new ByteBuffer[]{header, payload}) {
+            while (buffer.hasRemaining()) {
+                position += journal.write(buffer, position);
+            }
+        }
+        offsets.put(tile, offset);
+        completedPixels += tile.pixels();
+
+        long now = System.currentTimeMillis();
+        if (now - lastForce >= FORCE_INTERVAL_MILLIS) {
+            journal.force(false);
+            lastForce = now;
+        }
+    }
+
+    private ByteBuffer readPayload(long offset, int length) throws IOException {
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        readFully(payload, offset + RECORD_HEADER);
+        return payload.flip();
+    }
+
+    /**
+     * Fill the buffer from the journal, a single positional read may return fewer bytes
+     */
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = journal.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Journal ends inside a record");
+            }
+            position += read;
+        }
+    }
+
+    private static int checksum(ByteBuffer payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Get the fraction of the image that is journaled
+     */
+    public synchronized double completedFraction() {
+        return (double) completedPixels / ((long) spec.width() * spec.height());
+    }
+
+    public ExportSpec getSpec() {
+        return spec;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public void close() throws IOException {
+        journal.close();
+    }
+
+    /**
+     * Close the checkpoint and remove it, once the render it belongs to is complete or abandoned
+     */
+    public void delete() throws IOException {
+        close();
+        Files.deleteIfExists(directory.resolve(JOURNAL));
+        Files.deleteIfExists(directory.resolve(MANIFEST));
+        Files.deleteIfExists(directory);
+    }
+}
@@ -0,0 +1,30 @@
+package ca.bazlur.mandelbrot;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Base of the JFR events recorded along the render path, carrying the view being rendered
+ */
+@Category({"Mandelbrot", "Render"})
+public abstract class RenderEvent extends Event {
+    @Label("Fractal")
+    String fractal;
+
+    @Label("Zoom")
+    double zoom;
+
+    @Label("Max Iterations")
+    int maxIterations;
+
+    @Label("Strategy")
+    String strategy;
+
+    public void describe(Fractal fractal, double zoom, int maxIterations, MandelbrotCalculatorStrategy.StrategyType strategy) {
+        this.fractal = fractal.getName();
+        this.zoom = zoom;
+        this.maxIterations = maxIterations;
+        this.strategy = strategy.name();
+    }
+}
@@ -0,0 +1,258 @@
+package ca.bazlur.mandelbrot;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide render counters updated by the calculation strategies.
+ * Counters are LongAdders so worker threads never contend on them.
+ * Exposed over JMX as {@value #OBJECT_NAME} and shown on the performance HUD.
+ */
+public class RenderMetrics implements RenderMetricsMXBean {
+    public static final String OBJECT_NAME = "ca.bazlur.mandelbrot:type=RenderMetrics";
+
+    /** Upper bounds of the frame latency histogram buckets in milliseconds, the last bucket is unbounded */
+    static final long[] LATENCY_BUCKETS_MILLIS = {5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 30000};
+
+    private static final RenderMetrics INSTANCE = new RenderMetrics();
+
+    private final LongAdder framesCompleted = new LongAdder();
+    private final LongAdder pixelsCompleted = new LongAdder();
+    private final LongAdder iterationsCompleted = new LongAdder();
+    private final LongAdder tilesCompleted = new LongAdder();
+    private final LongAdder tilesQueued = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder[] latencyHistogram = new LongAdder[LATENCY_BUCKETS_MILLIS.length + 1];
+
+    // Most recently started frame, shown as the current one
+    private volatile Frame currentFrame;
+
+    // Last completed frame
+    private volatile long lastFrameNanos;
+    private volatile long lastFramePixels;
+    private volatile long lastFrameIterations;
+
+    private RenderMetrics() {
+        for (int i = 0; i < latencyHistogram.length; i++) {
+            latencyHistogram[i] = new LongAdder();
+        }
+    }
+
+    public static RenderMetrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Register the metrics with the platform MBean server, once per process
+     */
+    public static synchronized void registerMBean() {
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            var server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(name)) {
+                server.registerMBean(INSTANCE, name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Failed to register render metrics MBean", e);
+        }
+    }
+
+    // Updates from the strategies
+
+    /**
+     * Start counting a frame; renders may run concurrently, so every frame counts its own pixels and iterations
+     * @return The frame the strategy reports its progress to
+     */
+    Frame frameStarted(long totalPixels) {
+        Frame frame = new Frame(totalPixels);
+        currentFrame = frame;
+        return frame;
+    }
+
+    void cacheLookups(long hits, long misses) {
+        cacheHits.add(hits);
+        cacheMisses.add(misses);
+    }
+
+    /**
+     * The counters of one calculation, the process-wide counters are updated along with them
+     */
+    final class Frame {
+        private final long startNanos = System.nanoTime();
+        private final long totalPixels;
+        private final LongAdder pixels = new LongAdder();
+        private final LongAdder iterations = new LongAdder();
+
+        private Frame(long totalPixels) {
+            this.totalPixels = totalPixels;
+        }
+
+        void tilesQueued(int tiles) {
+            RenderMetrics.this.tilesQueued.add(tiles);
+        }
+
+        void tileCompleted(long iterations) {
+            RenderMetrics.this.tilesQueued.decrement();
+            tilesCompleted.increment();
+            iterationsCompleted.add(iterations);
+            this.iterations.add(iterations);
+        }
+
+        void pixelsCompleted(long pixels) {
+            pixelsCompleted.add(pixels);
+            this.pixels.add(pixels);
+        }
+
+        void completed() {
+            long nanos = System.nanoTime() - startNanos;
+            lastFrameNanos = nanos;
+            lastFramePixels = pixels.sum();
+            lastFrameIterations = iterations.sum();
+            framesCompleted.increment();
+            latencyHistogram[bucketOf(nanos / 1_000_000)].increment();
+        }
+
+        private double progress() {
+            return totalPixels == 0 ? 0 : Math.min(1.0, (double) pixels.sum() / totalPixels);
+        }
+    }
+
+    private static int bucketOf(long millis) {
+        for (int i = 0; i < LATENCY_BUCKETS_MILLIS.length; i++) {
+            if (millis <= LATENCY_BUCKETS_MILLIS[i]) {
+                return i;
+            }
+        }
+        return LATENCY_BUCKETS_MILLIS.length;
+    }
+
+    // Current frame progress
+
+    /**
+     * Get the fraction of the current frame that is done
+     * @return Progress between 0 and 1
+     */
+    public double getFrameProgress() {
+        Frame frame = currentFrame;
+        return frame == null ? 0 : frame.progress();
+    }
+
+    /**
+     * Estimate the remaining time of the current frame from its progress so far
+     * @return Remaining milliseconds, or -1 if nothing is known yet
+     */
+    public long getFrameEtaMillis() {
+        Frame frame = currentFrame;
+        double progress = frame == null ? 0 : frame.progress();
+        if (progress <= 0) {
+            return -1;
+        }
+        double elapsedMillis = (System.nanoTime() - frame.startNanos) / 1e6;
+        return Math.round(elapsedMillis * (1 - progress) / progress);
+    }
+
+    // MXBean attributes
+
+    @Override
+    public long getFramesCompleted() {
+        return framesCompleted.sum();
+    }
+
+    @Override
+    public long getPixelsCompleted() {
+        return pixelsCompleted.sum();
+    }
+
+    @Override
+    public long getIterationsCompleted() {
+        return iterationsCompleted.sum();
+    }
+
+    @Override
+    public long getTilesCompleted() {
+        return tilesCompleted.sum();
+    }
+
+    @Override
+    public long getQueueDepth() {
+        return Math.max(0, tilesQueued.sum());
+    }
+
+    @Override
+    public double getLastFrameMillis() {
+        return lastFrameNanos / 1e6;
+    }
+
+    @Override
+    public double getPixelsPerSecond() {
+        long nanos = lastFrameNanos;
+        return nanos == 0 ? 0 : lastFramePixels * 1e9 / nanos;
+    }
+
+    @Override
+    public double getIterationsPerSecond() {
+        long nanos = lastFrameNanos;
+        return nanos == 0 ? 0 : lastFrameIterations * 1e9 / nanos;
+    }
+
+    @Override
+    public double getCacheHitRate() {
+        long hits = cacheHits.sum();
+        long total = hits + cacheMisses.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public long[] getFrameLatencyHistogram() {
+        long[] counts = new long[latencyHistogram.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = latencyHistogram[i].sum();
+        }
+        return counts;
+    }
+
+    @Override
+    public long[] getFrameLatencyBucketsMillis() {
+        return LATENCY_BUCKETS_MILLIS.clone();
+    }
+
+    @Override
+    public long getFrameLatencyPercentileMillis(double percentile) {
+        long[] counts = getFrameLatencyHistogram();
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                // Report the upper bound of the bucket, the unbounded one reports the bucket before it
+                return LATENCY_BUCKETS_MILLIS[Math.min(i, LATENCY_BUCKETS_MILLIS.length - 1)];
+            }
+        }
+        return LATENCY_BUCKETS_MILLIS[LATENCY_BUCKETS_MILLIS.length - 1];
+    }
+
+    @Override
+    public long getFrameLatencyP50Millis() {
+        return getFrameLatencyPercentileMillis(50);
+    }
+
+    @Override
+    public long getFrameLatencyP95Millis() {
+        return getFrameLatencyPercentileMillis(95);
+    }
+
+    @Override
+    public long getFrameLatencyP99Millis() {
+        return getFrameLatencyPercentileMillis(99);
+    }
+}
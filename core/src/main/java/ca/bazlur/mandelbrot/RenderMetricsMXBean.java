@@ -0,0 +1,43 @@
+package ca.bazlur.mandelbrot;
+
+/**
+ * JMX view of {@link RenderMetrics}. Rates are those of the last completed frame.
+ */
+public interface RenderMetricsMXBean {
+
+    long getFramesCompleted();
+
+    long getPixelsCompleted();
+
+    long getIterationsCompleted();
+
+    long getTilesCompleted();
+
+    /**
+     * Get the number of tiles submitted to the strategies and not completed yet
+     */
+    long getQueueDepth();
+
+    double getLastFrameMillis();
+
+    double getPixelsPerSecond();
+
+    double getIterationsPerSecond();
+
+    /**
+     * Get the fraction of points served from saved state instead of being iterated
+     */
+    double getCacheHitRate();
+
+    long[] getFrameLatencyHistogram();
+
+    long[] getFrameLatencyBucketsMillis();
+
+    long getFrameLatencyPercentileMillis(double percentile);
+
+    long getFrameLatencyP50Millis();
+
+    long getFrameLatencyP95Millis();
+
+    long getFrameLatencyP99Millis();
+}
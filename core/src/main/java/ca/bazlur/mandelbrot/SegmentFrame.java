@@ -0,0 +1,138 @@
+package ca.bazlur.mandelbrot;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A frame of ints, iteration counts or ARGB pixels, stored row by row in a MemorySegment instead of an int[][].
+ * Indices are longs, so a frame may have more than 2^31 pixels, and the memory lives outside the heap,
+ * either allocated from an Arena or mapped onto a file. It stays valid until the arena is closed.
+ */
+public class SegmentFrame {
+    /** Little endian on every platform, so mapped files can be read back anywhere */
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private final MemorySegment segment;
+    private final ValueLayout.OfInt layout;
+    private final int width;
+    private final int height;
+
+    private SegmentFrame(MemorySegment segment, ValueLayout.OfInt layout, int width, int height) {
+        this.segment = segment;
+        this.layout = layout;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Allocate a zeroed frame in memory
+     */
+    public static SegmentFrame allocate(Arena arena, int width, int height) {
+        return new SegmentFrame(arena.allocate(byteSize(width, height), INT.byteAlignment()), INT, width, height);
+    }
+
+    /**
+     * View an array of width * height ints, row by row, as a frame, e.g. the pixels of a BufferedImage.
+     * The frame lives as long as the array and uses its native byte order.
+     */
+    public static SegmentFrame wrap(int[] values, int width, int height) {
+        if (values.length != (long) width * height) {
+            throw new IllegalArgumentException("Expected " + (long) width * height + " values, got " + values.length);
+        }
+        return new SegmentFrame(MemorySegment.ofArray(values), ValueLayout.JAVA_INT, width, height);
+    }
+
+    /**
+     * Map a frame onto a file, creating or growing the file as needed. Writes reach the file
+     * when the operating system flushes the pages, at the latest when the arena is closed.
+     */
+    public static SegmentFrame map(Arena arena, Path file, int width, int height) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE)) {
+            MemorySegment segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, byteSize(width, height), arena);
+            return new SegmentFrame(segment, INT, width, height);
+        }
+    }
+
+    private static long byteSize(int width, int height) {
+        return (long) width * height * INT.byteSize();
+    }
+
+    public int get(int x, int y) {
+        return segment.getAtIndex(layout, index(x, y));
+    }
+
+    public void set(int x, int y, int value) {
+        segment.setAtIndex(layout, index(x, y), value);
+    }
+
+    private long index(int x, int y) {
+        return (long) y * width + x;
+    }
+
+    /**
+     * Store a region calculated by a strategy, whose iterations are indexed from the region's top left corner
+     */
+    public void writeRegion(Tile region, int[][] iterations) {
+        for (int x = 0; x < region.width(); x++) {
+            int[] column = iterations[x];
+            for (int y = 0; y < region.height(); y++) {
+                segment.setAtIndex(layout, index(region.x() + x, region.y() + y), column[y]);
+            }
+        }
+    }
+
+    /**
+     * Copy whole rows into an array, row by row, e.g. to hand them to an {@link ImageSink}
+     */
+    public void readRows(int y, int rows, int[] destination) {
+        MemorySegment.copy(segment, layout, index(0, y) * layout.byteSize(), destination, 0, rows * width);
+    }
+
+    /**
+     * Write whole rows from an array, row by row
+     */
+    public void writeRows(int y, int rows, int[] source) {
+        MemorySegment.copy(source, 0, segment, layout, index(0, y) * layout.byteSize(), rows * width);
+    }
+
+    /**
+     * Colorize an iteration frame into an ARGB frame of the same size, one row at a time
+     */
+    public void colorize(SegmentFrame argb, ColorPalette palette, int maxIterations) {
+        colorize(argb, palette.getArgbTable(maxIterations));
+    }
+
+    /**
+     * Colorize an iteration frame into an ARGB frame of the same size, which may be this frame, one row at a time
+     * @param colors The color of every iteration count, see {@link ColorPalette#getArgbTable}
+     */
+    public void colorize(SegmentFrame argb, int[] colors) {
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            readRows(y, 1, row);
+            for (int x = 0; x < width; x++) {
+                row[x] = colors[row[x]];
+            }
+            argb.writeRows(y, 1, row);
+        }
+    }
+
+    public MemorySegment segment() {
+        return segment;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
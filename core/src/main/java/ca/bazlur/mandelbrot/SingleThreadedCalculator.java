@@ -10,17 +10,37 @@ public class SingleThreadedCalculator implements MandelbrotCalculatorStrategy {
     @Override
     public int[][] calculateIterations(int width, int height, double centerX, double centerY, double zoom, int maxIterations, Fractal fractal) {
         int[][] iterations = new int[width][height];
+        RenderMetrics.Frame frame = RenderMetrics.get().frameStarted((long) width * height);
+        frame.tilesQueued(1);
+        TileTimer timer = new TileTimer(frame);
+        long total = 0;
         
         for (int x = 0; x < width; x++) {
             for (int y = 0; y < height; y++) {
                 ComplexNumber c = screenToComplex(x, y, width, height, centerX, centerY, zoom);
                 iterations[x][y] = calculatePointIterations(c, maxIterations, fractal);
+                total += iterations[x][y];
             }
+            frame.pixelsCompleted(height);
         }
         
+        timer.finish(fractal, zoom, maxIterations, getType(), 0, 0, width, height, total);
+        frame.completed();
         return iterations;
     }
     
+    @Override
+    public int[][] calculateIterations(IterationState state, int maxIterations) {
+        RenderMetrics.Frame frame = RenderMetrics.get().frameStarted((long) state.getWidth() * state.getHeight());
+        frame.tilesQueued(1);
+        TileTimer timer = new TileTimer(frame);
+        long total = state.advanceRows(0, state.getHeight(), maxIterations, frame);
+        timer.finish(state.getFractal(), state.getZoom(), maxIterations, getType(), 0, 0, state.getWidth(), state.getHeight(), total);
+        state.complete(maxIterations);
+        frame.completed();
+        return state.getIterations();
+    }
+    
     private static int calculatePointIterations(ComplexNumber c, int maxIterations, Fractal fractal) {
         return fractal.calculateIterations(c, maxIterations);
     }
@@ -31,6 +51,11 @@ public class SingleThreadedCalculator implements MandelbrotCalculatorStrategy {
         return new ComplexNumber(real, imaginary);
     }
     
+    @Override
+    public StrategyType getType() {
+        return StrategyType.SINGLE_THREADED;
+    }
+    
     @Override
     public void close() {
         // No resources to clean up for single-threaded implementation
@@ -0,0 +1,213 @@
+package ca.bazlur.mandelbrot;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Exports an image of any size by rendering it in horizontal strips: each strip is calculated,
+ * colorized and handed to an encoder thread, which writes it while the next strip is calculated.
+ * At most {@value #STRIPS_IN_FLIGHT} colorized strips wait for the encoder, so for PNG the memory
+ * used depends on the image width only. Other formats need the whole image for ImageIO, so the frame is
+ * calculated straight into the image's pixels with {@link MandelbrotCalculatorStrategy#calculateInto} and
+ * colorized in place.
+ * A color depends on the iteration count only, so the colors of all counts are computed once up front;
+ * when there are at most 256 of them the PNG is written with a palette.
+ */
+public class StripExporter {
+    public static final int STRIP_HEIGHT = 64;
+    private static final int STRIPS_IN_FLIGHT = 2;
+
+    private record Strip(int[] argb, int rows) {
+    }
+
+    private static final Strip END = new Strip(new int[0], 0);
+
+    private final MandelbrotCalculatorStrategy calculator;
+    private final ColorPalette palette;
+
+    public StripExporter(MandelbrotCalculatorStrategy calculator, ColorPalette palette) {
+        this.calculator = calculator;
+        this.palette = palette;
+    }
+
+    /**
+     * Render the view to a file
+     * @param format "png" to stream the image, any other ImageIO format name to write it at the end
+     * @param progress Receives the fraction of rows written so far
+     */
+    public void export(Path file, String format, int width, int height, double centerX, double centerY, double zoom,
+                       int maxIterations, Fractal fractal, DoubleConsumer progress) throws IOException {
+        export(file, format, width, height, centerX, centerY, zoom, maxIterations, fractal,
+               palette.getArgbTable(maxIterations), null, progress);
+    }
+
+    /**
+     * Render the export a checkpoint describes, in the checkpoint's palette. Strips the checkpoint has journaled
+     * are read back instead of calculated, every strip calculated is journaled.
+     * @param progress Receives the fraction of rows written so far
+     */
+    public void export(RenderCheckpoint checkpoint, DoubleConsumer progress) throws IOException {
+        ExportSpec spec = checkpoint.getSpec();
+        export(spec.output(), spec.format(), spec.width(), spec.height(), spec.centerX(), spec.centerY(), spec.zoom(),
+               spec.maxIterations(), spec.createFractal(),
+               new ColorPalette(spec.palette()).getArgbTable(spec.maxIterations()), checkpoint, progress);
+    }
+
+    private void export(Path file, String format, int width, int height, double centerX, double centerY, double zoom,
+                        int maxIterations, Fractal fractal, int[] colors, RenderCheckpoint checkpoint,
+                        DoubleConsumer progress) throws IOException {
+        try {
+            if ("png".equals(format) || checkpoint != null) {
+                writeStrips(file, format, width, height, centerX, centerY, zoom, maxIterations, fractal, colors,
+                            checkpoint, progress);
+            } else {
+                writeImage(file, format, width, height, centerX, centerY, zoom, maxIterations, fractal, colors,
+                           progress);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file); // Never leave a truncated image behind
+            throw e;
+        }
+    }
+
+    private void writeStrips(Path file, String format, int width, int height, double centerX, double centerY, double zoom,
+                             int maxIterations, Fractal fractal, int[] colors, RenderCheckpoint checkpoint,
+                             DoubleConsumer progress) throws IOException {
+        try (ImageSink sink = openSink(file, format, width, height, colors)) {
+            BlockingQueue<Strip> strips = new ArrayBlockingQueue<>(STRIPS_IN_FLIGHT);
+            Encoder encoder = new Encoder(sink, strips, height, progress);
+            Thread encoderThread = new Thread(encoder, "strip-encoder");
+            encoderThread.setDaemon(true);
+            encoderThread.start();
+
+            boolean finished = false;
+            try {
+                for (int y = 0; y < height && encoder.failure == null; y += STRIP_HEIGHT) {
+                    int rows = Math.min(STRIP_HEIGHT, height - y);
+                    Tile strip = new Tile(0, y, width, rows);
+                    int[][] iterations;
+                    if (checkpoint != null && checkpoint.contains(strip)) {
+                        iterations = checkpoint.read(strip);
+                    } else {
+                        iterations = calculator.calculateRegion(width, height, strip, centerX, centerY, zoom,
+                                                                maxIterations, fractal);
+                        if (checkpoint != null) {
+                            checkpoint.append(strip, iterations);
+                        }
+                    }
+                    strips.put(new Strip(ColorPalette.colorize(iterations, width, rows, colors), rows));
+                }
+                strips.put(END);
+                encoderThread.join();
+                finished = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Export interrupted", e);
+            } finally {
+                if (!finished) {
+                    // The sink is closed next, the encoder must not be writing to it anymore
+                    stop(encoderThread);
+                }
+            }
+            if (encoder.failure instanceof IOException e) {
+                throw e;
+            }
+            if (encoder.failure instanceof RuntimeException e) {
+                throw e;
+            }
+        }
+    }
+
+    private void writeImage(Path file, String format, int width, int height, double centerX, double centerY, double zoom,
+                            int maxIterations, Fractal fractal, int[] colors, DoubleConsumer progress) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        SegmentFrame pixels = SegmentFrame.wrap(((DataBufferInt) image.getRaster().getDataBuffer()).getData(),
+                                                width, height);
+        calculator.calculateInto(pixels, centerX, centerY, zoom, maxIterations, fractal, progress);
+        pixels.colorize(pixels, colors);
+        if (!ImageIO.write(image, format, file.toFile())) {
+            throw new IOException("No writer for format " + format);
+        }
+    }
+
+    private static void stop(Thread encoderThread) {
+        encoderThread.interrupt();
+        boolean interrupted = false;
+        while (encoderThread.isAlive()) {
+            try {
+                encoderThread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ImageSink openSink(Path file, String format, int width, int height, int[] colors) throws IOException {
+        if ("png".equals(format)) {
+            return new PngWriter(file, width, height, PngWriter.indexedPalette(colors));
+        }
+        // ImageIO encoders need the whole image, a checkpointed export still goes strip by strip to journal them
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        return new ImageSink() {
+            private int y;
+
+            @Override
+            public void writeRows(int[] argb, int rows) {
+                image.setRGB(0, y, width, rows, argb, 0, width);
+                y += rows;
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (!ImageIO.write(image, format, file.toFile())) {
+                    throw new IOException("No writer for format " + format);
+                }
+            }
+        };
+    }
+
+    /**
+     * Writes strips to the sink until the end marker arrives or writing fails
+     */
+    private static class Encoder implements Runnable {
+        private final ImageSink sink;
+        private final BlockingQueue<Strip> strips;
+        private final int height;
+        private final DoubleConsumer progress;
+        private volatile Exception failure; // An IOException or a RuntimeException
+
+        Encoder(ImageSink sink, BlockingQueue<Strip> strips, int height, DoubleConsumer progress) {
+            this.sink = sink;
+            this.strips = strips;
+            this.height = height;
+            this.progress = progress;
+        }
+
+        @Override
+        public void run() {
+            int written = 0;
+            try {
+                for (Strip strip = strips.take(); strip != END; strip = strips.take()) {
+                    sink.writeRows(strip.argb(), strip.rows());
+                    written += strip.rows();
+                    progress.accept((double) written / height);
+                }
+            } catch (IOException | RuntimeException e) {
+                failure = e;
+                strips.clear(); // Unblock the renderer, it stops after the strip it is calculating
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
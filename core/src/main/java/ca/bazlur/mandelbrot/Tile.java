@@ -0,0 +1,61 @@
+package ca.bazlur.mandelbrot;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A rectangular region of a frame in pixel coordinates
+ */
+public record Tile(int x, int y, int width, int height) {
+
+    public long pixels() {
+        return (long) width * height;
+    }
+
+    /**
+     * Split a frame into tiles of at most tileSize x tileSize pixels, row by row
+     */
+    public static List<Tile> grid(int frameWidth, int frameHeight, int tileSize) {
+        List<Tile> tiles = new ArrayList<>();
+        for (int y = 0; y < frameHeight; y += tileSize) {
+            for (int x = 0; x < frameWidth; x += tileSize) {
+                tiles.add(new Tile(x, y, Math.min(tileSize, frameWidth - x), Math.min(tileSize, frameHeight - y)));
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * Order tiles by distance from a focus point, so the area the user is looking at completes first
+     */
+    public static List<Tile> nearestFirst(List<Tile> tiles, double focusX, double focusY) {
+        List<Tile> sorted = new ArrayList<>(tiles);
+        sorted.sort(Comparator.comparingDouble(tile -> tile.distanceSquared(focusX, focusY)));
+        return sorted;
+    }
+
+    private double distanceSquared(double pointX, double pointY) {
+        double dx = x + width / 2.0 - pointX;
+        double dy = y + height / 2.0 - pointY;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Order tiles by decreasing predicted cost, so that workers taking tiles in order
+     * follow the longest-processing-time-first schedule
+     * @param costs Predicted cost of each tile, in the same order as tiles
+     */
+    public static List<Tile> longestFirst(List<Tile> tiles, long[] costs) {
+        List<Integer> order = new ArrayList<>(tiles.size());
+        for (int i = 0; i < tiles.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparingLong((Integer i) -> costs[i]).reversed());
+        List<Tile> sorted = new ArrayList<>(tiles.size());
+        for (int i : order) {
+            sorted.add(tiles.get(i));
+        }
+        return sorted;
+    }
+}
@@ -0,0 +1,36 @@
+package ca.bazlur.mandelbrot;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("ca.bazlur.mandelbrot.TileCompute")
+@Label("Tile Compute")
+@Description("Escape-time iterations of one unit of work of a calculation strategy")
+@StackTrace(false)
+public class TileComputeEvent extends RenderEvent {
+    @Label("X")
+    int x;
+
+    @Label("Y")
+    int y;
+
+    @Label("Width")
+    int width;
+
+    @Label("Height")
+    int height;
+
+    @Label("Iterations")
+    @Description("Total iterations performed for the tile")
+    long iterations;
+
+    void describeTile(int x, int y, int width, int height, long iterations) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.iterations = iterations;
+    }
+}
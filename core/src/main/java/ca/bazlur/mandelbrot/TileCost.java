@@ -0,0 +1,7 @@
+package ca.bazlur.mandelbrot;
+
+/**
+ * Measured cost of one unit of work of a calculation strategy
+ */
+public record TileCost(int x, int y, int width, int height, long nanos, long iterations, String thread) {
+}
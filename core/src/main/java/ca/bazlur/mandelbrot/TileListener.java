@@ -0,0 +1,21 @@
+package ca.bazlur.mandelbrot;
+
+/**
+ * Receives the tiles of a frame as a strategy completes them
+ */
+@FunctionalInterface
+public interface TileListener {
+    /**
+     * Called from a worker thread when a tile is done
+     * @param iterations The whole frame, final inside the tile
+     */
+    void tileCompleted(Tile tile, int[][] iterations);
+
+    /**
+     * Checked by the strategies before they start a tile; once it returns true the calculation
+     * stops with a CancellationException instead of computing the remaining tiles
+     */
+    default boolean isCancelled() {
+        return false;
+    }
+}
@@ -0,0 +1,66 @@
+package ca.bazlur.mandelbrot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Records the time and iterations of every tile computed while it is active,
+ * to see how evenly the strategies split the work of a frame.
+ */
+public class TileProfile {
+    private static volatile TileProfile active;
+
+    private final Queue<TileCost> tiles = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Start recording tiles into a new profile, replacing any active one
+     */
+    public static TileProfile start() {
+        TileProfile profile = new TileProfile();
+        active = profile;
+        return profile;
+    }
+
+    /**
+     * Stop recording, if this profile is still the active one
+     */
+    public void stop() {
+        if (active == this) {
+            active = null;
+        }
+    }
+
+    static void record(int x, int y, int width, int height, long nanos, long iterations) {
+        TileProfile profile = active;
+        if (profile != null) {
+            profile.tiles.add(new TileCost(x, y, width, height, nanos, iterations, Thread.currentThread().getName()));
+        }
+    }
+
+    public List<TileCost> getTiles() {
+        return new ArrayList<>(tiles);
+    }
+
+    public long getMaxNanos() {
+        return tiles.stream().mapToLong(TileCost::nanos).max().orElse(0);
+    }
+
+    public long getMinNanos() {
+        return tiles.stream().mapToLong(TileCost::nanos).min().orElse(0);
+    }
+
+    public void writeCsv(Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("x,y,width,height,nanos,iterations,thread");
+        for (TileCost tile : tiles) {
+            lines.add(tile.x() + "," + tile.y() + "," + tile.width() + "," + tile.height() + ","
+                + tile.nanos() + "," + tile.iterations() + "," + tile.thread());
+        }
+        Files.write(file, lines);
+    }
+}
@@ -0,0 +1,183 @@
+package ca.bazlur.mandelbrot;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * The messages a {@link DistributedCalculator} and its {@link TileWorker}s exchange over TCP. The worker opens
+ * with a hello, then answers every request with a result or a failure, in any order, and sends a heartbeat every
+ * {@value #HEARTBEAT_MILLIS} ms so a silent connection can be told from a slow tile. Requests carry the whole
+ * view, so workers keep no state between tiles.
+ */
+final class TileProtocol {
+    static final int MAGIC = 0x4D414E44; // "MAND"
+    static final int VERSION = 1;
+    static final long HEARTBEAT_MILLIS = 1000;
+
+    static final byte REQUEST = 1;
+    static final byte RESULT = 2;
+    static final byte FAILED = 3;
+    static final byte HEARTBEAT = 4;
+
+    /** What a worker announces when a coordinator connects */
+    record Hello(int capacity, MandelbrotCalculatorStrategy.StrategyType strategy) {
+    }
+
+    /**
+     * A tile of a frame to calculate
+     * @param parameter The fractal's parameter for fractals that require one, otherwise null
+     */
+    record Request(long id, FractalType fractalType, ComplexNumber parameter, int frameWidth, int frameHeight,
+                   Tile tile, double centerX, double centerY, double zoom, int maxIterations) {
+
+        Fractal createFractal() {
+            Fractal fractal = fractalType.create();
+            if (parameter != null) {
+                fractal.setParameter(parameter);
+            }
+            return fractal;
+        }
+    }
+
+    private TileProtocol() {
+    }
+
+    static void writeHello(DataOutputStream out, Hello hello) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(hello.capacity());
+        out.writeUTF(hello.strategy().name());
+        out.flush();
+    }
+
+    /**
+     * @throws IOException If the peer is not a worker speaking this version
+     */
+    static Hello readHello(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a tile worker");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Tile worker speaks protocol version " + version + ", expected " + VERSION);
+        }
+        int capacity = in.readInt();
+        try {
+            return new Hello(capacity, MandelbrotCalculatorStrategy.StrategyType.valueOf(in.readUTF()));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Tile worker uses an unknown strategy", e);
+        }
+    }
+
+    static void writeRequest(DataOutputStream out, Request request) throws IOException {
+        out.writeByte(REQUEST);
+        out.writeLong(request.id());
+        out.writeUTF(request.fractalType().name());
+        out.writeBoolean(request.parameter() != null);
+        if (request.parameter() != null) {
+            out.writeDouble(request.parameter().real());
+            out.writeDouble(request.parameter().imaginary());
+        }
+        out.writeInt(request.frameWidth());
+        out.writeInt(request.frameHeight());
+        Tile tile = request.tile();
+        out.writeInt(tile.x());
+        out.writeInt(tile.y());
+        out.writeInt(tile.width());
+        out.writeInt(tile.height());
+        out.writeDouble(request.centerX());
+        out.writeDouble(request.centerY());
+        out.writeDouble(request.zoom());
+        out.writeInt(request.maxIterations());
+        out.flush();
+    }
+
+    /**
+     * @return The next request, or null when the coordinator closed the connection
+     */
+    static Request readRequest(DataInputStream in) throws IOException {
+        int type = in.read();
+        if (type < 0) {
+            return null;
+        }
+        if (type != REQUEST) {
+            throw new IOException("Unexpected message " + type);
+        }
+        long id = in.readLong();
+        FractalType fractalType;
+        try {
+            fractalType = FractalType.valueOf(in.readUTF());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unknown fractal", e);
+        }
+        ComplexNumber parameter = in.readBoolean() ? new ComplexNumber(in.readDouble(), in.readDouble()) : null;
+        return new Request(id, fractalType, parameter, in.readInt(), in.readInt(),
+                           new Tile(in.readInt(), in.readInt(), in.readInt(), in.readInt()),
+                           in.readDouble(), in.readDouble(), in.readDouble(), in.readInt());
+    }
+
+    /**
+     * Write the iterations of a tile column by column, the order of int[x][y]
+     */
+    static void writeResult(DataOutputStream out, long id, int[][] iterations) throws IOException {
+        int height = iterations.length == 0 ? 0 : iterations[0].length;
+        ByteBuffer bytes = ByteBuffer.allocate(iterations.length * height * Integer.BYTES);
+        for (int[] column : iterations) {
+            bytes.asIntBuffer().put(column);
+            bytes.position(bytes.position() + column.length * Integer.BYTES);
+        }
+        out.writeByte(RESULT);
+        out.writeLong(id);
+        out.writeInt(iterations.length);
+        out.writeInt(height);
+        out.write(bytes.array());
+        out.flush();
+    }
+
+    /**
+     * Read the iterations of a result, after its type and id
+     * @throws IOException If the size is negative or larger than an array can hold
+     */
+    static int[][] readResult(DataInputStream in) throws IOException {
+        int width = in.readInt();
+        int height = in.readInt();
+        if (width < 0 || height < 0 || (long) width * height * Integer.BYTES > Integer.MAX_VALUE) {
+            throw new IOException("Invalid result size " + width + "x" + height);
+        }
+        byte[] data = new byte[width * height * Integer.BYTES];
+        in.readFully(data);
+        ByteBuffer bytes = ByteBuffer.wrap(data);
+        int[][] iterations = new int[width][height];
+        for (int[] column : iterations) {
+            bytes.asIntBuffer().get(column);
+            bytes.position(bytes.position() + column.length * Integer.BYTES);
+        }
+        return iterations;
+    }
+
+    static void writeFailure(DataOutputStream out, long id, String message) throws IOException {
+        out.writeByte(FAILED);
+        out.writeLong(id);
+        out.writeUTF(message);
+        out.flush();
+    }
+
+    static void writeHeartbeat(DataOutputStream out) throws IOException {
+        out.writeByte(HEARTBEAT);
+        out.flush();
+    }
+
+    /**
+     * @throws EOFException When the worker closed the connection
+     */
+    static int readType(DataInputStream in) throws IOException {
+        int type = in.read();
+        if (type < 0) {
+            throw new EOFException("Tile worker closed the connection");
+        }
+        return type;
+    }
+}
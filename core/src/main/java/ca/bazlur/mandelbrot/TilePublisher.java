@@ -0,0 +1,124 @@
+package ca.bazlur.mandelbrot;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Publishes the tiles of a calculation as they complete. Every subscriber starts its own calculation.
+ * Tiles are buffered per subscriber up to {@link Flow#defaultBufferSize()}; when the buffer is full
+ * the worker that completed the next tile waits, so a slow subscriber slows the calculation down
+ * instead of letting results pile up. Cancelling the subscription stops the calculation before its next tile.
+ */
+public class TilePublisher implements Flow.Publisher<TileResult> {
+    /** Runs every calculation on a new daemon thread */
+    public static final Executor NEW_THREAD = runnable -> {
+        Thread calculationThread = new Thread(runnable, "tile-publisher");
+        calculationThread.setDaemon(true);
+        calculationThread.start();
+    };
+
+    private final Consumer<TileListener> calculation;
+    private final Executor executor;
+
+    /**
+     * @param calculation Runs the calculation, reporting every completed tile to the given listener
+     */
+    public TilePublisher(Consumer<TileListener> calculation) {
+        this(calculation, NEW_THREAD);
+    }
+
+    /**
+     * @param calculation Runs the calculation, reporting every completed tile to the given listener
+     * @param executor Runs the calculation of every subscriber
+     */
+    public TilePublisher(Consumer<TileListener> calculation, Executor executor) {
+        this.calculation = calculation;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super TileResult> subscriber) {
+        SubmissionPublisher<TileResult> publisher = new SubmissionPublisher<>();
+        publisher.subscribe(subscriber);
+        TileListener listener = new TileListener() {
+            @Override
+            public void tileCompleted(Tile tile, int[][] iterations) {
+                publisher.submit(TileResult.of(tile, iterations));
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return !publisher.hasSubscribers(); // The subscriber cancelled
+            }
+        };
+        try {
+            executor.execute(() -> {
+                try {
+                    calculation.accept(listener);
+                    publisher.close();
+                } catch (RuntimeException e) {
+                    publisher.closeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            publisher.closeExceptionally(e);
+        }
+    }
+
+    /**
+     * Subscribe and hand every tile to the consumer as it arrives, then wait for the last one.
+     * The consumer runs on the delivery thread, one tile at a time, and holding it up applies backpressure.
+     * Interrupting the waiting thread cancels the subscription, and with it the calculation.
+     * @throws CancellationException If the waiting thread was interrupted
+     */
+    public static void forEach(Flow.Publisher<TileResult> tiles, Consumer<TileResult> consumer) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        AtomicReference<Flow.Subscription> subscription = new AtomicReference<>();
+        tiles.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription accepted) {
+                subscription.set(accepted);
+                accepted.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(TileResult tile) {
+                try {
+                    consumer.accept(tile);
+                } catch (RuntimeException e) {
+                    subscription.get().cancel();
+                    done.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                done.completeExceptionally(error);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(null);
+            }
+        });
+        try {
+            done.get();
+        } catch (InterruptedException e) {
+            Flow.Subscription accepted = subscription.get();
+            if (accepted != null) {
+                accepted.cancel();
+            }
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for tiles");
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
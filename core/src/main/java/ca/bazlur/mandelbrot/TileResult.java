@@ -0,0 +1,40 @@
+package ca.bazlur.mandelbrot;
+
+/**
+ * The iterations of one completed tile, row by row, independent of the frame it was computed in
+ */
+public record TileResult(Tile tile, int[] iterations) {
+
+    /**
+     * Copy a tile out of a frame
+     */
+    public static TileResult of(Tile tile, int[][] frame) {
+        int[] iterations = new int[tile.width() * tile.height()];
+        for (int x = 0; x < tile.width(); x++) {
+            int[] column = frame[tile.x() + x];
+            for (int y = 0; y < tile.height(); y++) {
+                iterations[y * tile.width() + x] = column[tile.y() + y];
+            }
+        }
+        return new TileResult(tile, iterations);
+    }
+
+    /**
+     * Get the iterations of a pixel in tile coordinates
+     */
+    public int get(int x, int y) {
+        return iterations[y * tile.width() + x];
+    }
+
+    /**
+     * Copy the tile into a frame at its position
+     */
+    public void copyInto(int[][] frame) {
+        for (int x = 0; x < tile.width(); x++) {
+            int[] column = frame[tile.x() + x];
+            for (int y = 0; y < tile.height(); y++) {
+                column[tile.y() + y] = iterations[y * tile.width() + x];
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ca.bazlur.mandelbrot;
+
+/**
+ * Instruments one unit of work of a calculation strategy: started when the tile
+ * starts computing, finished with the tile's bounds and iteration total.
+ */
+final class TileTimer {
+    private final TileComputeEvent event = new TileComputeEvent();
+    private final RenderMetrics.Frame frame;
+    private final long startNanos;
+
+    TileTimer(RenderMetrics.Frame frame) {
+        this.frame = frame;
+        event.begin();
+        startNanos = System.nanoTime();
+    }
+
+    void finish(Fractal fractal, double zoom, int maxIterations, MandelbrotCalculatorStrategy.StrategyType strategy,
+                int x, int y, int width, int height, long iterations) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.describe(fractal, zoom, maxIterations, strategy);
+            event.describeTile(x, y, width, height, iterations);
+            event.commit();
+        }
+        frame.tileCompleted(iterations);
+        TileProfile.record(x, y, width, height, System.nanoTime() - startNanos, iterations);
+    }
+}
@@ -0,0 +1,137 @@
+package ca.bazlur.mandelbrot;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calculates tiles for {@link DistributedCalculator}s that connect over TCP. Every request is calculated on its own
+ * virtual thread with the worker's strategy, so a coordinator keeping several tiles in flight uses all of the
+ * strategy's threads, and results go back as soon as they are done.
+ */
+public class TileWorker implements AutoCloseable {
+    private final MandelbrotCalculatorStrategy calculator;
+    private final int capacity;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "tile-worker-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ServerSocket server;
+
+    /**
+     * @param capacity The tiles the strategy calculates at once, announced to coordinators; usually its threads
+     */
+    public TileWorker(MandelbrotCalculatorStrategy calculator, int capacity) {
+        this.calculator = calculator;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Start accepting coordinators on the address, port 0 picks a free port
+     * @return The address the worker listens on
+     */
+    public InetSocketAddress start(InetSocketAddress address) throws IOException {
+        server = new ServerSocket();
+        server.bind(address);
+        // Not a virtual thread: a worker process lives as long as it accepts coordinators
+        Thread.ofPlatform().name("tile-worker-accept").start(this::accept);
+        return (InetSocketAddress) server.getLocalSocketAddress();
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (server != null) {
+                server.close();
+            }
+        } catch (IOException e) {
+            // Closing anyway
+        }
+        heartbeats.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                executor.submit(() -> serve(socket));
+            } catch (IOException e) {
+                // Only this connection is lost, the coordinator reconnects; a closed server ends the loop
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            TileProtocol.writeHello(out, new TileProtocol.Hello(capacity, calculator.getType()));
+            ScheduledFuture<?> heartbeat = heartbeats.scheduleAtFixedRate(() -> {
+                try {
+                    synchronized (out) {
+                        TileProtocol.writeHeartbeat(out);
+                    }
+                } catch (IOException e) {
+                    close(socket);
+                }
+            }, TileProtocol.HEARTBEAT_MILLIS, TileProtocol.HEARTBEAT_MILLIS, TimeUnit.MILLISECONDS);
+            try {
+                for (TileProtocol.Request request = TileProtocol.readRequest(in); request != null;
+                     request = TileProtocol.readRequest(in)) {
+                    TileProtocol.Request tile = request;
+                    executor.submit(() -> calculate(tile, socket, out));
+                }
+            } finally {
+                heartbeat.cancel(false);
+            }
+        } catch (IOException e) {
+            // The coordinator is gone, its tiles are dispatched to other workers
+        }
+    }
+
+    private void calculate(TileProtocol.Request request, Socket socket, DataOutputStream out) {
+        int[][] iterations = null;
+        String failure = null;
+        try {
+            iterations = calculator.calculateRegion(request.frameWidth(), request.frameHeight(), request.tile(),
+                                                    request.centerX(), request.centerY(), request.zoom(),
+                                                    request.maxIterations(), request.createFractal());
+        } catch (Throwable e) {
+            // Errors such as running out of memory fail the tile, the coordinator sends it elsewhere
+            failure = e.toString();
+        }
+        try {
+            synchronized (out) {
+                if (failure == null) {
+                    TileProtocol.writeResult(out, request.id(), iterations);
+                } else {
+                    TileProtocol.writeFailure(out, request.id(), failure);
+                }
+            }
+        } catch (IOException e) {
+            close(socket);
+        }
+    }
+
+    private static void close(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+    }
+}
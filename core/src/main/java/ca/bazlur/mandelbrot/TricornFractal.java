@@ -0,0 +1,62 @@
+package ca.bazlur.mandelbrot;
+
+/**
+ * Implementation of the Tricorn (Mandelbar) fractal
+ * z(n+1) = conjugate(z(n))^2 + c
+ */
+public class TricornFractal implements Fractal {
+    
+    @Override
+    public int calculateIterations(ComplexNumber c, int maxIterations) {
+        return iterate(c, new ComplexNumber(0, 0), 0, maxIterations, null, 0);
+    }
+    
+    @Override
+    public int orbitStateSize() {
+        return 2;
+    }
+    
+    @Override
+    public int resumeIterations(ComplexNumber c, int iterations, int maxIterations, double[] orbit, int offset) {
+        ComplexNumber z = iterations == 0 ? new ComplexNumber(0, 0)
+                                          : new ComplexNumber(orbit[offset], orbit[offset + 1]);
+        return iterate(c, z, iterations, maxIterations, orbit, offset);
+    }
+    
+    /**
+     * Run the escape-time loop from start, which has already taken the given iterations
+     * @param orbit Receives the final z when not null
+     */
+    private int iterate(ComplexNumber c, ComplexNumber start, int iterations, int maxIterations, double[] orbit, int offset) {
+        var result = EscapeTime.iterate(start, iterations, maxIterations, z -> {
+            // Take conjugate before squaring
+            ComplexNumber conjugate = new ComplexNumber(z.real(), -z.imaginary());
+            return conjugate.square().add(c);
+        });
+        if (orbit != null) {
+            orbit[offset] = result.z().real();
+            orbit[offset + 1] = result.z().imaginary();
+        }
+        return result.iterations();
+    }
+    
+    @Override
+    public String getName() {
+        return "Tricorn";
+    }
+    
+    @Override
+    public String getDescription() {
+        return "Tricorn (Mandelbar) fractal: z(n+1) = conjugate(z(n))² + c";
+    }
+    
+    @Override
+    public ComplexNumber getDefaultCenter() {
+        return new ComplexNumber(0, 0);
+    }
+    
+    @Override
+    public double getDefaultZoom() {
+        return 200;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,296 @@
+package ca.bazlur.mandelbrot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Renders an animation path to numbered PNG frames ({@code frame_00000.png}, ...) for a video encoder.
+ * Calculating, colorizing and encoding run as pipeline stages on their own threads, connected by queues of
+ * {@value #FRAMES_IN_FLIGHT} frames, so the next frame is calculated while earlier ones are colorized and written.
+ * <p>
+ * Consecutive frames share work where the geometry allows it: a frame identical to the previous one is not
+ * calculated again, a frame of the same view with a higher maxIterations only continues the points that had
+ * not escaped, and a pan by whole pixels at the same zoom only calculates the newly exposed pixels, as long as
+ * the pixels it keeps map to exactly the same points. The frames are identical to ones rendered one at a time.
+ * Frames already written by an earlier run are skipped.
+ */
+public class ZoomAnimation {
+    private static final int FRAMES_IN_FLIGHT = 2;
+
+    private final MandelbrotCalculatorStrategy calculator;
+    private final ColorPalette palette;
+    private final int encoders;
+
+    /**
+     * A frame between stages: iterations when calculated, then colors with the PNG palette they fit in
+     */
+    private record Frame(int index, int[][] iterations, int maxIterations, int[] argb, int[] pngPalette) {
+    }
+
+    private static final Frame END = new Frame(-1, null, 0, null, null);
+
+    public ZoomAnimation(MandelbrotCalculatorStrategy calculator, ColorPalette palette) {
+        this(calculator, palette, Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    /**
+     * @param encoders Number of frames encoded and written at the same time
+     */
+    public ZoomAnimation(MandelbrotCalculatorStrategy calculator, ColorPalette palette, int encoders) {
+        this.calculator = calculator;
+        this.palette = palette;
+        this.encoders = encoders;
+    }
+
+    /**
+     * Render every frame into a directory
+     * @param frames The view of every frame, see {@link Keyframe#interpolate}
+     * @param progress Receives the number of frames written so far
+     */
+    public void render(List<Keyframe> frames, Path directory, int width, int height, Fractal fractal,
+                       IntConsumer progress) throws IOException {
+        Files.createDirectories(directory);
+        BlockingQueue<Frame> calculated = new ArrayBlockingQueue<>(FRAMES_IN_FLIGHT);
+        BlockingQueue<Frame> colorized = new ArrayBlockingQueue<>(FRAMES_IN_FLIGHT);
+        Pipeline pipeline = new Pipeline(Thread.currentThread());
+        AtomicInteger written = new AtomicInteger();
+
+        pipeline.stage("animation-colorize", () -> {
+            int[] colors = null;
+            int[] pngPalette = null;
+            for (Frame frame = calculated.take(); frame != END; frame = calculated.take()) {
+                if (colors == null || colors.length != frame.maxIterations() + 1) {
+                    colors = palette.getArgbTable(frame.maxIterations());
+                    pngPalette = PngWriter.indexedPalette(colors);
+                }
+                colorized.put(new Frame(frame.index(), null, frame.maxIterations(),
+                                        ColorPalette.colorize(frame.iterations(), width, height, colors), pngPalette));
+            }
+            for (int i = 0; i < encoders; i++) {
+                colorized.put(END);
+            }
+        });
+        for (int i = 0; i < encoders; i++) {
+            pipeline.stage("animation-encode-" + i, () -> {
+                for (Frame frame = colorized.take(); frame != END; frame = colorized.take()) {
+                    write(frameFile(directory, frame.index()), frame.argb(), frame.pngPalette(), width, height);
+                    progress.accept(written.incrementAndGet());
+                }
+            });
+        }
+
+        try {
+            calculateFrames(frames, directory, width, height, fractal, calculated, written, progress);
+            calculated.put(END);
+            pipeline.join();
+        } catch (InterruptedException e) {
+            pipeline.stop();
+            if (!pipeline.failed()) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Animation interrupted", e);
+            }
+            Thread.interrupted(); // A failing stage interrupted this thread to stop calculating
+        } catch (RuntimeException e) {
+            pipeline.stop();
+            if (!pipeline.failed()) {
+                throw e;
+            }
+            Thread.interrupted(); // The calculation failed because the failing stage interrupted it
+        }
+        pipeline.rethrow();
+    }
+
+    /**
+     * The first stage, on the calling thread: calculate every frame that is not written yet, reusing the previous one
+     */
+    private void calculateFrames(List<Keyframe> frames, Path directory, int width, int height, Fractal fractal,
+                                 BlockingQueue<Frame> calculated, AtomicInteger written, IntConsumer progress) throws InterruptedException {
+        Keyframe previous = null;
+        int[][] previousIterations = null;
+        IterationState state = null;
+        for (int i = 0; i < frames.size(); i++) {
+            Keyframe frame = frames.get(i);
+            if (Files.exists(frameFile(directory, i))) {
+                progress.accept(written.incrementAndGet());
+                previous = null; // Nothing to reuse from a frame that was not calculated
+                state = null;
+                continue;
+            }
+            boolean nextSameView = i + 1 < frames.size() && frames.get(i + 1).sameView(frame);
+            int[][] iterations;
+            if (previous != null && previous.equals(frame)) {
+                iterations = previousIterations; // Colorizing only reads, the same array can go down the pipeline again
+            } else if (state != null && state.canResume(width, height, frame.centerX(), frame.centerY(), frame.zoom(),
+                                                        fractal, frame.maxIterations())) {
+                iterations = copy(calculator.calculateIterations(state, frame.maxIterations()));
+            } else if (nextSameView && IterationState.isSupported(fractal)) {
+                // Keep the orbits, the next frame only raises maxIterations
+                state = new IterationState(width, height, frame.centerX(), frame.centerY(), frame.zoom(), fractal);
+                iterations = copy(calculator.calculateIterations(state, frame.maxIterations()));
+            } else {
+                iterations = previous != null ? pan(previous, previousIterations, frame, width, height, fractal) : null;
+                if (iterations == null) {
+                    iterations = calculator.calculateIterations(width, height, frame.centerX(), frame.centerY(),
+                                                                frame.zoom(), frame.maxIterations(), fractal);
+                }
+            }
+            if (!nextSameView) {
+                state = null;
+            }
+            calculated.put(new Frame(i, iterations, frame.maxIterations(), null, null));
+            previous = frame;
+            previousIterations = iterations;
+        }
+    }
+
+    /**
+     * Shift the previous frame by whole pixels and calculate only the pixels it does not cover
+     * @return The frame, or null if it is not a whole pixel pan of the previous one
+     */
+    private int[][] pan(Keyframe previous, int[][] previousIterations, Keyframe frame, int width, int height,
+                        Fractal fractal) {
+        if (previous.zoom() != frame.zoom() || previous.maxIterations() != frame.maxIterations()) {
+            return null;
+        }
+        double shiftX = (frame.centerX() - previous.centerX()) * frame.zoom();
+        double shiftY = (frame.centerY() - previous.centerY()) * frame.zoom();
+        int dx = (int) Math.round(shiftX);
+        int dy = (int) Math.round(shiftY);
+        if (Math.abs(shiftX - dx) > 1e-6 || Math.abs(shiftY - dy) > 1e-6
+            || Math.abs(dx) >= width || Math.abs(dy) >= height
+            || !sameCoordinates(width, dx, previous.centerX(), frame.centerX(), frame.zoom())
+            || !sameCoordinates(height, dy, previous.centerY(), frame.centerY(), frame.zoom())) {
+            return null;
+        }
+
+        int[][] iterations = new int[width][height];
+        for (int x = Math.max(0, -dx); x < Math.min(width, width - dx); x++) {
+            System.arraycopy(previousIterations[x + dx], Math.max(0, dy), iterations[x], Math.max(0, -dy),
+                             height - Math.abs(dy));
+        }
+        // The exposed columns over the full height, then the exposed rows between them
+        List<Tile> exposed = new ArrayList<>();
+        if (dx != 0) {
+            exposed.add(new Tile(dx > 0 ? width - dx : 0, 0, Math.abs(dx), height));
+        }
+        if (dy != 0) {
+            exposed.add(new Tile(Math.max(0, -dx), dy > 0 ? height - dy : 0, width - Math.abs(dx), Math.abs(dy)));
+        }
+        for (Tile tile : exposed) {
+            int[][] region = calculator.calculateRegion(width, height, tile, frame.centerX(), frame.centerY(),
+                                                        frame.zoom(), frame.maxIterations(), fractal);
+            for (int x = 0; x < tile.width(); x++) {
+                System.arraycopy(region[x], 0, iterations[tile.x() + x], tile.y(), tile.height());
+            }
+        }
+        return iterations;
+    }
+
+    /**
+     * Check if every pixel the frames share maps to exactly the same coordinate in both, so reused
+     * iterations are the ones a fresh calculation would give. Usually true only for pans of whole pixels
+     * whose centers are rounded the same way.
+     */
+    private static boolean sameCoordinates(int size, int shift, double previousCenter, double center, double zoom) {
+        for (int i = Math.max(0, -shift); i < Math.min(size, size - shift); i++) {
+            if ((i + shift - size / 2.0) / zoom + previousCenter != (i - size / 2.0) / zoom + center) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[][] copy(int[][] iterations) {
+        int[][] copy = new int[iterations.length][];
+        for (int x = 0; x < iterations.length; x++) {
+            copy[x] = iterations[x].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * Write a frame under a temporary name first, so an existing frame file is always complete
+     */
+    static void write(Path file, int[] argb, int[] pngPalette, int width, int height) throws IOException {
+        Path partial = file.resolveSibling(file.getFileName() + ".part");
+        try (PngWriter png = new PngWriter(partial, width, height, pngPalette)) {
+            png.writeRows(argb, height);
+        }
+        Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    static Path frameFile(Path directory, int index) {
+        return directory.resolve(String.format("frame_%05d.png", index));
+    }
+
+    @FunctionalInterface
+    private interface StageBody {
+        void run() throws IOException, InterruptedException;
+    }
+
+    /**
+     * Runs the stages after the first one. The first failure of a stage is kept and stops the other stages
+     * and the owner, so none of them stays blocked on a queue that is no longer drained.
+     */
+    private static class Pipeline {
+        private final Thread owner;
+        private final List<Thread> stages = new ArrayList<>();
+        private volatile Exception failure;
+
+        Pipeline(Thread owner) {
+            this.owner = owner;
+        }
+
+        void stage(String name, StageBody body) {
+            Thread thread = new Thread(() -> {
+                try {
+                    body.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (IOException | RuntimeException e) {
+                    synchronized (this) {
+                        if (failure == null) {
+                            failure = e;
+                            stop();
+                            owner.interrupt();
+                        }
+                    }
+                }
+            }, name);
+            thread.setDaemon(true);
+            stages.add(thread);
+            thread.start();
+        }
+
+        void join() throws InterruptedException {
+            for (Thread stage : stages) {
+                stage.join();
+            }
+        }
+
+        void stop() {
+            stages.forEach(Thread::interrupt);
+        }
+
+        boolean failed() {
+            return failure != null;
+        }
+
+        void rethrow() throws IOException {
+            if (failure instanceof IOException e) {
+                throw e;
+            }
+            if (failure instanceof RuntimeException e) {
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+module ca.bazlur.mandelbrot {
+    requires java.desktop;
+    requires java.management;
+    requires jdk.management;
+    requires transitive jdk.jfr;
+
+    exports ca.bazlur.mandelbrot;
+}